@@ -0,0 +1,42 @@
+package com.eksooteeksoo.smartlibraryse;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Loads the benchmark inputs from src/jmh/resources/benchmark. Blank lines and lines
+ * starting with '#' are skipped.
+ */
+public final class BenchmarkCorpus {
+
+    private BenchmarkCorpus() {
+    }
+
+    public static List<String> queries() {
+        return load("benchmark/queries.txt");
+    }
+
+    public static List<String> mistralResponses() {
+        return load("benchmark/mistral-responses.txt");
+    }
+
+    private static List<String> load(String resource) {
+        InputStream in = BenchmarkCorpus.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalStateException("Missing benchmark resource " + resource);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
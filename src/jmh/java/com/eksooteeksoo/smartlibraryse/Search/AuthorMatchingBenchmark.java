@@ -0,0 +1,67 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.BenchmarkCorpus;
+import com.eksooteeksoo.smartlibraryse.Model.Author;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Author alias resolution over the seeded authors. This replaced the per-book
+ * multilingual author matching in AIServiceImpl, so it is the author path every chat
+ * query and author search now goes through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorMatchingBenchmark {
+
+    private List<Author> authors;
+    private AuthorAliasRegistry.Snapshot snapshot;
+    private List<String> queries;
+
+    @Setup
+    public void setUp() {
+        authors = new ArrayList<>();
+        long id = 1;
+        for (DefaultAuthorAliases.Entry entry : DefaultAuthorAliases.ENTRIES) {
+            Author author = new Author();
+            author.setId(id++);
+            author.setCanonicalName(entry.canonicalName());
+            author.setNameBengali(entry.nameBengali());
+            author.setAliases(new HashSet<>(entry.aliases()));
+            authors.add(author);
+        }
+        snapshot = AuthorAliasRegistry.compile(authors);
+        queries = BenchmarkCorpus.queries();
+    }
+
+    @Benchmark
+    public void resolve(Blackhole blackhole) {
+        for (String query : queries) {
+            blackhole.consume(snapshot.resolve(query));
+        }
+    }
+
+    /** Cost of a registry reload after an admin edits an author. */
+    @Benchmark
+    public AuthorAliasRegistry.Snapshot compile() {
+        return AuthorAliasRegistry.compile(authors);
+    }
+}
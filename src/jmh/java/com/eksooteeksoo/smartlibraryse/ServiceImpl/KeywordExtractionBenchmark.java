@@ -0,0 +1,63 @@
+package com.eksooteeksoo.smartlibraryse.ServiceImpl;
+
+import com.eksooteeksoo.smartlibraryse.BenchmarkCorpus;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import com.eksooteeksoo.smartlibraryse.Search.ExtractionTrainingLog;
+import com.eksooteeksoo.smartlibraryse.Search.SlotClassifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule-based extraction and Mistral response parsing, each measured over the whole
+ * recorded corpus per invocation so one op covers the English, Bengali and mixed mix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeywordExtractionBenchmark {
+
+    private KeywordExtractionServiceImpl service;
+    private List<String> queries;
+    private List<String> responses;
+
+    @Setup
+    public void setUp() {
+        // Neither path touches Mistral, the cache, the training log or the classifier
+        service = new KeywordExtractionServiceImpl(null, new ExtractionTrainingLog(new ObjectMapper(), ""),
+                new SlotClassifier("", 1.0), new SimpleMeterRegistry(), 1, 1);
+        queries = BenchmarkCorpus.queries();
+        responses = BenchmarkCorpus.mistralResponses();
+    }
+
+    @Benchmark
+    public void extractWithRules(Blackhole blackhole) {
+        for (String query : queries) {
+            blackhole.consume(service.extractWithRules(query));
+        }
+    }
+
+    @Benchmark
+    public void parseAIResponse(Blackhole blackhole) {
+        for (String response : responses) {
+            BookSearchCriteria criteria = service.parseAIResponse(response);
+            blackhole.consume(criteria);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.eksooteeksoo.smartlibraryse.Catalog;
+
+import com.eksooteeksoo.smartlibraryse.DTO.CursorPage;
+import com.eksooteeksoo.smartlibraryse.Service.BookService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pages of /books/available held as ready-to-write JSON and gzip bytes with an ETag,
+ * so a guest landing on the catalog costs neither a query nor serialization until the
+ * catalog changes. Every catalog change bumps the version, which is part of the ETag,
+ * and drops all pages.
+ */
+@Component
+public class AvailableBooksSnapshot {
+
+    /**
+     * One serialized page. The ETag is weak because the plain and gzip bodies share it.
+     */
+    public record Page(byte[] json, byte[] gzip, String etag, long version) {
+    }
+
+    private record Key(String cursor, int size) {
+    }
+
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, Page> pages;
+    private final AtomicLong version = new AtomicLong();
+    // Keeps ETags from an earlier run from matching after a restart resets the version
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public AvailableBooksSnapshot(BookService bookService,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${catalog.snapshot.max-pages:64}") long maxPages) {
+        this.bookService = bookService;
+        this.objectMapper = objectMapper;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxPages)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "catalog.available");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        version.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    /**
+     * The serialized page for the cursor and size, loading it on a miss. A page loaded
+     * while a change was being applied carries the old version and is reloaded on the
+     * next call.
+     */
+    public Page get(String cursor, Integer size) {
+        Key key = new Key(cursor, CursorPage.resolveSize(size));
+        Page page = pages.get(key, this::load);
+        if (page.version() != version.get()) {
+            pages.asMap().remove(key, page);
+            page = pages.get(key, this::load);
+        }
+        return page;
+    }
+
+    /**
+     * True when an If-None-Match header value names the page's ETag.
+     */
+    public static boolean matches(String ifNoneMatch, Page page) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals("*") || trimmed.equals(page.etag()) || ("W/" + trimmed).equals(page.etag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Page load(Key key) {
+        long loadedVersion = version.get();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(bookService.getAvailableBooksPage(key.cursor(), key.size()));
+            String etag = "W/\"" + epoch + "-" + loadedVersion + "\"";
+            return new Page(json, gzip(json), etag, loadedVersion);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize available books page", e);
+        }
+    }
+
+    static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,43 @@
+package com.eksooteeksoo.smartlibraryse.Catalog;
+
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import lombok.Getter;
+
+/**
+ * Published whenever a book is created, updated, deleted or its quantity changes
+ * through a booking, so in-memory catalog structures can follow the database. A booking
+ * also carries the one booking it added, so listeners can keep booking counts without
+ * querying for them.
+ */
+@Getter
+public class CatalogChangeEvent {
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long bookId;
+    private final Book book; // null for DELETED events
+    private final int newBookings;
+
+    private CatalogChangeEvent(Type type, Long bookId, Book book, int newBookings) {
+        this.type = type;
+        this.bookId = bookId;
+        this.book = book;
+        this.newBookings = newBookings;
+    }
+
+    public static CatalogChangeEvent saved(Book book) {
+        return new CatalogChangeEvent(Type.SAVED, book.getId(), book, 0);
+    }
+
+    public static CatalogChangeEvent booked(Book book) {
+        return new CatalogChangeEvent(Type.SAVED, book.getId(), book, 1);
+    }
+
+    public static CatalogChangeEvent deleted(Long bookId) {
+        return new CatalogChangeEvent(Type.DELETED, bookId, null, 0);
+    }
+}
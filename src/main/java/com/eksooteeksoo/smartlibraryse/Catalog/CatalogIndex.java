@@ -0,0 +1,197 @@
+package com.eksooteeksoo.smartlibraryse.Catalog;
+
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over title, author, authorBengali, genre and description.
+ * Every query token is matched as a prefix of the indexed tokens and all query tokens
+ * must match (AND), so "harry pot" finds "Harry Potter". Only ids are returned; callers
+ * hydrate the entities they need from the repository. It also keeps the corpus
+ * statistics relevance scoring needs.
+ */
+@Component
+public class CatalogIndex implements CatalogListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogIndex.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+    private final Set<Long> availableBookIds = new HashSet<>();
+    private final Map<Long, int[]> documentFieldLengths = new HashMap<>();
+    private final long[] fieldLengthTotals = new long[CorpusStatistics.Field.values().length];
+    private volatile boolean ready = false;
+
+    @Override
+    public void rebuild(List<Book> books) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            availableBookIds.clear();
+            documentFieldLengths.clear();
+            Arrays.fill(fieldLengthTotals, 0L);
+            for (Book book : books) {
+                addDocument(book);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Catalog index built with {} books and {} terms", books.size(), postings.size());
+    }
+
+    @Override
+    public void onCatalogChange(CatalogChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(event.getBookId());
+            if (event.getType() == CatalogChangeEvent.Type.SAVED) {
+                addDocument(event.getBook());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the ids of available books whose indexed text contains every token of the query.
+     */
+    public List<Long> search(String query) {
+        List<String> queryTokens = CatalogTokenizer.tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Long> result = null;
+            for (String token : queryTokens) {
+                Set<Long> matches = prefixMatches(token);
+                if (result == null) {
+                    result = matches;
+                } else {
+                    result.retainAll(matches);
+                }
+                if (result.isEmpty()) {
+                    return new ArrayList<>();
+                }
+            }
+            result.retainAll(availableBookIds);
+            return new ArrayList<>(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Document count, average field lengths and the document frequency of each term,
+     * read under one lock so they are consistent with each other.
+     */
+    public CorpusStatistics statistics(Collection<String> terms) {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String term : terms) {
+                int frequency;
+                if (term.length() >= 3) {
+                    frequency = prefixMatches(term).size();
+                } else {
+                    Set<Long> ids = postings.get(term);
+                    frequency = ids == null ? 0 : ids.size();
+                }
+                frequencies.put(term, frequency);
+            }
+            int documentCount = documentTerms.size();
+            return new CorpusStatistics(documentCount,
+                    CorpusStatistics.averages(fieldLengthTotals, documentCount), frequencies);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> prefixMatches(String token) {
+        Set<Long> matches = new HashSet<>();
+        for (Set<Long> ids : postings.subMap(token, true, token + Character.MAX_VALUE, true).values()) {
+            matches.addAll(ids);
+        }
+        return matches;
+    }
+
+    private void addDocument(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+
+        Set<String> terms = new HashSet<>();
+        addTerms(terms, book.getTitle());
+        addTerms(terms, book.getAuthor());
+        addTerms(terms, book.getAuthorBengali());
+        addTerms(terms, book.getGenre());
+        addTerms(terms, book.getDescription());
+
+        for (String term : terms) {
+            postings.computeIfAbsent(term, k -> new HashSet<>()).add(book.getId());
+        }
+        documentTerms.put(book.getId(), terms);
+
+        int[] lengths = new int[fieldLengthTotals.length];
+        for (CorpusStatistics.Field field : CorpusStatistics.Field.values()) {
+            lengths[field.ordinal()] = field.tokens(book).size();
+            fieldLengthTotals[field.ordinal()] += lengths[field.ordinal()];
+        }
+        documentFieldLengths.put(book.getId(), lengths);
+
+        if (book.getQuantity() > 0) {
+            availableBookIds.add(book.getId());
+        }
+    }
+
+    private void removeDocument(Long bookId) {
+        Set<String> terms = documentTerms.remove(bookId);
+        availableBookIds.remove(bookId);
+        int[] lengths = documentFieldLengths.remove(bookId);
+        if (lengths != null) {
+            for (int i = 0; i < lengths.length; i++) {
+                fieldLengthTotals[i] -= lengths[i];
+            }
+        }
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Set<Long> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(bookId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addTerms(Collection<String> terms, String text) {
+        terms.addAll(CatalogTokenizer.tokenize(text));
+    }
+}
@@ -0,0 +1,19 @@
+package com.eksooteeksoo.smartlibraryse.Catalog;
+
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+
+import java.util.List;
+
+/**
+ * An in-memory structure over the catalog. {@link CatalogLoader} builds every listener
+ * from one shared load at startup and then forwards each change in commit order.
+ */
+public interface CatalogListener {
+
+    /**
+     * Replaces the whole structure with one built from the given books.
+     */
+    void rebuild(List<Book> books);
+
+    void onCatalogChange(CatalogChangeEvent event);
+}
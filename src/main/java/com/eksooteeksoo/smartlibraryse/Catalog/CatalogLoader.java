@@ -0,0 +1,95 @@
+package com.eksooteeksoo.smartlibraryse.Catalog;
+
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import com.eksooteeksoo.smartlibraryse.Repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads the catalog once at startup and rebuilds every {@link CatalogListener} from it,
+ * then forwards catalog changes to them. Changes that arrive while the load runs are
+ * held back and replayed once every listener has been rebuilt, so a change committed
+ * after the snapshot was read is never overwritten by it. Replaying a change the
+ * snapshot already contains is harmless: listeners replace a book's entry wholesale.
+ */
+@Component
+public class CatalogLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogLoader.class);
+
+    private final BookRepository bookRepository;
+    private final List<CatalogListener> listeners;
+    private final Object monitor = new Object();
+    // Non-null while a load runs; guarded by monitor
+    private List<CatalogChangeEvent> pending;
+
+    public CatalogLoader(BookRepository bookRepository, List<CatalogListener> listeners) {
+        this.bookRepository = bookRepository;
+        this.listeners = listeners;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (monitor) {
+            pending = new ArrayList<>();
+        }
+        int replayed = 0;
+        try {
+            List<Book> books = bookRepository.findAll();
+            for (CatalogListener listener : listeners) {
+                listener.rebuild(books);
+            }
+            logger.info("Catalog of {} books loaded into {} indexes", books.size(), listeners.size());
+        } finally {
+            // Replayed outside the monitor in batches; changes arriving meanwhile queue
+            // behind the batch being replayed until the queue is found empty
+            while (true) {
+                List<CatalogChangeEvent> missed;
+                synchronized (monitor) {
+                    missed = pending;
+                    if (missed.isEmpty()) {
+                        pending = null;
+                        break;
+                    }
+                    pending = new ArrayList<>();
+                }
+                missed.forEach(this::dispatch);
+                replayed += missed.size();
+            }
+        }
+        if (replayed > 0) {
+            logger.info("Replayed {} catalog changes made during the load", replayed);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        synchronized (monitor) {
+            if (pending != null) {
+                pending.add(event);
+                return;
+            }
+        }
+        // Each listener guards its own state, so committing threads need not queue here
+        dispatch(event);
+    }
+
+    // One failing index must not keep the change from the others
+    private void dispatch(CatalogChangeEvent event) {
+        for (CatalogListener listener : listeners) {
+            try {
+                listener.onCatalogChange(event);
+            } catch (RuntimeException e) {
+                logger.error("{} could not apply the change to book {}",
+                        listener.getClass().getSimpleName(), event.getBookId(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.eksooteeksoo.smartlibraryse.Catalog;
+
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collection-wide numbers BM25 needs: how many books there are, the average token
+ * length of each ranked field and, for the terms of one query, how many books contain
+ * each term.
+ */
+public record CorpusStatistics(int documentCount,
+                               double[] averageFieldLengths,
+                               Map<String, Integer> documentFrequencies) {
+
+    /**
+     * The fields relevance is scored over. Author covers both spellings.
+     */
+    public enum Field {
+        TITLE,
+        AUTHOR,
+        DESCRIPTION;
+
+        public List<String> tokens(Book book) {
+            return switch (this) {
+                case TITLE -> CatalogTokenizer.tokenize(book.getTitle());
+                case AUTHOR -> CatalogTokenizer.tokenize(join(book.getAuthor(), book.getAuthorBengali()));
+                case DESCRIPTION -> CatalogTokenizer.tokenize(book.getDescription());
+            };
+        }
+
+        private static String join(String first, String second) {
+            if (second == null) {
+                return first;
+            }
+            return first == null ? second : first + " " + second;
+        }
+    }
+
+    public int documentFrequency(String term) {
+        return documentFrequencies.getOrDefault(term, 0);
+    }
+
+    public double averageLength(Field field) {
+        return averageFieldLengths[field.ordinal()];
+    }
+
+    /**
+     * A token matches a query term when it equals the term or, for terms of three or
+     * more characters, starts with it; the same prefix rule the catalog index uses.
+     */
+    public static boolean matches(String token, String term) {
+        return token.equals(term) || (term.length() >= 3 && token.startsWith(term));
+    }
+
+    /**
+     * Statistics computed from the given books alone, for when the catalog index has not
+     * been built yet.
+     */
+    public static CorpusStatistics of(Collection<Book> books, Collection<String> terms) {
+        Field[] fields = Field.values();
+        long[] totals = new long[fields.length];
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (Book book : books) {
+            List<List<String>> fieldTokens = new ArrayList<>(fields.length);
+            for (Field field : fields) {
+                List<String> tokens = field.tokens(book);
+                totals[field.ordinal()] += tokens.size();
+                fieldTokens.add(tokens);
+            }
+            for (String term : terms) {
+                if (fieldTokens.stream().flatMap(List::stream).anyMatch(token -> matches(token, term))) {
+                    frequencies.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+        return new CorpusStatistics(books.size(), averages(totals, books.size()), frequencies);
+    }
+
+    static double[] averages(long[] totals, int documentCount) {
+        double[] averages = new double[totals.length];
+        for (int i = 0; i < totals.length; i++) {
+            averages[i] = documentCount == 0 ? 0.0 : (double) totals[i] / documentCount;
+        }
+        return averages;
+    }
+}
@@ -0,0 +1,52 @@
+package com.eksooteeksoo.smartlibraryse.Catalog;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits the free-text genre column into individual genres and normalizes genre names,
+ * so "Fantasy, Adventure" and "fantasy /  adventure" name the same two genres, and the
+ * rule lexicon's "science-fiction" names the admin's "Science Fiction".
+ */
+public final class GenreNames {
+
+    // "Mystery & Thriller" is one genre, so & is not a separator
+    private static final Pattern SEPARATORS = Pattern.compile("[,;/|]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Anything but letters (with their combining marks, for Bengali) and digits
+    private static final Pattern PUNCTUATION = Pattern.compile("[^\\p{L}\\p{M}\\p{N}]+");
+
+    private GenreNames() {
+    }
+
+    /**
+     * The genres listed in the text, trimmed, in order, without normalized duplicates.
+     */
+    public static List<String> split(String genres) {
+        List<String> result = new ArrayList<>();
+        if (genres == null) {
+            return result;
+        }
+        Set<String> seen = new HashSet<>();
+        for (String part : SEPARATORS.split(genres)) {
+            String name = WHITESPACE.matcher(part.trim()).replaceAll(" ");
+            String normalized = normalize(name);
+            if (!normalized.isEmpty() && seen.add(normalized)) {
+                result.add(name);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lowercase, with every run of punctuation and whitespace folded to a single space:
+     * "Self-Help", "self help" and "Self  Help" all give "self help".
+     */
+    public static String normalize(String name) {
+        return PUNCTUATION.matcher(name).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,109 @@
+package com.eksooteeksoo.smartlibraryse.Client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+/**
+ * Thin wrapper around the Mistral chat-completions endpoint. Calls go through the pooled,
+ * timeout-bounded RestTemplate from MistralClientConfig and are guarded by a circuit
+ * breaker, so an unhealthy upstream costs callers nothing while the breaker is open.
+ * Call latency is recorded as the mistral.call timer, tagged with the outcome.
+ */
+public class MistralClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(MistralClient.class);
+
+    private final RestTemplate restTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final String apiUrl;
+    private final String apiKey;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejectedCalls;
+
+    public MistralClient(RestTemplate restTemplate, CircuitBreaker circuitBreaker, String apiUrl, String apiKey,
+                         MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+        this.meterRegistry = meterRegistry;
+        this.rejectedCalls = Counter.builder("mistral.breaker.rejected")
+                .description("Mistral calls short-circuited by the open breaker")
+                .register(meterRegistry);
+        Gauge.builder("mistral.breaker.open", circuitBreaker, breaker -> breaker.isOpen() ? 1 : 0)
+                .description("1 while the Mistral circuit breaker is open")
+                .register(meterRegistry);
+    }
+
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.trim().isEmpty();
+    }
+
+    /**
+     * True when a call is worth attempting: a key is configured and the breaker is not open.
+     */
+    public boolean isAvailable() {
+        return isConfigured() && !circuitBreaker.isOpen();
+    }
+
+    /**
+     * Posts a chat-completions request and returns the raw response body, or null when
+     * the breaker rejected the call or the upstream failed or timed out.
+     */
+    public String chatCompletion(Map<String, Object> requestBody) {
+        if (!isConfigured()) {
+            return null;
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            logger.debug("Mistral circuit breaker is open, skipping call");
+            rejectedCalls.increment();
+            return null;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(apiKey);
+            headers.setContentType(MediaType.APPLICATION_JSON);
+
+            ResponseEntity<String> response = restTemplate.exchange(
+                apiUrl, HttpMethod.POST, new HttpEntity<>(requestBody, headers), String.class);
+
+            if (response.getStatusCode().is2xxSuccessful()) {
+                outcome = "success";
+                circuitBreaker.recordSuccess();
+                return response.getBody();
+            }
+
+            outcome = "http_error";
+            logger.warn("Mistral returned status {}", response.getStatusCode());
+            circuitBreaker.recordFailure();
+        } catch (Exception e) {
+            logger.warn("Mistral call failed: {}", e.getMessage());
+            circuitBreaker.recordFailure();
+        } finally {
+            sample.stop(Timer.builder("mistral.call")
+                    .description("Latency of Mistral chat-completions calls")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+        return null;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+}
@@ -0,0 +1,39 @@
+package com.eksooteeksoo.smartlibraryse.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ChatExecutorConfig {
+
+    @Value("${chat.executor.core-pool-size:8}")
+    private int corePoolSize;
+
+    @Value("${chat.executor.max-pool-size:32}")
+    private int maxPoolSize;
+
+    @Value("${chat.executor.queue-capacity:200}")
+    private int queueCapacity;
+
+    /**
+     * Runs the Mistral leg of hedged chat requests off the request thread. When the pool
+     * and queue are full the task is rejected and chat answers with the rule-based
+     * criteria; running it on the caller would hold a request thread for the whole
+     * Mistral read timeout, well past the hedge budget.
+     */
+    @Bean(name = "chatExecutor")
+    public ThreadPoolTaskExecutor chatExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("chat-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,83 @@
+package com.eksooteeksoo.smartlibraryse.Config;
+
+import com.eksooteeksoo.smartlibraryse.Client.CircuitBreaker;
+import com.eksooteeksoo.smartlibraryse.Client.MistralClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class MistralClientConfig {
+
+    @Value("${mistral.api.key:}")
+    private String mistralApiKey;
+
+    @Value("${mistral.api.url:https://api.mistral.ai/v1/chat/completions}")
+    private String mistralApiUrl;
+
+    @Value("${mistral.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${mistral.http.read-timeout-ms:8000}")
+    private long readTimeoutMs;
+
+    @Value("${mistral.http.max-connections:20}")
+    private int maxConnections;
+
+    @Value("${mistral.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${mistral.circuit-breaker.open-duration-seconds:30}")
+    private long openDurationSeconds;
+
+    @Bean
+    public MistralClient mistralClient(MeterRegistry meterRegistry) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("mistral", failureThreshold, Duration.ofSeconds(openDurationSeconds));
+        RestTemplate restTemplate = createRestTemplate(
+            Duration.ofMillis(connectTimeoutMs), Duration.ofMillis(readTimeoutMs), maxConnections);
+        return new MistralClient(restTemplate, circuitBreaker, mistralApiUrl, mistralApiKey, meterRegistry);
+    }
+
+    /**
+     * RestTemplate over a pooled Apache HttpClient. Every Mistral call goes to one host,
+     * so the per-route limit equals the total. Idle keep-alive connections are evicted
+     * so a stale socket is not handed to the next request.
+     */
+    public static RestTemplate createRestTemplate(Duration connectTimeout, Duration readTimeout, int maxConnections) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Waiting for a pooled connection counts against the connect budget
+                        .setConnectionRequestTimeout(Timeout.of(connectTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .disableAutomaticRetries()
+                .build();
+
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+}
@@ -65,8 +65,11 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/", "/health").permitAll()
+                // Only health stays public for the Render check; metrics need an admin bearer token
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/api/auth/**").permitAll()
-                .requestMatchers("/api/user/books/available", "/api/user/books/search", "/api/user/books/{id}", "/api/user/chat").permitAll()
+                .requestMatchers("/api/user/books/available", "/api/user/books/search", "/api/user/books/search/facets", "/api/user/books/suggest", "/api/user/books/{id}", "/api/user/chat", "/api/user/chat/stream").permitAll()
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/user/**").hasAnyRole("USER", "ADMIN")
                 .anyRequest().authenticated()
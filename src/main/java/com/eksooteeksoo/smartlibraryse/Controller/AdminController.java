@@ -1,23 +1,30 @@
 package com.eksooteeksoo.smartlibraryse.Controller;
 
+import com.eksooteeksoo.smartlibraryse.DTO.AuthorDTO;
 import com.eksooteeksoo.smartlibraryse.DTO.BookBookingResponseDTO;
 import com.eksooteeksoo.smartlibraryse.DTO.BookDTO;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSummary;
+import com.eksooteeksoo.smartlibraryse.DTO.CursorPage;
 import com.eksooteeksoo.smartlibraryse.DTO.UserRegistrationDTO;
+import com.eksooteeksoo.smartlibraryse.Model.Author;
 import com.eksooteeksoo.smartlibraryse.Model.Book;
 import com.eksooteeksoo.smartlibraryse.Model.BookBooking;
 import com.eksooteeksoo.smartlibraryse.Model.Usr;
 import com.eksooteeksoo.smartlibraryse.Repository.BookBookingRepository;
+import com.eksooteeksoo.smartlibraryse.Service.AuthorAliasService;
 import com.eksooteeksoo.smartlibraryse.Service.BookService;
+import com.eksooteeksoo.smartlibraryse.Service.KeywordExtractionService;
 import com.eksooteeksoo.smartlibraryse.Service.UserService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -30,20 +37,33 @@ public class AdminController {
     private final BookService bookService;
     private final UserService userService;
     private final BookBookingRepository bookBookingRepository;
+    private final KeywordExtractionService keywordExtractionService;
+    private final AuthorAliasService authorAliasService;
 
     public AdminController(BookService bookService,
                           UserService userService,
-                          BookBookingRepository bookBookingRepository) {
+                          BookBookingRepository bookBookingRepository,
+                          KeywordExtractionService keywordExtractionService,
+                          AuthorAliasService authorAliasService) {
         this.bookService = bookService;
         this.userService = userService;
         this.bookBookingRepository = bookBookingRepository;
+        this.keywordExtractionService = keywordExtractionService;
+        this.authorAliasService = authorAliasService;
     }
 
     // Book Management ok
     @GetMapping("/books")
-    public ResponseEntity<List<Book>> getAllBooks() {
-        logger.debug("Admin fetching all books");
-        return ResponseEntity.ok(bookService.getAllBooks());
+    public ResponseEntity<CursorPage<BookSummary>> getAllBooks(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer size) {
+        logger.debug("Admin fetching books page");
+        return ResponseEntity.ok(bookService.getBooksPage(cursor, size));
+    }
+
+    @GetMapping("/books/{id}")
+    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
+        logger.debug("Admin fetching book with id: {}", id);
+        return ResponseEntity.ok(bookService.getBookById(id));
     }
     //ok
     @PostMapping("/books")
@@ -87,9 +107,10 @@ public class AdminController {
 
     // User Management
     @GetMapping("/users")
-    public ResponseEntity<List<Usr>> getAllUsers() {
-        logger.debug("Admin fetching all users");
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<CursorPage<Usr>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Integer size) {
+        logger.debug("Admin fetching users page");
+        return ResponseEntity.ok(userService.getUsersPage(cursor, size));
     }
 
     @GetMapping("/users/{id}")
@@ -115,13 +136,13 @@ public class AdminController {
 
     // Booking Management
     @GetMapping("/bookings")
-    public ResponseEntity<List<BookBookingResponseDTO>> getAllBookings() {
-        logger.debug("Admin fetching all bookings");
-        List<BookBooking> bookings = bookBookingRepository.findAllWithUserAndBook();
-        List<BookBookingResponseDTO> bookingDTOs = bookings.stream()
-                .map(BookBookingResponseDTO::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(bookingDTOs);
+    public ResponseEntity<CursorPage<BookBookingResponseDTO>> getAllBookings(@RequestParam(required = false) String cursor,
+                                                                             @RequestParam(required = false) Integer size) {
+        logger.debug("Admin fetching bookings page");
+        int pageSize = CursorPage.resolveSize(size);
+        List<BookBooking> rows = bookBookingRepository.findPageWithUserAndBookAfter(
+                CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return ResponseEntity.ok(CursorPage.fromRows(rows, pageSize, BookBooking::getId).map(BookBookingResponseDTO::new));
     }
 
     @PutMapping("/bookings/{id}/return")
@@ -130,4 +151,43 @@ public class AdminController {
         BookBooking booking = userService.returnBook(id);
         return ResponseEntity.ok(new BookBookingResponseDTO(booking));
     }
+
+    // Author alias management
+    @GetMapping("/authors")
+    public ResponseEntity<List<Author>> getAllAuthors() {
+        logger.debug("Admin fetching all authors");
+        return ResponseEntity.ok(authorAliasService.getAllAuthors());
+    }
+
+    @GetMapping("/authors/{id}")
+    public ResponseEntity<Author> getAuthorById(@PathVariable Long id) {
+        logger.debug("Admin fetching author with id: {}", id);
+        return ResponseEntity.ok(authorAliasService.getAuthorById(id));
+    }
+
+    @PostMapping("/authors")
+    public ResponseEntity<Author> createAuthor(@Valid @RequestBody AuthorDTO authorDTO) {
+        logger.info("Admin creating author: {}", authorDTO.getCanonicalName());
+        return ResponseEntity.ok(authorAliasService.createAuthor(authorDTO));
+    }
+
+    @PutMapping("/authors/{id}")
+    public ResponseEntity<Author> updateAuthor(@PathVariable Long id, @Valid @RequestBody AuthorDTO authorDTO) {
+        logger.info("Admin updating author with id: {}", id);
+        return ResponseEntity.ok(authorAliasService.updateAuthor(id, authorDTO));
+    }
+
+    @DeleteMapping("/authors/{id}")
+    public ResponseEntity<String> deleteAuthor(@PathVariable Long id) {
+        logger.info("Admin deleting author with id: {}", id);
+        authorAliasService.deleteAuthor(id);
+        return ResponseEntity.ok("Author deleted successfully!");
+    }
+
+    // Diagnostics
+    @GetMapping("/diagnostics/extraction")
+    public ResponseEntity<Map<String, Object>> getExtractionDiagnostics() {
+        logger.debug("Admin fetching keyword extraction diagnostics");
+        return ResponseEntity.ok(keywordExtractionService.getDiagnostics());
+    }
 }
@@ -1,9 +1,13 @@
 package com.eksooteeksoo.smartlibraryse.Controller;
 
+import com.eksooteeksoo.smartlibraryse.Catalog.AvailableBooksSnapshot;
 import com.eksooteeksoo.smartlibraryse.DTO.BookBookingDTO;
 import com.eksooteeksoo.smartlibraryse.DTO.BookBookingResponseDTO;
 import com.eksooteeksoo.smartlibraryse.DTO.ChatRequest;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSuggestion;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSummary;
 import com.eksooteeksoo.smartlibraryse.DTO.ChatResponse;
+import com.eksooteeksoo.smartlibraryse.DTO.SearchFacets;
 import com.eksooteeksoo.smartlibraryse.Model.Book;
 import com.eksooteeksoo.smartlibraryse.Model.BookBooking;
 import com.eksooteeksoo.smartlibraryse.Service.AIService;
@@ -12,12 +16,18 @@ import com.eksooteeksoo.smartlibraryse.Service.UserService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -31,28 +41,65 @@ public class UserController {
     private final BookService bookService;
     private final UserService userService;
     private final AIService aiService;
+    private final AvailableBooksSnapshot availableBooksSnapshot;
 
     public UserController(BookService bookService,
                          UserService userService,
-                         AIService aiService) {
+                         AIService aiService,
+                         AvailableBooksSnapshot availableBooksSnapshot) {
         this.bookService = bookService;
         this.userService = userService;
         this.aiService = aiService;
+        this.availableBooksSnapshot = availableBooksSnapshot;
     }
 
     // Public endpoints for book browsing (accessible to guests)
+    // Served from pre-serialized bytes; clients revalidate with If-None-Match and get 304 until the catalog changes
     @GetMapping("/books/available")
-    public ResponseEntity<List<Book>> getAvailableBooks() {
-        logger.debug("Fetching available books for guest/user");
-        return ResponseEntity.ok(bookService.getAvailableBooks());
+    public ResponseEntity<byte[]> getAvailableBooks(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        logger.debug("Fetching available books page for guest/user");
+        AvailableBooksSnapshot.Page page = availableBooksSnapshot.get(cursor, size);
+        if (AvailableBooksSnapshot.matches(ifNoneMatch, page)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(page.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(page.etag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(page.gzip());
+        }
+        return response.body(page.json());
     }
 
     @GetMapping("/books/search")
-    public ResponseEntity<List<Book>> searchBooks(@RequestParam String query) {
+    public ResponseEntity<List<BookSummary>> searchBooks(@RequestParam String query) {
         logger.debug("Searching books with query: {}", query);
         return ResponseEntity.ok(bookService.searchAvailableBooks(query));
     }
 
+    // Genre, decade and stock counts for the same query as /books/search, computed in memory
+    @GetMapping("/books/search/facets")
+    public ResponseEntity<SearchFacets> searchBookFacets(@RequestParam String query) {
+        logger.debug("Computing search facets for query: {}", query);
+        return ResponseEntity.ok(bookService.searchAvailableBookFacets(query));
+    }
+
+    // Typeahead for the search box, served from memory so it can run on every keystroke
+    @GetMapping("/books/suggest")
+    public ResponseEntity<List<BookSuggestion>> suggestBooks(@RequestParam String prefix,
+                                                             @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(bookService.suggestBooks(prefix, limit));
+    }
+
     @GetMapping("/books/{id}")
     public ResponseEntity<Book> getBookById(@PathVariable Long id) {
         logger.debug("Fetching book with id: {}", id);
@@ -72,6 +119,27 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    // Streaming variant of the chat endpoint: first results from the rule-based extraction,
+    // refined results once Mistral answers, then the summary message
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter chatStream(@Valid @RequestBody ChatRequest chatRequest) {
+        logger.debug("Streaming AI chat request in language: {}", chatRequest.getLanguage());
+        return aiService.streamChat(chatRequest);
+    }
+
+    // GET form for EventSource clients, which cannot send a request body
+    @GetMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter chatStream(@RequestParam String message,
+                                 @RequestParam(required = false) String language) {
+        if (message.trim().isEmpty()) {
+            throw new IllegalArgumentException("Message is required");
+        }
+        ChatRequest chatRequest = new ChatRequest();
+        chatRequest.setMessage(message);
+        chatRequest.setLanguage(language);
+        return chatStream(chatRequest);
+    }
+
     // AI-assisted booking endpoint
     @PostMapping("/chat/book")
     public ResponseEntity<?> bookFromChat(@Valid @RequestBody BookBookingDTO bookingDTO,
@@ -0,0 +1,17 @@
+package com.eksooteeksoo.smartlibraryse.DTO;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class AuthorDTO {
+    private Long id;
+
+    @NotBlank(message = "Canonical name is required")
+    private String canonicalName;
+
+    private String nameBengali;
+    private List<String> aliases;
+}
@@ -8,10 +8,13 @@ import lombok.NoArgsConstructor;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class BookSearchCriteria {
+    public static final int DEFAULT_MAX_RESULTS = 50;
+    public static final int MAX_RESULTS_LIMIT = 100;
+
     private List<String> titles;
     private List<String> authors;
     private List<String> genres;
@@ -43,6 +46,8 @@ public class BookSearchCriteria {
     private List<String> requiredKeywords; // keywords that MUST be present
     private List<String> optionalKeywords; // keywords that boost relevance if present
     private String userIntent = "general"; // "general", "specific", "browsing", "research"
+    private String extractionSource; // "mistral", "cache", "classifier" or "rules"; used for metrics only
+    private Double extractionConfidence; // rules: share of the message the lexicon recognized; classifier: its lowest slot probability
 
     // Helper method to check if criteria is empty
     public boolean isEmpty() {
@@ -57,6 +62,14 @@ public class BookSearchCriteria {
                (optionalKeywords == null || optionalKeywords.isEmpty());
     }
 
+    // Number of books to return: maxResults, defaulted and capped
+    public int resolveMaxResults() {
+        if (maxResults == null || maxResults <= 0) {
+            return DEFAULT_MAX_RESULTS;
+        }
+        return Math.min(maxResults, MAX_RESULTS_LIMIT);
+    }
+
     // Helper method to determine search complexity
     public String getSearchComplexity() {
         int criteriaCount = 0;
@@ -0,0 +1,19 @@
+package com.eksooteeksoo.smartlibraryse.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One typeahead suggestion: a title or an author name as stored in the catalog. bookId is
+ * set for titles that belong to a single book so the client can open it directly.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSuggestion {
+    private String text;
+    private String type; // "title" or "author"
+    private Long bookId;
+    private boolean available;
+}
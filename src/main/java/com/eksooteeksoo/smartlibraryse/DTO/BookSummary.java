@@ -0,0 +1,36 @@
+package com.eksooteeksoo.smartlibraryse.DTO;
+
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact view of a book for list, search and chat responses. Repository queries build it
+ * with a JPQL constructor expression so only these columns are selected; description and
+ * timestamps are left to /books/{id}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSummary {
+    private Long id;
+    private String title;
+    private String author;
+    private String authorBengali;
+    private int publishedYear;
+    private int quantity;
+    private String isbn;
+    private String genre;
+
+    public BookSummary(Book book) {
+        this.id = book.getId();
+        this.title = book.getTitle();
+        this.author = book.getAuthor();
+        this.authorBengali = book.getAuthorBengali();
+        this.publishedYear = book.getPublishedYear();
+        this.quantity = book.getQuantity();
+        this.isbn = book.getIsbn();
+        this.genre = book.getGenre();
+    }
+}
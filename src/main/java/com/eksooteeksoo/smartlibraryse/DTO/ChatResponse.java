@@ -1,6 +1,5 @@
 package com.eksooteeksoo.smartlibraryse.DTO;
 
-import com.eksooteeksoo.smartlibraryse.Model.Book;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -12,10 +11,11 @@ public class ChatResponse {
     private String response;
     private boolean success;
     private String error;
-    private List<Book> books; // Added for book search results
+    private List<BookSummary> books; // Added for book search results
     private String responseType; // "text" or "books"
     private boolean allowBooking; // New field to indicate if booking is available
     private String bookingMessage; // Message about booking availability
+    private SearchFacets facets; // Genre, decade and stock counts over the books, when there are any
 
     public ChatResponse(String response) {
         this.response = response;
@@ -25,9 +25,10 @@ public class ChatResponse {
         this.responseType = "text";
         this.allowBooking = false;
         this.bookingMessage = null;
+        this.facets = null;
     }
     
-    public ChatResponse(List<Book> books, String responseMessage) {
+    public ChatResponse(List<BookSummary> books, String responseMessage) {
         this.response = responseMessage;
         this.success = true;
         this.error = null;
@@ -35,9 +36,10 @@ public class ChatResponse {
         this.responseType = "books";
         this.allowBooking = true;
         this.bookingMessage = "You can book any of these books by clicking the 'Book Now' button.";
+        this.facets = null;
     }
 
     public static ChatResponse error(String error) {
-        return new ChatResponse(null, false, error, null, "error", false, null);
+        return new ChatResponse(null, false, error, null, "error", false, null, null);
     }
 }
@@ -0,0 +1,21 @@
+package com.eksooteeksoo.smartlibraryse.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Facet counts over a result set, so clients can offer genre, decade and in-stock
+ * filters without another search. Genres are ordered by count, decades chronologically.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchFacets {
+    private int total;
+    private int inStock;
+    private Map<String, Integer> genres;
+    private Map<Integer, Integer> decades; // keyed by the decade's first year, e.g. 1990
+}
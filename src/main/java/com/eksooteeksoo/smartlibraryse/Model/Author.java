@@ -0,0 +1,48 @@
+package com.eksooteeksoo.smartlibraryse.Model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity
+@Data
+@Table(name = "authors")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class Author {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "canonical_name", nullable = false, unique = true)
+    private String canonicalName;
+
+    @Column(name = "name_bengali")
+    private String nameBengali;
+
+    // Every other spelling users type: transliterations, short forms, nicknames
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "author_aliases", joinColumns = @JoinColumn(name = "author_id"))
+    @Column(name = "alias", nullable = false)
+    private Set<String> aliases = new HashSet<>();
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -1,14 +1,23 @@
 package com.eksooteeksoo.smartlibraryse.Model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
 @Data
 @Table(name = "books")//na dile issue hoito na
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Book {
     @Id
@@ -31,8 +40,21 @@ public class Book {
     private int quantity;
 
     private String isbn;
+
+    // Comma-separated display form of the genres below, as entered by the admin
     private String genre;
 
+    // The primary key covers (book_id, genre_id); the index serves genre-to-book lookups
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "book_genres",
+            joinColumns = @JoinColumn(name = "book_id"),
+            inverseJoinColumns = @JoinColumn(name = "genre_id"),
+            indexes = @Index(name = "idx_book_genres_genre_book", columnList = "genre_id, book_id"))
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<Genre> genres = new HashSet<>();
+
     @Column(length = 1000)
     private String description;
 
@@ -0,0 +1,22 @@
+package com.eksooteeksoo.smartlibraryse.Model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "genres")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class Genre {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    // GenreNames.normalize form (lowercase, punctuation folded to spaces) used for lookups and uniqueness
+    @Column(name = "normalized_name", nullable = false, unique = true)
+    private String normalizedName;
+}
@@ -3,12 +3,16 @@ package com.eksooteeksoo.smartlibraryse.Model;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
 @Data
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Usr {
     @Id
@@ -41,6 +45,7 @@ public class Usr {
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Enumerated(EnumType.STRING)//makes the enum string in the db
     @Column(name = "role")//name of the column in the user_roles table
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     private Set<Role> roles;
 
     @PrePersist
@@ -0,0 +1,10 @@
+package com.eksooteeksoo.smartlibraryse.Repository;
+
+import com.eksooteeksoo.smartlibraryse.Model.Author;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AuthorRepository extends JpaRepository<Author, Long> {
+    boolean existsByCanonicalNameIgnoreCase(String canonicalName);
+}
@@ -3,10 +3,14 @@ package com.eksooteeksoo.smartlibraryse.Repository;
 import com.eksooteeksoo.smartlibraryse.Model.BookBooking;
 import com.eksooteeksoo.smartlibraryse.Model.BookingStatus;
 import com.eksooteeksoo.smartlibraryse.Model.Usr;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,6 +18,10 @@ public interface BookBookingRepository extends JpaRepository<BookBooking, Long>
     
     @Query("SELECT bb FROM BookBooking bb JOIN FETCH bb.user JOIN FETCH bb.book")
     List<BookBooking> findAllWithUserAndBook();
+
+    // Keyset pagination: callers pass the last id they saw and page size + 1
+    @Query("SELECT bb FROM BookBooking bb JOIN FETCH bb.user JOIN FETCH bb.book WHERE bb.id > :afterId ORDER BY bb.id")
+    List<BookBooking> findPageWithUserAndBookAfter(@Param("afterId") long afterId, Limit limit);
     
     @Query("SELECT bb FROM BookBooking bb JOIN FETCH bb.user JOIN FETCH bb.book WHERE bb.user = :user")
     List<BookBooking> findByUserWithUserAndBook(Usr user);
@@ -25,4 +33,17 @@ public interface BookBookingRepository extends JpaRepository<BookBooking, Long>
     List<BookBooking> findByStatus(BookingStatus status);
     List<BookBooking> findByUserAndStatus(Usr user, BookingStatus status);
     boolean existsByUserIdAndBookIdAndStatus(Long userId, Long bookId, BookingStatus status);
+
+    // Compare-and-set on status so a booking can only be returned once under concurrent requests
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookBooking bb SET bb.status = :to WHERE bb.id = :id AND bb.status = :from")
+    int updateStatusIfCurrent(@Param("id") Long id, @Param("from") BookingStatus from, @Param("to") BookingStatus to);
+
+    // [bookId, bookingCount] rows for the given books; books never booked are absent
+    @Query("SELECT bb.book.id, COUNT(bb) FROM BookBooking bb WHERE bb.book.id IN :bookIds GROUP BY bb.book.id")
+    List<Object[]> countByBookIds(@Param("bookIds") Collection<Long> bookIds);
+
+    // [bookId, bookingCount] rows for every book that has been booked
+    @Query("SELECT bb.book.id, COUNT(bb) FROM BookBooking bb GROUP BY bb.book.id")
+    List<Object[]> countGroupedByBook();
 }
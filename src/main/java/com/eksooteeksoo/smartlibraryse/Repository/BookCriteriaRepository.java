@@ -0,0 +1,34 @@
+package com.eksooteeksoo.smartlibraryse.Repository;
+
+import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BookCriteriaRepository {
+
+    /**
+     * Compiles the whole criteria into one query. The old sequential fallbacks
+     * (title+description, title, description, author, genre, year) become match tiers,
+     * and only books in the best tier any book reaches are returned, as the fallbacks
+     * returned only the first that found something. Title and description hits must also
+     * be by a requested author.
+     *
+     * @param authorNames the requested authors already expanded to all known spellings
+     */
+    List<Book> searchByCriteria(BookSearchCriteria criteria, Collection<String> authorNames);
+
+    /**
+     * Same query, but returns up to limit rows instead of maxResults. Used to fetch a
+     * candidate pool that is then re-ranked in memory.
+     */
+    List<Book> searchByCriteria(BookSearchCriteria criteria, Collection<String> authorNames, int limit);
+
+    /**
+     * As above, with books already known to match by author or by title, such as phonetic
+     * index hits, counted as author and title matches alongside the LIKE patterns.
+     */
+    List<Book> searchByCriteria(BookSearchCriteria criteria, Collection<String> authorNames,
+                                Collection<Long> authorBookIds, Collection<Long> titleBookIds, int limit);
+}
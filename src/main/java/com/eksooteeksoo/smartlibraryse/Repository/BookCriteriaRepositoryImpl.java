@@ -0,0 +1,296 @@
+package com.eksooteeksoo.smartlibraryse.Repository;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.GenreNames;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import com.eksooteeksoo.smartlibraryse.Model.BookBooking;
+import com.eksooteeksoo.smartlibraryse.Model.Genre;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Spring Data fragment backing {@link BookCriteriaRepository}; picked up through the
+ * "Impl" suffix and mixed into {@link BookRepository}.
+ */
+public class BookCriteriaRepositoryImpl implements BookCriteriaRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Book> searchByCriteria(BookSearchCriteria criteria, Collection<String> authorNames) {
+        return searchByCriteria(criteria, authorNames, criteria.resolveMaxResults());
+    }
+
+    @Override
+    public List<Book> searchByCriteria(BookSearchCriteria criteria, Collection<String> authorNames, int limit) {
+        return searchByCriteria(criteria, authorNames, List.of(), List.of(), limit);
+    }
+
+    @Override
+    public List<Book> searchByCriteria(BookSearchCriteria criteria, Collection<String> authorNames,
+                                       Collection<Long> authorBookIds, Collection<Long> titleBookIds, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> book = query.from(Book.class);
+
+        GenreIds genreIds = resolveGenres(criteria);
+        Match match = match(cb, query, book, criteria, genreIds, authorNames, authorBookIds, titleBookIds);
+        if (match == null) {
+            // Nothing to match on; same as the old fallbacks finding no tier
+            return new ArrayList<>();
+        }
+        List<Predicate> filters = new ArrayList<>(match.filters());
+        if (match.tier() != null) {
+            // Only the best tier any book reaches, as the old fallbacks returned the first non-empty one
+            Subquery<Integer> bestTier = query.subquery(Integer.class);
+            Root<Book> candidate = bestTier.from(Book.class);
+            Match candidateMatch = match(cb, bestTier, candidate, criteria, genreIds,
+                    authorNames, authorBookIds, titleBookIds);
+            bestTier.select(cb.min(candidateMatch.tier()))
+                    .where(candidateMatch.filters().toArray(new Predicate[0]));
+            filters.add(cb.equal(match.tier(), bestTier));
+        }
+
+        query.select(book).where(filters.toArray(new Predicate[0]));
+        query.orderBy(buildOrdering(cb, query, book, criteria));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * The filters a book must pass and, when the criteria name anything to match on, its
+     * tier: 0 ISBN, 1 title and description, 2 title, 3 description, 4 author, 5 genre.
+     * Title and description hits must also be by a requested author, as the old
+     * fallbacks filtered them. The filters already exclude books in no tier.
+     */
+    private record Match(List<Predicate> filters, Expression<Integer> tier) {
+    }
+
+    private Match match(CriteriaBuilder cb, AbstractQuery<?> query, Root<Book> book, BookSearchCriteria criteria,
+                        GenreIds genreIds, Collection<String> authorNames,
+                        Collection<Long> authorBookIds, Collection<Long> titleBookIds) {
+        List<Predicate> filters = new ArrayList<>();
+        if (!Boolean.TRUE.equals(criteria.getIncludeOutOfStock())) {
+            filters.add(cb.gt(book.get("quantity"), 0));
+        }
+
+        Integer yearFrom = criteria.getYearFrom() != null ? criteria.getYearFrom() : criteria.getMinYear();
+        Integer yearTo = criteria.getYearTo() != null ? criteria.getYearTo() : criteria.getMaxYear();
+        if (yearFrom != null) {
+            filters.add(cb.ge(book.get("publishedYear"), yearFrom));
+        }
+        if (yearTo != null) {
+            filters.add(cb.le(book.get("publishedYear"), yearTo));
+        }
+
+        if (!genreIds.excluded().isEmpty()) {
+            filters.add(cb.not(genreMatch(cb, query, book, genreIds.excluded(), false)));
+        }
+        for (String author : nonBlank(criteria.getExcludeAuthors())) {
+            filters.add(cb.not(matchesAuthor(cb, book, author)));
+        }
+        for (String keyword : nonBlank(criteria.getRequiredKeywords())) {
+            filters.add(cb.or(
+                    containsIgnoreCase(cb, book.<String>get("title"), keyword),
+                    matchesAuthor(cb, book, keyword),
+                    containsIgnoreCase(cb, book.<String>get("description"), keyword)));
+        }
+
+        Predicate isbnMatch = hasText(criteria.getIsbn()) ? cb.equal(book.get("isbn"), criteria.getIsbn().trim()) : null;
+        List<Predicate> titlePredicates = new ArrayList<>(nonBlank(criteria.getTitles()).stream()
+                .map(title -> containsIgnoreCase(cb, book.<String>get("title"), title))
+                .toList());
+        if (!titleBookIds.isEmpty()) {
+            titlePredicates.add(book.get("id").in(titleBookIds));
+        }
+        Predicate titleMatch = anyOf(cb, titlePredicates);
+        Predicate descriptionMatch = anyOf(cb, nonBlank(criteria.getDescriptionKeywords()).stream()
+                .map(keyword -> containsIgnoreCase(cb, book.<String>get("description"), keyword))
+                .toList());
+        List<Predicate> authorPredicates = new ArrayList<>(nonBlank(authorNames).stream()
+                .map(author -> matchesAuthor(cb, book, author))
+                .toList());
+        if (!authorBookIds.isEmpty()) {
+            authorPredicates.add(book.get("id").in(authorBookIds));
+        }
+        Predicate authorMatch = anyOf(cb, authorPredicates);
+        Predicate genreMatch = null;
+        if (genreIds.requested() != null) {
+            // A requested genre the catalog does not have matches no book
+            genreMatch = genreIds.requested().isEmpty()
+                    ? cb.disjunction()
+                    : genreMatch(cb, query, book, genreIds.requested(), genreIds.all());
+        }
+
+        if (authorMatch != null) {
+            titleMatch = titleMatch != null ? cb.and(titleMatch, authorMatch) : null;
+            descriptionMatch = descriptionMatch != null ? cb.and(descriptionMatch, authorMatch) : null;
+        }
+        Predicate titleAndDescriptionMatch = titleMatch != null && descriptionMatch != null
+                ? cb.and(titleMatch, descriptionMatch)
+                : null;
+
+        Predicate[] tiers = {isbnMatch, titleAndDescriptionMatch, titleMatch, descriptionMatch, authorMatch, genreMatch};
+        CriteriaBuilder.Case<Integer> tier = cb.selectCase();
+        List<Predicate> matches = new ArrayList<>();
+        for (int i = 0; i < tiers.length; i++) {
+            if (tiers[i] != null) {
+                tier = tier.when(tiers[i], i);
+                matches.add(tiers[i]);
+            }
+        }
+
+        if (matches.isEmpty()) {
+            if (yearFrom == null && yearTo == null && nonBlank(criteria.getRequiredKeywords()).isEmpty()) {
+                return null;
+            }
+            return new Match(filters, null);
+        }
+        filters.add(cb.or(matches.toArray(new Predicate[0])));
+        return new Match(filters, tier.otherwise(tiers.length));
+    }
+
+    /**
+     * An explicit title, author or year order, or for relevance and popularity (ranked in
+     * memory over the first limit rows) the priors the ranking adds: booking count and
+     * publication year. That way a much-booked or recent book with a high id still makes
+     * the candidate pool of a large tier. Ties go by id.
+     */
+    private List<Order> buildOrdering(CriteriaBuilder cb, CriteriaQuery<Book> query, Root<Book> book,
+                                      BookSearchCriteria criteria) {
+        List<Order> orders = new ArrayList<>();
+
+        String sortBy = criteria.getSortBy() == null ? "" : criteria.getSortBy().toLowerCase(Locale.ROOT);
+        Expression<?> sortColumn = switch (sortBy) {
+            case "title" -> cb.lower(book.<String>get("title"));
+            case "author" -> cb.lower(book.<String>get("author"));
+            case "year" -> book.get("publishedYear");
+            default -> null;
+        };
+        if (sortColumn != null) {
+            orders.add("asc".equalsIgnoreCase(criteria.getSortOrder()) ? cb.asc(sortColumn) : cb.desc(sortColumn));
+        } else {
+            boolean byPopularity = sortBy.equals("popularity");
+            if (byPopularity) {
+                orders.add(cb.desc(bookingCount(cb, query, book)));
+            }
+            if (Boolean.TRUE.equals(criteria.getPrioritizeRecentBooks())) {
+                orders.add(cb.desc(book.get("publishedYear")));
+            }
+            if (!byPopularity && Boolean.TRUE.equals(criteria.getPrioritizePopularBooks())) {
+                orders.add(cb.desc(bookingCount(cb, query, book)));
+            }
+        }
+
+        orders.add(cb.asc(book.get("id")));
+        return orders;
+    }
+
+    private static Subquery<Long> bookingCount(CriteriaBuilder cb, CriteriaQuery<Book> query, Root<Book> book) {
+        Subquery<Long> bookings = query.subquery(Long.class);
+        Root<BookBooking> booking = bookings.from(BookBooking.class);
+        return bookings.select(cb.count(booking))
+                .where(cb.equal(booking.get("book"), book));
+    }
+
+    /**
+     * Genre ids for the requested and excluded genre names, resolved once per search
+     * against the unique normalized_name so the book_genres filters are plain id sets.
+     * requested is null when no genres were asked for, and empty when none (or, for
+     * AND, not all) of them exist.
+     */
+    private record GenreIds(List<Long> requested, boolean all, List<Long> excluded) {
+    }
+
+    private GenreIds resolveGenres(BookSearchCriteria criteria) {
+        List<String> genres = nonBlank(criteria.getGenres());
+        boolean all = "AND".equalsIgnoreCase(criteria.getGenreSearchOperation());
+        List<Long> requested = null;
+        if (!genres.isEmpty()) {
+            Set<String> names = normalizedNames(genres);
+            requested = genreIds(names);
+            if (all && requested.size() < names.size()) {
+                requested = List.of();
+            }
+        }
+        List<String> excluded = nonBlank(criteria.getExcludeGenres());
+        return new GenreIds(requested, all, excluded.isEmpty() ? List.of() : genreIds(normalizedNames(excluded)));
+    }
+
+    private List<Long> genreIds(Set<String> normalizedNames) {
+        return entityManager.createQuery(
+                        "SELECT g.id FROM Genre g WHERE g.normalizedName IN :names", Long.class)
+                .setParameter("names", normalizedNames)
+                .getResultList();
+    }
+
+    private static Set<String> normalizedNames(List<String> names) {
+        Set<String> normalized = new LinkedHashSet<>();
+        names.forEach(name -> normalized.add(GenreNames.normalize(name)));
+        return normalized;
+    }
+
+    /**
+     * Books linked through book_genres to any of the genre ids or, when all is set, to
+     * every one of them: genre_id IN (:ids) GROUP BY book_id HAVING COUNT(DISTINCT
+     * genre_id) = n, served by idx_book_genres_genre_book.
+     */
+    private Predicate genreMatch(CriteriaBuilder cb, AbstractQuery<?> query, Root<Book> book,
+                                 List<Long> genreIds, boolean all) {
+        Subquery<Long> linked = query.subquery(Long.class);
+        Root<Book> linkedBook = linked.from(Book.class);
+        Join<Book, Genre> genre = linkedBook.join("genres");
+
+        linked.select(linkedBook.get("id"))
+                .where(genre.get("id").in(genreIds));
+        if (all && genreIds.size() > 1) {
+            linked.groupBy(linkedBook.get("id"))
+                    .having(cb.equal(cb.countDistinct(genre.get("id")), (long) genreIds.size()));
+        }
+        return book.get("id").in(linked);
+    }
+
+    private Predicate matchesAuthor(CriteriaBuilder cb, Root<Book> book, String author) {
+        return cb.or(
+                containsIgnoreCase(cb, book.<String>get("author"), author),
+                containsIgnoreCase(cb, book.<String>get("authorBengali"), author));
+    }
+
+    private Predicate containsIgnoreCase(CriteriaBuilder cb, Expression<String> column, String value) {
+        return cb.like(cb.lower(cb.coalesce(column, "")), "%" + value.trim().toLowerCase(Locale.ROOT) + "%");
+    }
+
+    private static Predicate anyOf(CriteriaBuilder cb, List<Predicate> predicates) {
+        return predicates.isEmpty() ? null : cb.or(predicates.toArray(new Predicate[0]));
+    }
+
+    private static List<String> nonBlank(Collection<String> values) {
+        if (values == null) {
+            return new ArrayList<>();
+        }
+        return values.stream().filter(BookCriteriaRepositoryImpl::hasText).toList();
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,15 @@
+package com.eksooteeksoo.smartlibraryse.Repository;
+
+public interface BookQuantityRepository {
+
+    /**
+     * Takes one copy of the book if any is left. Returns the number of rows updated, so 0
+     * when the book is out of stock or does not exist.
+     */
+    int decrementQuantityIfAvailable(Long id);
+
+    /**
+     * Gives one copy of the book back. Returns the number of rows updated.
+     */
+    int incrementQuantity(Long id);
+}
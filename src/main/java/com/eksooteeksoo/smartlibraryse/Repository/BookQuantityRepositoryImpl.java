@@ -0,0 +1,70 @@
+package com.eksooteeksoo.smartlibraryse.Repository;
+
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Spring Data fragment backing {@link BookQuantityRepository}. The updates are single
+ * native statements whose quantity guard makes concurrent bookings race-free without row
+ * locks held across the request.
+ * <p>
+ * A bulk statement Hibernate cannot attribute to rows evicts the whole books region of
+ * the second-level cache, so every booking and return would empty it. These statements
+ * are synchronized on a query space no entity maps to, which leaves the regions alone,
+ * and only the one changed book is evicted: right away and again after commit, so a read
+ * racing the transaction cannot leave the old quantity cached. No cached query reads the
+ * books table, so no query-cache results depend on the quantity.
+ */
+@Transactional
+public class BookQuantityRepositoryImpl implements BookQuantityRepository {
+
+    private static final String QUANTITY_SPACE = "books.quantity";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int decrementQuantityIfAvailable(Long id) {
+        return updateQuantity("UPDATE books SET quantity = quantity - 1, updated_at = LOCALTIMESTAMP " +
+                "WHERE id = :id AND quantity > 0", id);
+    }
+
+    @Override
+    public int incrementQuantity(Long id) {
+        return updateQuantity("UPDATE books SET quantity = quantity + 1, updated_at = LOCALTIMESTAMP " +
+                "WHERE id = :id", id);
+    }
+
+    private int updateQuantity(String sql, Long id) {
+        // Same persistence-context handling as @Modifying(flushAutomatically, clearAutomatically)
+        entityManager.flush();
+        int updated = entityManager.createNativeQuery(sql)
+                .setParameter("id", id)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(QUANTITY_SPACE)
+                .executeUpdate();
+        entityManager.clear();
+
+        if (updated > 0) {
+            evict(id);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        evict(id);
+                    }
+                });
+            }
+        }
+        return updated;
+    }
+
+    private void evict(Long id) {
+        entityManager.getEntityManagerFactory().getCache().evict(Book.class, id);
+    }
+}
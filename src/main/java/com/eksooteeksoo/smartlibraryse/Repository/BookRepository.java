@@ -1,16 +1,42 @@
 package com.eksooteeksoo.smartlibraryse.Repository;
 
+import com.eksooteeksoo.smartlibraryse.DTO.BookSummary;
 import com.eksooteeksoo.smartlibraryse.Model.Book;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookCriteriaRepository,
+        BookQuantityRepository {
     List<Book> findByQuantityGreaterThan(int quantity);
+    List<Book> findByQuantityGreaterThanOrderByIdAsc(int quantity, Limit limit);
+
+    // Summary projections select only the list columns; see BookSummary
+    String SUMMARY_SELECT = "SELECT new com.eksooteeksoo.smartlibraryse.DTO.BookSummary(" +
+           "b.id, b.title, b.author, b.authorBengali, b.publishedYear, b.quantity, b.isbn, b.genre) FROM Book b ";
+
+    // Keyset pagination: callers pass the last id they saw and page size + 1
+    @Query(SUMMARY_SELECT + "WHERE b.id > :afterId ORDER BY b.id")
+    List<BookSummary> findSummaryPageAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE b.quantity > 0 AND b.id > :afterId ORDER BY b.id")
+    List<BookSummary> findAvailableSummaryPageAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE b.quantity > 0 AND b.id IN :ids")
+    List<BookSummary> findAvailableSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SUMMARY_SELECT + "WHERE b.quantity > 0 AND " +
+           "(LOWER(b.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(b.author) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(COALESCE(b.authorBengali, '')) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(b.genre) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+    List<BookSummary> searchAvailableSummaries(@Param("searchTerm") String searchTerm);
 
     // Year range search methods
     List<Book> findByPublishedYearBetweenAndQuantityGreaterThan(int yearFrom, int yearTo, int quantity);
@@ -22,15 +48,9 @@ public interface BookRepository extends JpaRepository<Book, Long> {
            "LOWER(b.genre) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
     List<Book> searchAvailableBooks(@Param("searchTerm") String searchTerm);
 
-    // Simple native query for multiple genre search (AND logic)
-    @Query(value = "SELECT * FROM books WHERE quantity > 0 AND " +
-           "(:genre1 IS NULL OR LOWER(genre) LIKE LOWER(CONCAT('%', :genre1, '%'))) AND " +
-           "(:genre2 IS NULL OR LOWER(genre) LIKE LOWER(CONCAT('%', :genre2, '%'))) AND " +
-           "(:genre3 IS NULL OR LOWER(genre) LIKE LOWER(CONCAT('%', :genre3, '%')))",
-           nativeQuery = true)
-    List<Book> findBooksContainingAllGenres(@Param("genre1") String genre1,
-                                           @Param("genre2") String genre2,
-                                           @Param("genre3") String genre3);
+    // Books whose genre text has not been split into genre rows yet
+    @Query("SELECT b FROM Book b WHERE b.genre IS NOT NULL AND b.genres IS EMPTY")
+    List<Book> findWithUnlinkedGenres();
 
     List<Book> findByTitleContainingIgnoreCaseAndQuantityGreaterThan(String title, int quantity);
 
@@ -39,7 +59,6 @@ public interface BookRepository extends JpaRepository<Book, Long> {
            "LOWER(COALESCE(b.authorBengali, '')) LIKE LOWER(CONCAT('%', :author, '%')))")
     List<Book> findByAuthorContainingIgnoreCaseAndQuantityGreaterThan(@Param("author") String author, @Param("quantity") int quantity);
 
-    List<Book> findByGenreContainingIgnoreCaseAndQuantityGreaterThan(String genre, int quantity);
     List<Book> findByPublishedYearAndQuantityGreaterThan(int publishedYear, int quantity);
     List<Book> findByDescriptionContainingIgnoreCaseAndQuantityGreaterThan(String description, int quantity);
     List<Book> findByTitleContainingIgnoreCaseAndDescriptionContainingIgnoreCaseAndQuantityGreaterThan(
@@ -50,7 +69,7 @@ public interface BookRepository extends JpaRepository<Book, Long> {
            "(:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
            "(:author IS NULL OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%')) OR " +
            "LOWER(COALESCE(b.authorBengali, '')) LIKE LOWER(CONCAT('%', :author, '%'))) AND " +
-           "(:genre IS NULL OR LOWER(b.genre) LIKE LOWER(CONCAT('%', :genre, '%'))) AND " +
+           "(:genre IS NULL OR EXISTS (SELECT g FROM b.genres g WHERE g.normalizedName LIKE LOWER(CONCAT('%', :genre, '%')))) AND " +
            "(:yearFrom IS NULL OR b.publishedYear >= :yearFrom) AND " +
            "(:yearTo IS NULL OR b.publishedYear <= :yearTo) AND " +
            "(:descriptionKeyword IS NULL OR LOWER(b.description) LIKE LOWER(CONCAT('%', :descriptionKeyword, '%'))) AND " +
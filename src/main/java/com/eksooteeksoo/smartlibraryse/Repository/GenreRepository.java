@@ -0,0 +1,29 @@
+package com.eksooteeksoo.smartlibraryse.Repository;
+
+import com.eksooteeksoo.smartlibraryse.Model.Genre;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GenreRepository extends JpaRepository<Genre, Long> {
+    List<Genre> findByNormalizedNameIn(Collection<String> normalizedNames);
+
+    // Moves a genre's book links onto another genre; books linked to both keep one link
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE book_genres SET genre_id = :to WHERE genre_id = :from " +
+                   "AND book_id NOT IN (SELECT book_id FROM book_genres WHERE genre_id = :to)", nativeQuery = true)
+    int moveBookLinks(@Param("from") Long from, @Param("to") Long to);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM book_genres WHERE genre_id = :genreId", nativeQuery = true)
+    int deleteBookLinks(@Param("genreId") Long genreId);
+}
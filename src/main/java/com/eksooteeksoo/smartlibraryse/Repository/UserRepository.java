@@ -1,14 +1,28 @@
 package com.eksooteeksoo.smartlibraryse.Repository;
 
 import com.eksooteeksoo.smartlibraryse.Model.Usr;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<Usr, Long> {
+    // Runs on every authenticated booking call; the query cache maps the name to the id
+    // and the entity comes from the second-level cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Usr> findByUserName(String userName);
     boolean existsByUserName(String userName);
     boolean existsByEmail(String email);
+
+    // Keyset pagination: callers pass the last id they saw and page size + 1
+    @Query("SELECT u FROM Usr u WHERE u.id > :afterId ORDER BY u.id")
+    List<Usr> findPageAfter(@Param("afterId") long afterId, Limit limit);
 }
@@ -0,0 +1,198 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over UTF-16 chars. Finds every occurrence of every pattern
+ * (overlaps included) in a single left-to-right pass, which is exactly what a loop of
+ * {@code text.contains(pattern)} calls answers, at the cost of one state transition per
+ * input char. Immutable once built, so one instance can be shared by all threads.
+ *
+ * <p>The automaton can be driven char by char through {@link #next(int, char)} and
+ * {@link #matches(int)}, so callers can fold the matching into their own scan loop.
+ */
+public final class AhoCorasick {
+
+    private static final int[] NO_MATCHES = new int[0];
+
+    // Per state: sorted edge labels and their target states
+    private final char[][] edgeLabels;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    // Pattern ids ending at each state, including those reached through failure links
+    private final int[][] matches;
+    private final int[] patternLengths;
+
+    private AhoCorasick(char[][] edgeLabels, int[][] edgeTargets, int[] failure,
+                        int[][] matches, int[] patternLengths) {
+        this.edgeLabels = edgeLabels;
+        this.edgeTargets = edgeTargets;
+        this.failure = failure;
+        this.matches = matches;
+        this.patternLengths = patternLengths;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The state before any input has been consumed.
+     */
+    public int initialState() {
+        return 0;
+    }
+
+    public int next(int state, char c) {
+        int current = state;
+        while (true) {
+            int target = edge(current, c);
+            if (target >= 0) {
+                return target;
+            }
+            if (current == 0) {
+                return 0;
+            }
+            current = failure[current];
+        }
+    }
+
+    /**
+     * Ids of the patterns that end at the char which led to this state. The returned
+     * array is shared and must not be modified.
+     */
+    public int[] matches(int state) {
+        return matches[state];
+    }
+
+    public int patternLength(int patternId) {
+        return patternLengths[patternId];
+    }
+
+    public int patternCount() {
+        return patternLengths.length;
+    }
+
+    /**
+     * True when at least one pattern occurs in the text.
+     */
+    public boolean containsAny(CharSequence text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            if (matches[state].length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int edge(int state, char c) {
+        int index = Arrays.binarySearch(edgeLabels[state], c);
+        return index >= 0 ? edgeTargets[state][index] : -1;
+    }
+
+    public static final class Builder {
+
+        private final List<Map<Character, Integer>> trie = new ArrayList<>();
+        private final List<List<Integer>> outputs = new ArrayList<>();
+        private final Map<String, Integer> patternIds = new HashMap<>();
+        private final List<Integer> patternLengths = new ArrayList<>();
+
+        private Builder() {
+            newState();
+        }
+
+        /**
+         * Adds a pattern and returns its id; adding the same pattern twice returns the
+         * same id. Empty patterns are rejected.
+         */
+        public int add(String pattern) {
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("Pattern must not be empty");
+            }
+            Integer existing = patternIds.get(pattern);
+            if (existing != null) {
+                return existing;
+            }
+
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                Integer target = trie.get(state).get(c);
+                if (target == null) {
+                    target = newState();
+                    trie.get(state).put(c, target);
+                }
+                state = target;
+            }
+
+            int id = patternLengths.size();
+            patternLengths.add(pattern.length());
+            patternIds.put(pattern, id);
+            outputs.get(state).add(id);
+            return id;
+        }
+
+        public AhoCorasick build() {
+            int stateCount = trie.size();
+            char[][] labels = new char[stateCount][];
+            int[][] targets = new int[stateCount][];
+            for (int state = 0; state < stateCount; state++) {
+                TreeMap<Character, Integer> sorted = new TreeMap<>(trie.get(state));
+                labels[state] = new char[sorted.size()];
+                targets[state] = new int[sorted.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> edge : sorted.entrySet()) {
+                    labels[state][i] = edge.getKey();
+                    targets[state][i] = edge.getValue();
+                    i++;
+                }
+            }
+
+            // Breadth-first so a state's failure target is final before its children need it
+            int[] failure = new int[stateCount];
+            List<List<Integer>> merged = new ArrayList<>();
+            for (List<Integer> output : outputs) {
+                merged.add(new ArrayList<>(output));
+            }
+            Deque<Integer> queue = new ArrayDeque<>(trie.get(0).values());
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (Map.Entry<Character, Integer> edge : trie.get(state).entrySet()) {
+                    int child = edge.getValue();
+                    int fallback = failure[state];
+                    Integer target = trie.get(fallback).get(edge.getKey());
+                    while (target == null && fallback != 0) {
+                        fallback = failure[fallback];
+                        target = trie.get(fallback).get(edge.getKey());
+                    }
+                    failure[child] = target != null ? target : 0;
+                    merged.get(child).addAll(merged.get(failure[child]));
+                    queue.add(child);
+                }
+            }
+
+            int[][] matches = new int[stateCount][];
+            for (int state = 0; state < stateCount; state++) {
+                List<Integer> ids = merged.get(state);
+                matches[state] = ids.isEmpty() ? NO_MATCHES : ids.stream().mapToInt(Integer::intValue).toArray();
+            }
+            int[] lengths = patternLengths.stream().mapToInt(Integer::intValue).toArray();
+            return new AhoCorasick(labels, targets, failure, matches, lengths);
+        }
+
+        private int newState() {
+            trie.add(new HashMap<>());
+            outputs.add(new ArrayList<>());
+            return trie.size() - 1;
+        }
+    }
+}
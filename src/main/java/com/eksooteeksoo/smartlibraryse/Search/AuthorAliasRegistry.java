@@ -0,0 +1,179 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogTokenizer;
+import com.eksooteeksoo.smartlibraryse.Model.Author;
+import com.eksooteeksoo.smartlibraryse.Repository.AuthorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves any known spelling of an author (English, Bengali, short forms) to author ids.
+ * The authors table is compiled into hash maps keyed by normalized names, so a lookup is
+ * a handful of map probes instead of a scan over every alias. The compiled snapshot is
+ * immutable and swapped whole on reload, so readers never lock.
+ */
+@Component
+public class AuthorAliasRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorAliasRegistry.class);
+
+    // Shorter name tokens ("al", "হক") are too ambiguous to identify an author on their own
+    private static final int MIN_TOKEN_KEY_LENGTH = 3;
+
+    private final AuthorRepository authorRepository;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public AuthorAliasRegistry(AuthorRepository authorRepository) {
+        this.authorRepository = authorRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (authorRepository.count() == 0) {
+            seedDefaults();
+        }
+        reload();
+    }
+
+    /**
+     * Recompiles the lookup tables from the authors table. Called after every admin change.
+     */
+    public void reload() {
+        List<Author> authors = authorRepository.findAll();
+        snapshot = compile(authors);
+        logger.info("Author alias registry compiled with {} authors and {} name keys",
+            authors.size(), snapshot.nameKeys().size());
+    }
+
+    /**
+     * Ids of the authors the query refers to. Whole names found anywhere in the query win
+     * (longest match first); otherwise the authors sharing the most name tokens with the
+     * query, such as "tagore", are returned.
+     */
+    public Set<Long> resolve(String query) {
+        return snapshot.resolve(query);
+    }
+
+    /**
+     * The query itself plus every known spelling of the authors it resolves to, lowercased
+     * and ready to be used as LIKE patterns in a single query.
+     */
+    public Set<String> expand(String query) {
+        Set<String> names = new LinkedHashSet<>();
+        if (query == null || query.isBlank()) {
+            return names;
+        }
+        names.add(query.toLowerCase(Locale.ROOT).trim());
+        Snapshot current = snapshot;
+        for (Long authorId : current.resolve(query)) {
+            names.addAll(current.namesById().getOrDefault(authorId, Set.of()));
+        }
+        return names;
+    }
+
+    static Snapshot compile(Collection<Author> authors) {
+        Map<String, Set<Long>> nameKeys = new HashMap<>();
+        Map<String, Set<Long>> tokenKeys = new HashMap<>();
+        Map<Long, Set<String>> namesById = new HashMap<>();
+        int longestName = 1;
+
+        for (Author author : authors) {
+            Set<String> names = new LinkedHashSet<>();
+            addName(names, author.getCanonicalName());
+            addName(names, author.getNameBengali());
+            if (author.getAliases() != null) {
+                author.getAliases().forEach(alias -> addName(names, alias));
+            }
+            namesById.put(author.getId(), Set.copyOf(names));
+
+            for (String name : names) {
+                List<String> tokens = CatalogTokenizer.tokenize(name);
+                if (tokens.isEmpty()) {
+                    continue;
+                }
+                longestName = Math.max(longestName, tokens.size());
+                nameKeys.computeIfAbsent(String.join(" ", tokens), k -> new HashSet<>()).add(author.getId());
+                for (String token : tokens) {
+                    if (token.length() >= MIN_TOKEN_KEY_LENGTH) {
+                        tokenKeys.computeIfAbsent(token, k -> new HashSet<>()).add(author.getId());
+                    }
+                }
+            }
+        }
+        return new Snapshot(nameKeys, tokenKeys, namesById, longestName);
+    }
+
+    private static void addName(Set<String> names, String name) {
+        if (name != null && !name.isBlank()) {
+            names.add(name.toLowerCase(Locale.ROOT).trim());
+        }
+    }
+
+    private void seedDefaults() {
+        for (DefaultAuthorAliases.Entry entry : DefaultAuthorAliases.ENTRIES) {
+            Author author = new Author();
+            author.setCanonicalName(entry.canonicalName());
+            author.setNameBengali(entry.nameBengali());
+            author.setAliases(new HashSet<>(entry.aliases()));
+            authorRepository.save(author);
+        }
+        logger.info("Seeded {} default authors", DefaultAuthorAliases.ENTRIES.size());
+    }
+
+    record Snapshot(Map<String, Set<Long>> nameKeys,
+                    Map<String, Set<Long>> tokenKeys,
+                    Map<Long, Set<String>> namesById,
+                    int longestName) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of(), 1);
+
+        Set<Long> resolve(String query) {
+            List<String> tokens = CatalogTokenizer.tokenize(query);
+            Set<Long> ids = new HashSet<>();
+
+            int i = 0;
+            while (i < tokens.size()) {
+                int matched = 0;
+                for (int length = Math.min(longestName, tokens.size() - i); length > 0; length--) {
+                    Set<Long> hit = nameKeys.get(String.join(" ", tokens.subList(i, i + length)));
+                    if (hit != null) {
+                        ids.addAll(hit);
+                        matched = length;
+                        break;
+                    }
+                }
+                i += Math.max(matched, 1);
+            }
+            if (!ids.isEmpty()) {
+                return ids;
+            }
+
+            // Keep the authors sharing the most tokens with the query; ties are all returned
+            Map<Long, Integer> tokenMatches = new HashMap<>();
+            for (String token : new HashSet<>(tokens)) {
+                for (Long authorId : tokenKeys.getOrDefault(token, Set.of())) {
+                    tokenMatches.merge(authorId, 1, Integer::sum);
+                }
+            }
+            int best = tokenMatches.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+            tokenMatches.forEach((authorId, matches) -> {
+                if (matches == best) {
+                    ids.add(authorId);
+                }
+            });
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import java.util.List;
+
+/**
+ * Seed data for the authors table, merged from the mappings the chat and search services
+ * used to hard-code. Only written when the table is empty; admins maintain it afterwards.
+ */
+final class DefaultAuthorAliases {
+
+    record Entry(String canonicalName, String nameBengali, List<String> aliases) {
+    }
+
+    static final List<Entry> ENTRIES = List.of(
+        new Entry("J.K. Rowling", "জে.কে. রোলিং",
+            List.of("jk rowling", "joanne rowling", "rowling", "জোয়ান রোলিং")),
+        new Entry("Rabindranath Tagore", "রবীন্দ্রনাথ ঠাকুর",
+            List.of("tagore", "rabindranath thakur", "রবি ঠাকুর", "রবীন্দ্রনাথ", "রবি")),
+        new Entry("Kazi Nazrul Islam", "কাজী নজরুল ইসলাম",
+            List.of("nazrul islam", "nazrul", "নজরুল")),
+        new Entry("Sarat Chandra Chattopadhyay", "শরৎচন্দ্র চট্টোপাধ্যায়",
+            List.of("sharatchandra", "sarat chandra", "শরৎচন্দ্র", "শরৎ")),
+        new Entry("Bankim Chandra Chattopadhyay", "বঙ্কিমচন্দ্র চট্টোপাধ্যায়",
+            List.of("bankim chandra", "bankimchandra", "বঙ্কিম")),
+        new Entry("Michael Madhusudan Dutt", "মাইকেল মধুসূদন দত্ত",
+            List.of("madhusudan dutt", "michael madhusudan")),
+        new Entry("Tarashankar Bandyopadhyay", "তারাশঙ্কর বন্দ্যোপাধ্যায়",
+            List.of("tarashankar banerjee")),
+        new Entry("Bibhutibhushan Bandyopadhyay", "বিভূতিভূষণ বন্দ্যোপাধ্যায়",
+            List.of("bibhutibhushan banerjee")),
+        new Entry("Manik Bandyopadhyay", "মানিক বন্দ্যোপাধ্যায়",
+            List.of("manik banerjee")),
+        new Entry("Humayun Ahmed", "হুমায়ূন আহমেদ",
+            List.of("humayun ahmad", "হুমায়ূন")),
+        new Entry("Ahmad Sofa", "আহমদ ছফা",
+            List.of("ahmed sofa")),
+        new Entry("Zahir Raihan", "জহির রায়হান",
+            List.of("jahir raihan")),
+        new Entry("Shahidul Jahir", "শহীদুল জহির",
+            List.of("shahidul zahir")),
+        new Entry("Al Mahmud", "আল মাহমুদ",
+            List.of("al-mahmud")),
+        new Entry("Anisul Hoque", "আনিসুল হক",
+            List.of("anisul haq"))
+    );
+
+    private DefaultAuthorAliases() {
+    }
+}
@@ -0,0 +1,55 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends every fresh Mistral extraction, with the message it came from, to a JSON-lines
+ * file that {@link SlotModelTrainer} learns from. Off unless a path is configured, since
+ * the file holds raw user messages.
+ */
+@Component
+public class ExtractionTrainingLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionTrainingLog.class);
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public ExtractionTrainingLog(ObjectMapper objectMapper,
+                                 @Value("${extraction.training-log.path:}") String path) {
+        this.objectMapper = objectMapper;
+        this.path = path == null || path.isBlank() ? null : Path.of(path);
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    /**
+     * Appends one example. Failures are logged and never reach the chat request.
+     */
+    public synchronized void record(String message, BookSearchCriteria extracted) {
+        if (path == null) {
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(objectMapper.writeValueAsString(SlotExample.of(message, extracted)));
+            writer.write('\n');
+        } catch (IOException e) {
+            logger.warn("Could not append to the extraction training log {}: {}", path, e.getMessage());
+        }
+    }
+}
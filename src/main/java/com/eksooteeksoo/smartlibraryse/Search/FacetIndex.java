@@ -0,0 +1,181 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogChangeEvent;
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogListener;
+import com.eksooteeksoo.smartlibraryse.Catalog.GenreNames;
+import com.eksooteeksoo.smartlibraryse.DTO.SearchFacets;
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmaps over book ids, one per genre, one per publication decade and one for books in
+ * stock. Facet counts for a result set are then intersection cardinalities against the
+ * result's own bitmap instead of GROUP BY queries. Book ids are dense database
+ * sequences, so plain {@link BitSet}s stay small.
+ */
+@Component
+public class FacetIndex implements CatalogListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(FacetIndex.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final BitSet books = new BitSet();
+    private final BitSet inStock = new BitSet();
+    private final Map<String, BitSet> genres = new HashMap<>();
+    private final Map<String, String> genreLabels = new HashMap<>();
+    private final Map<Integer, BitSet> decades = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    private record Document(List<String> genres, Integer decade) {
+    }
+
+    @Override
+    public void rebuild(List<Book> all) {
+        lock.writeLock().lock();
+        try {
+            books.clear();
+            inStock.clear();
+            genres.clear();
+            genreLabels.clear();
+            decades.clear();
+            documents.clear();
+            for (Book book : all) {
+                addDocument(book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Facet index built with {} genres and {} decades", genres.size(), decades.size());
+    }
+
+    @Override
+    public void onCatalogChange(CatalogChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(event.getBookId());
+            if (event.getType() == CatalogChangeEvent.Type.SAVED) {
+                addDocument(event.getBook());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Genre, decade and in-stock counts over the given books. Ids the index does not know
+     * are ignored.
+     */
+    public SearchFacets facets(Collection<Long> bookIds) {
+        BitSet result = new BitSet();
+        for (Long id : bookIds) {
+            if (id != null && id >= 0 && id <= Integer.MAX_VALUE) {
+                result.set(id.intValue());
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            result.and(books);
+
+            List<Map.Entry<String, Integer>> genreCounts = new ArrayList<>();
+            for (Map.Entry<String, BitSet> genre : genres.entrySet()) {
+                int count = intersectionSize(result, genre.getValue());
+                if (count > 0) {
+                    genreCounts.add(Map.entry(genreLabels.get(genre.getKey()), count));
+                }
+            }
+            genreCounts.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Integer> genreFacet = new LinkedHashMap<>();
+            for (Map.Entry<String, Integer> entry : genreCounts) {
+                genreFacet.put(entry.getKey(), entry.getValue());
+            }
+
+            Map<Integer, Integer> decadeFacet = new LinkedHashMap<>();
+            for (Map.Entry<Integer, BitSet> decade : decades.entrySet()) {
+                int count = intersectionSize(result, decade.getValue());
+                if (count > 0) {
+                    decadeFacet.put(decade.getKey(), count);
+                }
+            }
+
+            return new SearchFacets(result.cardinality(), intersectionSize(result, inStock), genreFacet, decadeFacet);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static int intersectionSize(BitSet a, BitSet b) {
+        if (!a.intersects(b)) {
+            return 0;
+        }
+        BitSet smaller = a.length() <= b.length() ? a : b;
+        BitSet intersection = (BitSet) smaller.clone();
+        intersection.and(smaller == a ? b : a);
+        return intersection.cardinality();
+    }
+
+    private void addDocument(Book book) {
+        if (book == null || book.getId() == null || book.getId() < 0 || book.getId() > Integer.MAX_VALUE) {
+            return;
+        }
+        int bit = book.getId().intValue();
+        books.set(bit);
+        if (book.getQuantity() > 0) {
+            inStock.set(bit);
+        }
+
+        List<String> keys = new ArrayList<>();
+        for (String genre : GenreNames.split(book.getGenre())) {
+            String key = GenreNames.normalize(genre);
+            keys.add(key);
+            genres.computeIfAbsent(key, k -> new BitSet()).set(bit);
+            genreLabels.putIfAbsent(key, genre);
+        }
+
+        Integer decade = book.getPublishedYear() > 0 ? book.getPublishedYear() / 10 * 10 : null;
+        if (decade != null) {
+            decades.computeIfAbsent(decade, d -> new BitSet()).set(bit);
+        }
+        documents.put(book.getId(), new Document(keys, decade));
+    }
+
+    private void removeDocument(Long bookId) {
+        Document document = documents.remove(bookId);
+        if (document == null) {
+            return;
+        }
+        int bit = bookId.intValue();
+        books.clear(bit);
+        inStock.clear(bit);
+        for (String key : document.genres()) {
+            BitSet ids = genres.get(key);
+            ids.clear(bit);
+            if (ids.isEmpty()) {
+                genres.remove(key);
+                genreLabels.remove(key);
+            }
+        }
+        if (document.decade() != null) {
+            BitSet ids = decades.get(document.decade());
+            ids.clear(bit);
+            if (ids.isEmpty()) {
+                decades.remove(document.decade());
+            }
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Everything the rule-based extractor knows about one chat message, gathered by a single
+ * pass of {@link RuleLexicon#scan(String)}: which phrase groups and genres occur (with
+ * positions for the positional groups), the ASCII digit runs, the keyword tokens, which
+ * scripts appear, and which keywords have been placed into a criteria slot.
+ */
+public final class MessageFeatures {
+
+    private static final RuleLexicon.Feature[] FEATURES = RuleLexicon.Feature.values();
+
+    private final String text;
+    private final boolean[] features = new boolean[FEATURES.length];
+    private final boolean[] genres = new boolean[RuleLexicon.GENRES.size()];
+    // Start/end pairs per positional feature, in order of occurrence
+    private final int[][] spans = new int[FEATURES.length][];
+    private final int[] spanCounts = new int[FEATURES.length];
+    private int[] digitRuns = new int[8];
+    private int digitRunCount;
+    private final List<String> keywords = new ArrayList<>();
+    // Start/end pairs of every lexicon phrase hit and of every keyword token
+    private int[] phraseSpans = new int[16];
+    private int[] phrasePatterns = new int[8];
+    private int phraseSpanCount;
+    private int[] keywordSpans = new int[16];
+    private boolean[] placed;
+    private int tokenCount;
+    private int quoteCount;
+    private boolean hasBengali;
+    private boolean hasLatin;
+
+    MessageFeatures(String text) {
+        this.text = text;
+        scan();
+    }
+
+    private void scan() {
+        AhoCorasick automaton = RuleLexicon.AUTOMATON;
+        int state = automaton.initialState();
+        int tokenStart = -1;
+        int digitStart = -1;
+        boolean previousTokenChar = false;
+        int length = text.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+
+            state = automaton.next(state, c);
+            for (int patternId : automaton.matches(state)) {
+                int start = i + 1 - automaton.patternLength(patternId);
+                for (int target : RuleLexicon.PATTERN_TARGETS[patternId]) {
+                    record(target, start, i + 1);
+                }
+                addPhraseSpan(patternId, start, i + 1);
+            }
+
+            if (c >= '\u0980' && c <= '\u09FF') {
+                hasBengali = true;
+            } else if (c >= 'a' && c <= 'z') {
+                hasLatin = true;
+            } else if (c == '"') {
+                quoteCount++;
+            }
+
+            boolean digit = c >= '0' && c <= '9';
+            if (digit && digitStart < 0) {
+                digitStart = i;
+            } else if (!digit && digitStart >= 0) {
+                addDigitRun(digitStart, i);
+                digitStart = -1;
+            }
+
+            // Keyword tokens are runs of letters and numbers; a low surrogate shares its pair's class
+            boolean tokenChar = Character.isLowSurrogate(c) && i > 0 && Character.isHighSurrogate(text.charAt(i - 1))
+                    ? previousTokenChar
+                    : isKeywordChar(Character.codePointAt(text, i));
+            if (tokenChar && tokenStart < 0) {
+                tokenStart = i;
+            } else if (!tokenChar && tokenStart >= 0) {
+                addKeyword(tokenStart, i);
+                tokenStart = -1;
+            }
+            previousTokenChar = tokenChar;
+        }
+
+        if (digitStart >= 0) {
+            addDigitRun(digitStart, length);
+        }
+        if (tokenStart >= 0) {
+            addKeyword(tokenStart, length);
+        }
+        // Genre words, known authors and flag phrases fill their slot just by occurring;
+        // positional phrases wait for their detector to parse the text around them
+        placed = new boolean[keywords.size()];
+        for (int k = 0; k < keywords.size(); k++) {
+            int pattern = wholeWordPattern(keywordSpans[k * 2], keywordSpans[k * 2 + 1]);
+            placed[k] = pattern >= 0 && placesItself(pattern);
+        }
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean has(RuleLexicon.Feature feature) {
+        return features[feature.ordinal()];
+    }
+
+    public int occurrences(RuleLexicon.Feature feature) {
+        return spanCounts[feature.ordinal()];
+    }
+
+    public int matchStart(RuleLexicon.Feature feature, int occurrence) {
+        return spans[feature.ordinal()][occurrence * 2];
+    }
+
+    public int matchEnd(RuleLexicon.Feature feature, int occurrence) {
+        return spans[feature.ordinal()][occurrence * 2 + 1];
+    }
+
+    /**
+     * Detected genres in the lexicon's reporting order.
+     */
+    public List<String> getGenres() {
+        List<String> detected = new ArrayList<>();
+        for (int i = 0; i < genres.length; i++) {
+            if (genres[i]) {
+                detected.add(RuleLexicon.GENRES.get(i));
+            }
+        }
+        return detected;
+    }
+
+    public int digitRunCount() {
+        return digitRunCount;
+    }
+
+    public int digitRunStart(int run) {
+        return digitRuns[run * 2];
+    }
+
+    public int digitRunEnd(int run) {
+        return digitRuns[run * 2 + 1];
+    }
+
+    /**
+     * Tokens longer than two chars that are neither stop words nor plain numbers.
+     */
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    /**
+     * Keywords no slot has taken: not a genre word, known author or flag phrase, and not
+     * part of a year, exclusion or count a detector {@link #place placed}. These are what
+     * is left for the free-text keyword search.
+     */
+    public List<String> getUnplacedKeywords() {
+        List<String> unplaced = new ArrayList<>();
+        for (int k = 0; k < keywords.size(); k++) {
+            if (!placed[k]) {
+                unplaced.add(keywords.get(k));
+            }
+        }
+        return unplaced;
+    }
+
+    /**
+     * Marks every keyword overlapping [start, end) as placed, for detectors that turned
+     * that stretch of the message into a slot ("after 2010" into yearFrom).
+     */
+    public void place(int start, int end) {
+        for (int k = 0; k < keywords.size(); k++) {
+            if (keywordSpans[k * 2] < end && keywordSpans[k * 2 + 1] > start) {
+                placed[k] = true;
+            }
+        }
+    }
+
+    /**
+     * Known authors named in the message on word boundaries, in order of occurrence.
+     */
+    public List<String> getKnownAuthors() {
+        List<String> authors = new ArrayList<>();
+        int knownAuthor = RuleLexicon.Feature.KNOWN_AUTHOR.ordinal();
+        for (int p = 0; p < phraseSpanCount; p++) {
+            int start = phraseSpans[p * 2];
+            int end = phraseSpans[p * 2 + 1];
+            String author = text.substring(start, end);
+            if (targets(phrasePatterns[p], knownAuthor) && onWordBoundaries(start, end) && !authors.contains(author)) {
+                authors.add(author);
+            }
+        }
+        return authors;
+    }
+
+    /**
+     * Share of the message's word tokens the rules placed: stop words, short words and
+     * numbers, plus keywords that went into a slot. Keywords left for the free-text search
+     * count against it. 1.0 for a message without words.
+     */
+    public double recognizedShare() {
+        if (tokenCount == 0) {
+            return 1.0;
+        }
+        int unplaced = 0;
+        for (boolean keywordPlaced : placed) {
+            if (!keywordPlaced) {
+                unplaced++;
+            }
+        }
+        return (double) (tokenCount - unplaced) / tokenCount;
+    }
+
+    public boolean isQuoted() {
+        return quoteCount >= 2;
+    }
+
+    public boolean hasBengali() {
+        return hasBengali;
+    }
+
+    public boolean hasLatin() {
+        return hasLatin;
+    }
+
+    private void record(int target, int start, int end) {
+        if (target >= FEATURES.length) {
+            genres[target - FEATURES.length] = true;
+            return;
+        }
+        features[target] = true;
+        if (!FEATURES[target].isPositional()) {
+            return;
+        }
+        int[] featureSpans = spans[target];
+        int count = spanCounts[target];
+        if (featureSpans == null) {
+            featureSpans = new int[4];
+        } else if (featureSpans.length < (count + 1) * 2) {
+            featureSpans = Arrays.copyOf(featureSpans, featureSpans.length * 2);
+        }
+        featureSpans[count * 2] = start;
+        featureSpans[count * 2 + 1] = end;
+        spans[target] = featureSpans;
+        spanCounts[target] = count + 1;
+    }
+
+    private void addDigitRun(int start, int end) {
+        if (digitRuns.length < (digitRunCount + 1) * 2) {
+            digitRuns = Arrays.copyOf(digitRuns, digitRuns.length * 2);
+        }
+        digitRuns[digitRunCount * 2] = start;
+        digitRuns[digitRunCount * 2 + 1] = end;
+        digitRunCount++;
+    }
+
+    private void addPhraseSpan(int patternId, int start, int end) {
+        if (phraseSpans.length < (phraseSpanCount + 1) * 2) {
+            phraseSpans = Arrays.copyOf(phraseSpans, phraseSpans.length * 2);
+            phrasePatterns = Arrays.copyOf(phrasePatterns, phrasePatterns.length * 2);
+        }
+        phrasePatterns[phraseSpanCount] = patternId;
+        phraseSpans[phraseSpanCount * 2] = start;
+        phraseSpans[phraseSpanCount * 2 + 1] = end;
+        phraseSpanCount++;
+    }
+
+    private void addKeyword(int start, int end) {
+        tokenCount++;
+        String token = text.substring(start, end);
+        if (token.length() > 2 && !RuleLexicon.STOP_WORDS.contains(token) && !isAsciiNumber(token)) {
+            int index = keywords.size();
+            if (keywordSpans.length < (index + 1) * 2) {
+                keywordSpans = Arrays.copyOf(keywordSpans, keywordSpans.length * 2);
+            }
+            keywordSpans[index * 2] = start;
+            keywordSpans[index * 2 + 1] = end;
+            keywords.add(token);
+        }
+    }
+
+    /**
+     * The pattern of a phrase hit that spans the token and begins and ends on word
+     * boundaries, preferring one that places the token by itself, or -1. So "art" inside
+     * "party" does not count but "fiction" inside "science fiction" does.
+     */
+    private int wholeWordPattern(int tokenStart, int tokenEnd) {
+        int found = -1;
+        for (int p = 0; p < phraseSpanCount; p++) {
+            int start = phraseSpans[p * 2];
+            int end = phraseSpans[p * 2 + 1];
+            if (start <= tokenStart && end >= tokenEnd && onWordBoundaries(start, end)) {
+                found = phrasePatterns[p];
+                if (placesItself(found)) {
+                    return found;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * True when the hit begins and ends on word boundaries. Trailing separators in a
+     * phrase ("not ") are ignored for the end boundary.
+     */
+    private boolean onWordBoundaries(int start, int end) {
+        while (end > start && !isKeywordChar(text.charAt(end - 1))) {
+            end--;
+        }
+        return (start == 0 || !isKeywordChar(Character.codePointBefore(text, start)))
+                && (end == text.length() || !isKeywordChar(Character.codePointAt(text, end)));
+    }
+
+    /**
+     * True when the pattern names a genre or a non-positional phrase group (a known author
+     * or a flag such as "latest"), whose slot is filled whenever the phrase occurs.
+     */
+    private static boolean placesItself(int patternId) {
+        for (int target : RuleLexicon.PATTERN_TARGETS[patternId]) {
+            if (target >= FEATURES.length || !FEATURES[target].isPositional()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean targets(int patternId, int target) {
+        for (int t : RuleLexicon.PATTERN_TARGETS[patternId]) {
+            if (t == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isKeywordChar(int codePoint) {
+        if (Character.isLetter(codePoint)) {
+            return true;
+        }
+        int type = Character.getType(codePoint);
+        return type == Character.DECIMAL_DIGIT_NUMBER
+                || type == Character.LETTER_NUMBER
+                || type == Character.OTHER_NUMBER;
+    }
+
+    private static boolean isAsciiNumber(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
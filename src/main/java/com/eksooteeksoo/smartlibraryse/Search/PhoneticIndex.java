@@ -0,0 +1,140 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogChangeEvent;
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogListener;
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Book ids keyed by the {@link PhoneticKey} of their author (both spellings) and title,
+ * so an author or title typed in either script, in any romanization, resolves with one
+ * hash lookup. Authors are also keyed per name token, so "humayun" alone finds the
+ * books of Humayun Ahmed the way a substring match did.
+ */
+@Component
+public class PhoneticIndex implements CatalogListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhoneticIndex.class);
+
+    // Shorter keys, such as a lone initial, would match far too many books
+    private static final int MIN_KEY_LENGTH = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Set<Long>> authorKeys = new HashMap<>();
+    private final Map<String, Set<Long>> titleKeys = new HashMap<>();
+    private final Map<Long, Set<String>> documentAuthorKeys = new HashMap<>();
+    private final Map<Long, String> documentTitleKeys = new HashMap<>();
+
+    @Override
+    public void rebuild(List<Book> books) {
+        lock.writeLock().lock();
+        try {
+            authorKeys.clear();
+            titleKeys.clear();
+            documentAuthorKeys.clear();
+            documentTitleKeys.clear();
+            for (Book book : books) {
+                addDocument(book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Phonetic index built with {} author keys and {} title keys", authorKeys.size(), titleKeys.size());
+    }
+
+    @Override
+    public void onCatalogChange(CatalogChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(event.getBookId());
+            if (event.getType() == CatalogChangeEvent.Type.SAVED) {
+                addDocument(event.getBook());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the books whose author, as a whole name or one name token, sounds like the query.
+     */
+    public Set<Long> findByAuthor(String author) {
+        return lookup(authorKeys, PhoneticKey.of(author));
+    }
+
+    /**
+     * Ids of the books whose whole title sounds like the query.
+     */
+    public Set<Long> findByTitle(String title) {
+        return lookup(titleKeys, PhoneticKey.of(title));
+    }
+
+    private Set<Long> lookup(Map<String, Set<Long>> keys, String key) {
+        if (key.length() < MIN_KEY_LENGTH) {
+            return Set.of();
+        }
+        lock.readLock().lock();
+        try {
+            Set<Long> ids = keys.get(key);
+            return ids == null ? Set.of() : Set.copyOf(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addDocument(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        Set<String> keys = new HashSet<>();
+        for (String name : new String[]{book.getAuthor(), book.getAuthorBengali()}) {
+            keys.add(PhoneticKey.of(name));
+            keys.addAll(PhoneticKey.ofTokens(name));
+        }
+        keys.removeIf(key -> key.length() < MIN_KEY_LENGTH);
+        for (String key : keys) {
+            authorKeys.computeIfAbsent(key, k -> new HashSet<>()).add(book.getId());
+        }
+        documentAuthorKeys.put(book.getId(), keys);
+
+        String titleKey = PhoneticKey.of(book.getTitle());
+        if (titleKey.length() >= MIN_KEY_LENGTH) {
+            titleKeys.computeIfAbsent(titleKey, k -> new HashSet<>()).add(book.getId());
+            documentTitleKeys.put(book.getId(), titleKey);
+        }
+    }
+
+    private void removeDocument(Long bookId) {
+        Set<String> keys = documentAuthorKeys.remove(bookId);
+        if (keys != null) {
+            for (String key : keys) {
+                removePosting(authorKeys, key, bookId);
+            }
+        }
+        String titleKey = documentTitleKeys.remove(bookId);
+        if (titleKey != null) {
+            removePosting(titleKeys, titleKey, bookId);
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> keys, String key, Long bookId) {
+        Set<Long> ids = keys.get(key);
+        if (ids != null) {
+            ids.remove(bookId);
+            if (ids.isEmpty()) {
+                keys.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogTokenizer;
+
+import java.text.Normalizer;
+import java.util.List;
+
+/**
+ * Maps a word in Bengali script or in any common Latin romanization of it to one
+ * phonetic key, so রবীন্দ্রনাথ and "rabindranath" or "humayun" and "humayoon" compare
+ * equal. The key is the consonant skeleton: aspirated and unaspirated, dental and
+ * retroflex, and the three sibilants each collapse into one class; vowels are dropped
+ * except for a leading "a" marking a word that starts with a vowel; doubled classes
+ * collapse. Inherent vowels and romanized vowel spellings therefore never matter.
+ */
+public final class PhoneticKey {
+
+    private static final char HASANTA = '্';
+    private static final char NUKTA = '়';
+
+    private PhoneticKey() {
+    }
+
+    /**
+     * Key of a whole name or title: the keys of its tokens concatenated, so "Sarat Chandra"
+     * and the single Bengali word শরৎচন্দ্র share a key.
+     */
+    public static String of(String text) {
+        StringBuilder key = new StringBuilder();
+        for (String token : CatalogTokenizer.tokenize(text)) {
+            key.append(encode(token));
+        }
+        return collapse(key);
+    }
+
+    /**
+     * Keys of the individual tokens of the text.
+     */
+    public static List<String> ofTokens(String text) {
+        return CatalogTokenizer.tokenize(text).stream()
+                .map(PhoneticKey::encode)
+                .filter(key -> !key.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Key of a single lowercase token.
+     */
+    public static String encode(String token) {
+        if (token == null || token.isEmpty()) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder(token.length());
+        if (isBengali(token.charAt(0))) {
+            encodeBengali(token, key);
+        } else {
+            encodeLatin(Normalizer.normalize(token, Normalizer.Form.NFD), key);
+        }
+        return collapse(key);
+    }
+
+    private static void encodeBengali(String token, StringBuilder key) {
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            boolean nukta = i + 1 < token.length() && token.charAt(i + 1) == NUKTA;
+            boolean afterHasanta = i > 0 && token.charAt(i - 1) == HASANTA;
+
+            if (isBengaliVowel(c)) {
+                if (i == 0) {
+                    key.append('a');
+                }
+                continue;
+            }
+            String sound = switch (c) {
+                case 'ক', 'খ' -> "k";
+                case 'গ', 'ঘ' -> "g";
+                case 'ঙ', 'ং' -> "ng";
+                case 'চ', 'ছ' -> "c";
+                case 'জ', 'ঝ' -> "j";
+                // য is "j" at the start of a syllable but "y" as the ্য conjunct
+                case 'য' -> nukta || afterHasanta ? "y" : "j";
+                case '\u09DF' -> "y"; // য়
+                // Chandrabindu nasalizes the vowel and is romanized as n, as in "Panchali"
+                case 'ঞ', 'ণ', 'ন', 'ঁ' -> "n";
+                case 'ট', 'ঠ', 'ত', 'থ', 'ৎ' -> "t";
+                case 'ড', 'ঢ' -> nukta ? "r" : "d";
+                case '\u09DC', '\u09DD' -> "r"; // ড়, ঢ়
+                case 'দ', 'ধ' -> "d";
+                case 'প' -> "p";
+                case 'ফ' -> "f";
+                case 'ব', 'ভ' -> "b";
+                case 'ম' -> "m";
+                case 'র' -> "r";
+                case 'ল' -> "l";
+                case 'শ', 'ষ', 'স' -> "s";
+                case 'হ' -> "h";
+                default -> "";
+            };
+            key.append(sound);
+        }
+    }
+
+    private static void encodeLatin(String token, StringBuilder key) {
+        char previous = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c < 'a' || c > 'z') {
+                // Combining accents left by NFD and anything non-Latin
+                continue;
+            }
+            char next = i + 1 < token.length() ? token.charAt(i + 1) : 0;
+
+            if (isLatinVowel(c) || c == 'w') {
+                if (key.isEmpty() && previous == 0) {
+                    key.append('a');
+                }
+            } else if (c == 'h') {
+                // Aspiration after a consonant is not distinguished; a lone h is kept
+                if (previous == 0 || isLatinVowel(previous) || previous == 'w') {
+                    key.append('h');
+                }
+            } else if (c == 'c') {
+                key.append(next == 'h' ? 'c' : 'k');
+            } else if (c == 'p' && next == 'h') {
+                key.append('f');
+                i++;
+                c = 'f';
+            } else {
+                key.append(switch (c) {
+                    case 'q' -> "k";
+                    case 'x' -> "ks";
+                    case 'z' -> "j";
+                    case 'v' -> "b";
+                    default -> String.valueOf(c);
+                });
+            }
+            previous = c;
+        }
+    }
+
+    // Collapses runs of the same class, e.g. the doubled consonants of চট্ট / "chatto"
+    private static String collapse(CharSequence key) {
+        StringBuilder collapsed = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (collapsed.isEmpty() || collapsed.charAt(collapsed.length() - 1) != c) {
+                collapsed.append(c);
+            }
+        }
+        return collapsed.toString();
+    }
+
+    private static boolean isBengali(char c) {
+        return c >= 'ঀ' && c <= '৿';
+    }
+
+    // Independent vowels and dependent vowel signs; both carry no key
+    private static boolean isBengaliVowel(char c) {
+        return (c >= 'অ' && c <= 'ঔ') || (c >= 'া' && c <= 'ৌ') || c == 'ৗ';
+    }
+
+    private static boolean isLatinVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+}
@@ -0,0 +1,252 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogIndex;
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogTokenizer;
+import com.eksooteeksoo.smartlibraryse.Catalog.CorpusStatistics;
+import com.eksooteeksoo.smartlibraryse.Catalog.CorpusStatistics.Field;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import com.eksooteeksoo.smartlibraryse.Repository.BookBookingRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Ranks the candidates of a criteria search. Text relevance is BM25F over title, author
+ * and description with field weights and per-field length normalization; optional
+ * keywords add to it at a lower weight. Recency and popularity priors are added when the
+ * criteria ask for them, and only the best maxResults books are kept, using a bounded
+ * heap over the candidate pool.
+ */
+@Component
+public class RelevanceScorer {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+
+    // Indexed by Field ordinal: TITLE, AUTHOR, DESCRIPTION
+    private static final double[] FIELD_WEIGHTS = {3.0, 2.0, 1.0};
+
+    private static final double OPTIONAL_KEYWORD_WEIGHT = 0.5;
+    private static final double ISBN_MATCH_BONUS = 10.0;
+    private static final double RECENCY_WEIGHT = 0.3;
+    private static final double POPULARITY_WEIGHT = 0.3;
+
+    // Candidates fetched per returned book when ranking in memory
+    private static final int CANDIDATE_POOL_FACTOR = 4;
+    private static final int MIN_CANDIDATE_POOL = 100;
+    private static final int MAX_CANDIDATE_POOL = 400;
+
+    private final CatalogIndex catalogIndex;
+    private final BookBookingRepository bookBookingRepository;
+
+    public RelevanceScorer(CatalogIndex catalogIndex, BookBookingRepository bookBookingRepository) {
+        this.catalogIndex = catalogIndex;
+        this.bookBookingRepository = bookBookingRepository;
+    }
+
+    /**
+     * True unless the criteria ask for an explicit title, author or year order, which the
+     * database query already applies.
+     */
+    public static boolean ranksByRelevance(BookSearchCriteria criteria) {
+        String sortBy = criteria.getSortBy() == null ? "relevance" : criteria.getSortBy().toLowerCase(Locale.ROOT);
+        return sortBy.equals("relevance") || sortBy.equals("popularity");
+    }
+
+    /**
+     * How many rows the database query should return for {@link #rank} to choose from.
+     * The query orders the best tier by the priors the criteria ask for before this
+     * limit, so a tier larger than the pool still offers its most booked or newest books.
+     */
+    public int candidatePoolSize(BookSearchCriteria criteria) {
+        int maxResults = criteria.resolveMaxResults();
+        if (!ranksByRelevance(criteria)) {
+            return maxResults;
+        }
+        return Math.min(MAX_CANDIDATE_POOL, Math.max(MIN_CANDIDATE_POOL, maxResults * CANDIDATE_POOL_FACTOR));
+    }
+
+    /**
+     * The best maxResults candidates, best first. Ties keep the order of the candidate
+     * list, which is the database's sort order within the best match tier.
+     *
+     * @param authorNames the requested authors expanded to all known spellings
+     */
+    public List<Book> rank(BookSearchCriteria criteria, Collection<String> authorNames, List<Book> candidates) {
+        int maxResults = criteria.resolveMaxResults();
+        if (candidates.isEmpty() || !ranksByRelevance(criteria)) {
+            return candidates.size() <= maxResults ? candidates : candidates.subList(0, maxResults);
+        }
+
+        Map<String, Double> queryTerms = queryTerms(criteria, authorNames);
+        CorpusStatistics statistics = catalogIndex.isReady()
+                ? catalogIndex.statistics(queryTerms.keySet())
+                : CorpusStatistics.of(candidates, queryTerms.keySet());
+
+        double[] scores = new double[candidates.size()];
+        double maxTextScore = 0.0;
+        for (int i = 0; i < candidates.size(); i++) {
+            scores[i] = bm25(candidates.get(i), queryTerms, statistics);
+            maxTextScore = Math.max(maxTextScore, scores[i]);
+        }
+
+        Double threshold = criteria.getRelevanceThreshold();
+        for (int i = 0; i < scores.length; i++) {
+            double relevance = maxTextScore > 0 ? scores[i] / maxTextScore : 0.0;
+            // Below the threshold a book is dropped, whatever its priors
+            scores[i] = threshold != null && maxTextScore > 0 && relevance < threshold ? Double.NaN : relevance;
+        }
+
+        addIsbnBonus(criteria, candidates, scores);
+        if (Boolean.TRUE.equals(criteria.getPrioritizeRecentBooks())) {
+            addRecencyPrior(candidates, scores);
+        }
+        if (Boolean.TRUE.equals(criteria.getPrioritizePopularBooks()) || "popularity".equalsIgnoreCase(criteria.getSortBy())) {
+            double weight = "popularity".equalsIgnoreCase(criteria.getSortBy()) ? 1.0 : POPULARITY_WEIGHT;
+            addPopularityPrior(candidates, scores, weight);
+        }
+
+        return topK(candidates, scores, maxResults);
+    }
+
+    static List<Book> topK(List<Book> candidates, double[] scores, int k) {
+        // Min-heap on (score, then later position) so the root is always the weakest kept book
+        Comparator<Integer> weakestFirst = Comparator.<Integer>comparingDouble(i -> scores[i])
+                .thenComparing(Comparator.<Integer>reverseOrder());
+        PriorityQueue<Integer> heap = new PriorityQueue<>(k + 1, weakestFirst);
+        for (int i = 0; i < candidates.size(); i++) {
+            if (Double.isNaN(scores[i])) {
+                continue;
+            }
+            heap.offer(i);
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+
+        List<Book> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ranked.add(candidates.get(heap.poll()));
+        }
+        Collections.reverse(ranked);
+        return ranked;
+    }
+
+    private static double bm25(Book book, Map<String, Double> queryTerms, CorpusStatistics statistics) {
+        if (queryTerms.isEmpty()) {
+            return 0.0;
+        }
+
+        Field[] fields = Field.values();
+        List<List<String>> fieldTokens = new ArrayList<>(fields.length);
+        double[] lengthNorms = new double[fields.length];
+        for (Field field : fields) {
+            List<String> tokens = field.tokens(book);
+            fieldTokens.add(tokens);
+            double averageLength = statistics.averageLength(field);
+            lengthNorms[field.ordinal()] = averageLength > 0
+                    ? 1 - B + B * tokens.size() / averageLength
+                    : 1.0;
+        }
+
+        int documentCount = statistics.documentCount();
+        double score = 0.0;
+        for (Map.Entry<String, Double> term : queryTerms.entrySet()) {
+            double weightedFrequency = 0.0;
+            for (Field field : fields) {
+                int frequency = 0;
+                for (String token : fieldTokens.get(field.ordinal())) {
+                    if (CorpusStatistics.matches(token, term.getKey())) {
+                        frequency++;
+                    }
+                }
+                weightedFrequency += FIELD_WEIGHTS[field.ordinal()] * frequency / lengthNorms[field.ordinal()];
+            }
+            if (weightedFrequency > 0) {
+                double idf = idf(documentCount, statistics.documentFrequency(term.getKey()));
+                score += term.getValue() * idf * weightedFrequency / (K1 + weightedFrequency);
+            }
+        }
+        return score;
+    }
+
+    // BM25 idf with the +1 that keeps it positive for terms in most documents
+    static double idf(int documentCount, int documentFrequency) {
+        double rest = Math.max(documentCount - documentFrequency, 0);
+        return Math.log(1 + (rest + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static Map<String, Double> queryTerms(BookSearchCriteria criteria, Collection<String> authorNames) {
+        Map<String, Double> terms = new LinkedHashMap<>();
+        addTerms(terms, criteria.getTitles(), 1.0);
+        addTerms(terms, criteria.getKeywords(), 1.0);
+        addTerms(terms, criteria.getDescriptionKeywords(), 1.0);
+        addTerms(terms, criteria.getRequiredKeywords(), 1.0);
+        addTerms(terms, authorNames, 1.0);
+        addTerms(terms, criteria.getOptionalKeywords(), OPTIONAL_KEYWORD_WEIGHT);
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Double> terms, Collection<String> values, double weight) {
+        if (values == null) {
+            return;
+        }
+        for (String value : values) {
+            for (String token : CatalogTokenizer.tokenize(value)) {
+                terms.merge(token, weight, Math::max);
+            }
+        }
+    }
+
+    private static void addIsbnBonus(BookSearchCriteria criteria, List<Book> candidates, double[] scores) {
+        if (criteria.getIsbn() == null || criteria.getIsbn().isBlank()) {
+            return;
+        }
+        String isbn = criteria.getIsbn().trim();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (isbn.equals(candidates.get(i).getIsbn())) {
+                scores[i] += ISBN_MATCH_BONUS;
+            }
+        }
+    }
+
+    private static void addRecencyPrior(List<Book> candidates, double[] scores) {
+        int oldest = Integer.MAX_VALUE;
+        int newest = Integer.MIN_VALUE;
+        for (Book book : candidates) {
+            oldest = Math.min(oldest, book.getPublishedYear());
+            newest = Math.max(newest, book.getPublishedYear());
+        }
+        if (newest == oldest) {
+            return;
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            scores[i] += RECENCY_WEIGHT * (candidates.get(i).getPublishedYear() - oldest) / (newest - oldest);
+        }
+    }
+
+    private void addPopularityPrior(List<Book> candidates, double[] scores, double weight) {
+        Map<Long, Long> bookings = new HashMap<>();
+        for (Object[] row : bookBookingRepository.countByBookIds(candidates.stream().map(Book::getId).toList())) {
+            bookings.put((Long) row[0], (Long) row[1]);
+        }
+        long mostBooked = bookings.values().stream().mapToLong(Long::longValue).max().orElse(0L);
+        if (mostBooked == 0) {
+            return;
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            long count = bookings.getOrDefault(candidates.get(i).getId(), 0L);
+            scores[i] += weight * Math.log1p(count) / Math.log1p(mostBooked);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Precompiled dictionaries for the rule-based keyword extractor. Every phrase the detectors
+ * look for (English and Bengali) lives in one Aho-Corasick automaton, and {@link #scan(String)}
+ * walks the message once to collect phrase hits, genre hits, ASCII digit runs, keyword
+ * tokens and script flags. Built once at class load; shared by all threads.
+ */
+public final class RuleLexicon {
+
+    /**
+     * Phrase groups the detectors ask about. Positional groups also record where each
+     * occurrence starts and ends, for detectors that parse the text around a phrase.
+     */
+    public enum Feature {
+        INTENT_SPECIFIC(false, "exact", "precisely", "specific"),
+        INTENT_RESEARCH(false, "research", "study", "academic", "paper", "thesis"),
+        INTENT_BROWSE(false, "browse", "explore", "discover", "similar", "like"),
+        MODE_STRICT(false, "exactly", "precisely", "strict"),
+        MODE_FUZZY(false, "similar", "like", "something like", "fuzzy"),
+        SORT_RECENT(false, "latest", "newest", "recent"),
+        SORT_OLDEST(false, "oldest", "classic", "vintage"),
+        SORT_POPULAR(false, "popular", "best", "top", "famous"),
+        SORT_ALPHABETICAL(false, "alphabetical", "a to z", "z to a"),
+        SORT_REVERSE_ALPHABETICAL(false, "z to a"),
+        SORT_BY_AUTHOR(false, "by author"),
+        AVAILABLE_ONLY(false, "available now", "in stock"),
+        INCLUDE_UNAVAILABLE(false, "any books", "all books", "including unavailable"),
+        FEW(false, "few", "some"),
+        MANY(false, "many", "lots", "plenty"),
+        // Genre AND indicators; anything else means OR
+        GENRE_AND(false, "both", "and", "with both", "containing all", "must have both",
+            "all of", "include all", "that have all", "with all",
+            "এবং", "আর", "ও", "উভয়", "দুটোই", "সব", "সকল"),
+        AT_LEAST(true, "at least"),
+        COUNT_NOUN(true, "book", "result"),
+        YEAR_BETWEEN(true, "between"),
+        YEAR_AFTER(true, "after"),
+        YEAR_BEFORE(true, "before"),
+        YEAR_IN(true, "in"),
+        EXCLUDE_NOT(true, "not "),
+        EXCLUDE_EXCEPT(true, "except "),
+        EXCLUDE_BUT_NOT(true, "but not "),
+        EXCLUDE_AVOID(true, "avoid "),
+        EXCLUDE_EXCLUDE(true, "exclude "),
+        EXCLUDE_WITHOUT(true, "without "),
+        KNOWN_AUTHOR(false, "shakespeare", "dickens", "austen", "tolkien", "rowling", "stephen king",
+            "agatha christie", "mark twain", "hemingway", "orwell",
+            "রবীন্দ্রনাথ", "নজরুল", "হুমায়ূন", "শরৎচন্দ্র");
+
+        private final boolean positional;
+        private final String[] phrases;
+
+        Feature(boolean positional, String... phrases) {
+            this.positional = positional;
+            this.phrases = phrases;
+        }
+
+        public boolean isPositional() {
+            return positional;
+        }
+    }
+
+    /**
+     * Exclusion phrases in the order their exclusions are reported.
+     */
+    public static final List<Feature> EXCLUSIONS = List.of(
+        Feature.EXCLUDE_NOT, Feature.EXCLUDE_EXCEPT, Feature.EXCLUDE_BUT_NOT,
+        Feature.EXCLUDE_AVOID, Feature.EXCLUDE_EXCLUDE, Feature.EXCLUDE_WITHOUT);
+
+    static final Set<String> STOP_WORDS = Set.of(
+        "i", "am", "is", "are", "the", "a", "an", "book", "books", "looking", "for",
+        "want", "need", "find", "do", "you", "have", "any", "some", "can", "could",
+        "would", "should", "about", "on", "in", "at", "by", "with", "from", "to",
+        "published", "written", "author", "title");
+
+    static final List<String> GENRES;
+    static final AhoCorasick AUTOMATON;
+    // For each automaton pattern: feature ordinals, then genre indexes offset by the feature count
+    static final int[][] PATTERN_TARGETS;
+
+    private static final AhoCorasick EXCLUDABLE_GENRES = automatonOf(
+        "fiction", "romance", "mystery", "thriller", "fantasy", "science-fiction",
+        "biography", "history", "self-help", "children", "poetry", "drama",
+        "horror", "adventure", "comedy", "tragedy", "western", "crime");
+
+    private static final AhoCorasick KNOWN_AUTHORS = automatonOf(Feature.KNOWN_AUTHOR.phrases);
+
+    static {
+        // Iteration order of this map decides the order genres are reported in
+        Map<String, String[]> genreKeywords = new HashMap<>();
+        genreKeywords.put("fiction", new String[]{"fiction", "novel", "story"});
+        genreKeywords.put("romance", new String[]{"romance", "love", "romantic"});
+        genreKeywords.put("mystery", new String[]{"mystery", "detective", "crime", "thriller"});
+        genreKeywords.put("science-fiction", new String[]{"science fiction", "sci-fi", "space", "future"});
+        genreKeywords.put("fantasy", new String[]{"fantasy", "magic", "dragon", "wizard"});
+        genreKeywords.put("biography", new String[]{"biography", "memoir", "life story"});
+        genreKeywords.put("history", new String[]{"history", "historical", "past"});
+        genreKeywords.put("self-help", new String[]{"self help", "improvement", "motivation", "success"});
+        genreKeywords.put("children", new String[]{"children", "kids", "child"});
+        genreKeywords.put("education", new String[]{"education", "learning", "study", "academic", "textbook"});
+        genreKeywords.put("programming", new String[]{"programming", "coding", "software", "developer", "computer science", "algorithm", "java", "python", "javascript"});
+        genreKeywords.put("technology", new String[]{"technology", "tech", "digital", "internet", "web", "mobile", "app", "development"});
+        genreKeywords.put("business", new String[]{"business", "management", "entrepreneurship", "startup", "finance", "economics"});
+        genreKeywords.put("science", new String[]{"science", "physics", "chemistry", "biology", "mathematics", "engineering"});
+        genreKeywords.put("health", new String[]{"health", "medical", "medicine", "fitness", "nutrition", "wellness"});
+        genreKeywords.put("art", new String[]{"art", "design", "photography", "painting", "creative", "drawing"});
+
+        AhoCorasick.Builder builder = AhoCorasick.builder();
+        List<List<Integer>> targets = new ArrayList<>();
+        for (Feature feature : Feature.values()) {
+            for (String phrase : feature.phrases) {
+                addTarget(targets, builder.add(phrase), feature.ordinal());
+            }
+        }
+
+        List<String> genres = new ArrayList<>();
+        for (Map.Entry<String, String[]> entry : genreKeywords.entrySet()) {
+            int target = Feature.values().length + genres.size();
+            genres.add(entry.getKey());
+            for (String keyword : entry.getValue()) {
+                addTarget(targets, builder.add(keyword), target);
+            }
+        }
+
+        GENRES = Collections.unmodifiableList(genres);
+        AUTOMATON = builder.build();
+        PATTERN_TARGETS = targets.stream()
+                .map(list -> list.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+    }
+
+    private RuleLexicon() {
+    }
+
+    /**
+     * Lowercases the message and collects everything the rule detectors need in one pass.
+     */
+    public static MessageFeatures scan(String message) {
+        return new MessageFeatures(message.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * True when the phrase names one of the common genres (substring match).
+     */
+    public static boolean isExcludableGenre(String phrase) {
+        return EXCLUDABLE_GENRES.containsAny(phrase.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * True when the phrase mentions a well-known author (substring match).
+     */
+    public static boolean isKnownAuthor(String phrase) {
+        return KNOWN_AUTHORS.containsAny(phrase.toLowerCase(Locale.ROOT));
+    }
+
+    private static void addTarget(List<List<Integer>> targets, int patternId, int target) {
+        while (targets.size() <= patternId) {
+            targets.add(new ArrayList<>());
+        }
+        List<Integer> list = targets.get(patternId);
+        if (!list.contains(target)) {
+            list.add(target);
+        }
+    }
+
+    private static AhoCorasick automatonOf(String... patterns) {
+        AhoCorasick.Builder builder = AhoCorasick.builder();
+        for (String pattern : patterns) {
+            builder.add(pattern);
+        }
+        return builder.build();
+    }
+}
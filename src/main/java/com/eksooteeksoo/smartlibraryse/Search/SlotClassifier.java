@@ -0,0 +1,107 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.GenreNames;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import com.eksooteeksoo.smartlibraryse.Search.SlotModel.Prediction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The on-box extractor between the rules and Mistral: a {@link SlotModel} trained offline
+ * from logged Mistral extractions and loaded at startup. Without a model file every call
+ * returns null and chat behaves as before.
+ */
+@Component
+public class SlotClassifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotClassifier.class);
+
+    private final String modelPath;
+    private final double minConfidence;
+    private volatile SlotModel model;
+
+    public SlotClassifier(@Value("${extraction.classifier.model-path:}") String modelPath,
+                          @Value("${extraction.classifier.min-confidence:0.8}") double minConfidence) {
+        this.modelPath = modelPath;
+        this.minConfidence = minConfidence;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (modelPath == null || modelPath.isBlank()) {
+            return;
+        }
+        try {
+            model = SlotModel.read(Path.of(modelPath));
+            logger.info("Slot classifier loaded from {} with heads {}", modelPath, model.heads().keySet());
+        } catch (IOException e) {
+            logger.warn("Could not load slot classifier from {}, chat falls back to Mistral: {}", modelPath, e.getMessage());
+        }
+    }
+
+    void setModel(SlotModel model) {
+        this.model = model;
+    }
+
+    public boolean isLoaded() {
+        return model != null;
+    }
+
+    /**
+     * The rule criteria with the model's slots filled in, or null when no model is loaded
+     * or it is less sure than extraction.classifier.min-confidence about any slot. Slots
+     * the model has no head for keep the rules' values, and so do the years when the
+     * model does not tie them to the message.
+     */
+    public BookSearchCriteria classify(String message, BookSearchCriteria ruleCriteria) {
+        SlotModel current = model;
+        if (current == null) {
+            return null;
+        }
+        Prediction prediction = current.predict(message);
+        if (prediction.confidence() < minConfidence) {
+            return null;
+        }
+
+        BookSearchCriteria.BookSearchCriteriaBuilder builder = ruleCriteria.toBuilder();
+        if (prediction.userIntent() != null) {
+            builder.userIntent(prediction.userIntent());
+        }
+        if (prediction.sortBy() != null) {
+            builder.sortBy(prediction.sortBy());
+        }
+        if (prediction.sortOrder() != null) {
+            builder.sortOrder(prediction.sortOrder());
+        }
+        if (prediction.genres() != null) {
+            // Genres the model has no head for are the rules' to keep
+            List<String> genres = new ArrayList<>(prediction.genres());
+            if (ruleCriteria.getGenres() != null) {
+                for (String genre : ruleCriteria.getGenres()) {
+                    if (!current.hasGenre(genre) && !genres.contains(GenreNames.normalize(genre))) {
+                        genres.add(genre);
+                    }
+                }
+            }
+            builder.genres(genres);
+        }
+        if (prediction.authors() != null && !prediction.authors().isEmpty()) {
+            builder.authors(prediction.authors());
+        }
+        if (prediction.yearFrom() != null || prediction.yearTo() != null) {
+            builder.yearFrom(prediction.yearFrom()).yearTo(prediction.yearTo());
+        }
+        return builder.extractionSource("classifier")
+                .extractionConfidence(prediction.confidence())
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One line of the training log: a chat message and the slots Mistral extracted from it.
+ * Only the slots the classifier learns are kept.
+ */
+public record SlotExample(String message,
+                          List<String> genres,
+                          List<String> authors,
+                          Integer yearFrom,
+                          Integer yearTo,
+                          String userIntent,
+                          String sortBy,
+                          String sortOrder) {
+
+    public static SlotExample of(String message, BookSearchCriteria criteria) {
+        return new SlotExample(message, criteria.getGenres(), criteria.getAuthors(), criteria.getYearFrom(),
+                criteria.getYearTo(), criteria.getUserIntent(), criteria.getSortBy(), criteria.getSortOrder());
+    }
+
+    /**
+     * Reads a JSON-lines training log, skipping blank and unreadable lines.
+     */
+    public static List<SlotExample> readAll(Path path) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        List<SlotExample> examples = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    SlotExample example = objectMapper.readValue(line, SlotExample.class);
+                    if (example.message() != null && !example.message().isBlank()) {
+                        examples.add(example);
+                    }
+                } catch (IOException e) {
+                    // A line cut short by a crash mid-append; the rest of the log is still good
+                }
+            }
+        }
+        return examples;
+    }
+}
@@ -0,0 +1,168 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Hashed sparse features for the slot classifier. A message becomes its words, word
+ * pairs and character 2- to 4-grams of each word; a single token (for author tagging)
+ * becomes its own grams plus its neighbours. Every feature is hashed straight into
+ * [0, dimension) without a vocabulary, so the model file holds nothing but weights and
+ * unseen words still share grams with seen ones.
+ */
+final class SlotFeatures {
+
+    private static final int MIN_GRAM = 2;
+    private static final int MAX_GRAM = 4;
+
+    // Distinct seeds keep a word, a gram and a neighbour with the same text apart
+    private static final int WORD = 0x1B873593;
+    private static final int GRAM = 0x5BD1E995;
+    private static final int PAIR = 0x27D4EB2F;
+    private static final int PREVIOUS = 0x165667B1;
+    private static final int NEXT = 0x7FEB352D;
+    private static final int SHAPE = 0x68E31DA4;
+
+    private SlotFeatures() {
+    }
+
+    /**
+     * NFC and lowercase, the same spelling the training log and prediction both see.
+     */
+    static String normalize(String message) {
+        if (message == null) {
+            return "";
+        }
+        return Normalizer.normalize(message, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Runs of letters, combining marks (Bengali vowel signs) and digits.
+     */
+    static List<String> tokens(String normalized) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i < normalized.length(); i++) {
+            if (isTokenChar(normalized.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(normalized.substring(start));
+        }
+        return tokens;
+    }
+
+    static int[] message(List<String> tokens, int dimension) {
+        Features features = new Features(dimension);
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            features.add(hash(WORD, token));
+            addGrams(features, token);
+            if (i > 0) {
+                features.add(hash(hash(PAIR, tokens.get(i - 1)), token));
+            }
+        }
+        return features.toArray();
+    }
+
+    static int[] token(List<String> tokens, int position, int dimension) {
+        Features features = new Features(dimension);
+        String token = tokens.get(position);
+        features.add(hash(WORD, token));
+        addGrams(features, token);
+        features.add(hash(PREVIOUS, position > 0 ? tokens.get(position - 1) : "<s>"));
+        features.add(hash(NEXT, position + 1 < tokens.size() ? tokens.get(position + 1) : "</s>"));
+        features.add(hash(SHAPE, shape(token)));
+        return features.toArray();
+    }
+
+    /**
+     * The four-digit year a token spells, in ASCII or Bengali digits, or null.
+     */
+    static Integer year(String token) {
+        if (token.length() != 4) {
+            return null;
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(token.charAt(i), 10);
+            if (digit < 0) {
+                return null;
+            }
+            value = value * 10 + digit;
+        }
+        return value >= 1000 && value <= 2999 ? value : null;
+    }
+
+    private static void addGrams(Features features, String token) {
+        String padded = "<" + token + ">";
+        for (int n = MIN_GRAM; n <= MAX_GRAM; n++) {
+            for (int i = 0; i + n <= padded.length(); i++) {
+                features.add(hash(GRAM, padded, i, i + n));
+            }
+        }
+    }
+
+    private static String shape(String token) {
+        if (year(token) != null) {
+            return "year";
+        }
+        char first = token.charAt(0);
+        if (Character.isDigit(first)) {
+            return "number";
+        }
+        return first >= '\u0980' && first <= '\u09FF' ? "bengali" : "latin";
+    }
+
+    private static boolean isTokenChar(char c) {
+        if (Character.isLetterOrDigit(c)) {
+            return true;
+        }
+        int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    private static int hash(int seed, String text) {
+        return hash(seed, text, 0, text.length());
+    }
+
+    // FNV-1a over the chars, starting from the seed
+    private static int hash(int seed, String text, int from, int to) {
+        int h = 0x811C9DC5 ^ seed;
+        for (int i = from; i < to; i++) {
+            h ^= text.charAt(i);
+            h *= 0x01000193;
+        }
+        return h;
+    }
+
+    private static final class Features {
+        private final int mask;
+        private int[] indexes = new int[64];
+        private int size;
+
+        Features(int dimension) {
+            this.mask = dimension - 1;
+        }
+
+        void add(int hash) {
+            if (size == indexes.length) {
+                indexes = Arrays.copyOf(indexes, size * 2);
+            }
+            indexes[size++] = (hash ^ (hash >>> 16)) & mask;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(indexes, size);
+        }
+    }
+}
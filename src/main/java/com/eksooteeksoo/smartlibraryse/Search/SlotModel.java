@@ -0,0 +1,334 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.GenreNames;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Linear classifier over hashed character n-grams that predicts the search slots Mistral
+ * would extract: user intent, sort field and order, how the message's years bound the
+ * search, each genre, and which words name an author. Each slot is one head; prediction
+ * is a handful of sparse dot products, so a message is classified in microseconds.
+ * Built by {@link SlotModelTrainer} and loaded read-only by {@link SlotClassifier}.
+ */
+public final class SlotModel {
+
+    public static final int DEFAULT_DIMENSION = 1 << 15;
+
+    static final String INTENT = "intent";
+    static final String SORT_BY = "sortBy";
+    static final String SORT_ORDER = "sortOrder";
+    static final String YEAR_RELATION = "yearRelation";
+    static final String AUTHOR_TOKEN = "authorToken";
+    static final String GENRE_PREFIX = "genre:";
+
+    // How the years in a message bound the search
+    static final List<String> YEAR_RELATIONS = List.of("none", "from", "to", "exact", "between");
+    static final List<String> NO_YES = List.of("no", "yes");
+
+    private static final int MAGIC = 0x534C4F54; // "SLOT"
+    private static final int VERSION = 1;
+
+    private final int dimension;
+    private final Map<String, Head> heads;
+
+    /**
+     * What the model predicts for one message. A null slot means the model has no head
+     * for it and the caller should keep its own value. Confidence is the lowest
+     * probability the model gave any of its decisions.
+     */
+    public record Prediction(String userIntent,
+                             String sortBy,
+                             String sortOrder,
+                             List<String> genres,
+                             List<String> authors,
+                             Integer yearFrom,
+                             Integer yearTo,
+                             double confidence) {
+    }
+
+    SlotModel(int dimension, Map<String, Head> heads) {
+        if (Integer.bitCount(dimension) != 1) {
+            throw new IllegalArgumentException("Dimension must be a power of two: " + dimension);
+        }
+        this.dimension = dimension;
+        this.heads = Collections.unmodifiableMap(new LinkedHashMap<>(heads));
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    Map<String, Head> heads() {
+        return heads;
+    }
+
+    /**
+     * Whether the model decides this genre itself; the trainer gives rare genres no head.
+     */
+    public boolean hasGenre(String genre) {
+        return genre != null && heads.containsKey(GENRE_PREFIX + GenreNames.normalize(genre));
+    }
+
+    public Prediction predict(String message) {
+        List<String> tokens = SlotFeatures.tokens(SlotFeatures.normalize(message));
+        int[] features = SlotFeatures.message(tokens, dimension);
+        double confidence = 1.0;
+
+        String[] labels = new String[3];
+        String[] names = {INTENT, SORT_BY, SORT_ORDER};
+        for (int i = 0; i < names.length; i++) {
+            Head head = heads.get(names[i]);
+            if (head != null) {
+                double[] probabilities = head.probabilities(features);
+                int best = argMax(probabilities);
+                labels[i] = head.labels().get(best);
+                confidence = Math.min(confidence, probabilities[best]);
+            }
+        }
+
+        List<String> genres = null;
+        for (Map.Entry<String, Head> entry : heads.entrySet()) {
+            if (!entry.getKey().startsWith(GENRE_PREFIX)) {
+                continue;
+            }
+            if (genres == null) {
+                genres = new ArrayList<>();
+            }
+            double yes = entry.getValue().probabilities(features)[1];
+            if (yes >= 0.5) {
+                genres.add(entry.getKey().substring(GENRE_PREFIX.length()));
+            }
+            confidence = Math.min(confidence, Math.max(yes, 1 - yes));
+        }
+
+        List<String> authors = null;
+        Head authorHead = heads.get(AUTHOR_TOKEN);
+        if (authorHead != null) {
+            authors = new ArrayList<>();
+            StringBuilder span = new StringBuilder();
+            for (int i = 0; i < tokens.size(); i++) {
+                double yes = authorHead.probabilities(SlotFeatures.token(tokens, i, dimension))[1];
+                confidence = Math.min(confidence, Math.max(yes, 1 - yes));
+                if (yes >= 0.5) {
+                    span.append(span.isEmpty() ? "" : " ").append(tokens.get(i));
+                } else if (!span.isEmpty()) {
+                    authors.add(span.toString());
+                    span.setLength(0);
+                }
+            }
+            if (!span.isEmpty()) {
+                authors.add(span.toString());
+            }
+        }
+
+        Integer yearFrom = null;
+        Integer yearTo = null;
+        Head yearHead = heads.get(YEAR_RELATION);
+        List<Integer> years = years(tokens);
+        if (yearHead != null && !years.isEmpty()) {
+            double[] probabilities = yearHead.probabilities(features);
+            int best = argMax(probabilities);
+            confidence = Math.min(confidence, probabilities[best]);
+            int first = years.get(0);
+            switch (yearHead.labels().get(best)) {
+                case "from" -> yearFrom = first;
+                case "to" -> yearTo = first;
+                case "exact" -> {
+                    yearFrom = first;
+                    yearTo = first;
+                }
+                case "between" -> {
+                    yearFrom = Collections.min(years);
+                    yearTo = Collections.max(years);
+                }
+                default -> {
+                }
+            }
+        }
+
+        return new Prediction(labels[0], labels[1], labels[2], genres, authors, yearFrom, yearTo, confidence);
+    }
+
+    static List<Integer> years(List<String> tokens) {
+        List<Integer> years = new ArrayList<>();
+        for (String token : tokens) {
+            Integer year = SlotFeatures.year(token);
+            if (year != null) {
+                years.add(year);
+            }
+        }
+        return years;
+    }
+
+    /**
+     * Writes the model; weights that stayed zero are left out.
+     */
+    public void write(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(dimension);
+            out.writeInt(heads.size());
+            for (Map.Entry<String, Head> entry : heads.entrySet()) {
+                Head head = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeInt(head.labels().size());
+                for (String label : head.labels()) {
+                    out.writeUTF(label);
+                }
+                for (int c = 0; c < head.weights.length; c++) {
+                    float[] weights = head.weights[c];
+                    out.writeFloat(head.bias[c]);
+                    int nonZero = 0;
+                    for (float weight : weights) {
+                        nonZero += weight != 0f ? 1 : 0;
+                    }
+                    out.writeInt(nonZero);
+                    for (int f = 0; f < weights.length; f++) {
+                        if (weights[f] != 0f) {
+                            out.writeInt(f);
+                            out.writeFloat(weights[f]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public static SlotModel read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a slot model file: " + path);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported slot model version " + version + " in " + path);
+            }
+            int dimension = in.readInt();
+            if (dimension <= 0 || Integer.bitCount(dimension) != 1) {
+                throw new IOException("Invalid slot model dimension " + dimension + " in " + path);
+            }
+            int headCount = in.readInt();
+            Map<String, Head> heads = new LinkedHashMap<>();
+            for (int h = 0; h < headCount; h++) {
+                String name = in.readUTF();
+                List<String> labels = new ArrayList<>();
+                int labelCount = in.readInt();
+                for (int l = 0; l < labelCount; l++) {
+                    labels.add(in.readUTF());
+                }
+                Head head = new Head(labels, dimension);
+                for (int c = 0; c < head.weights.length; c++) {
+                    head.bias[c] = in.readFloat();
+                    int nonZero = in.readInt();
+                    for (int n = 0; n < nonZero; n++) {
+                        int index = in.readInt();
+                        if (index < 0 || index >= dimension) {
+                            throw new IOException("Weight index " + index + " outside dimension "
+                                    + dimension + " in " + path);
+                        }
+                        head.weights[c][index] = in.readFloat();
+                    }
+                }
+                heads.put(name, head);
+            }
+            return new SlotModel(dimension, heads);
+        }
+    }
+
+    private static int argMax(double[] values) {
+        int best = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * One slot: multinomial logistic regression over the labels, or a single logistic
+     * unit when there are only two. Feature values are 1/sqrt(n) so long and short
+     * messages score on the same scale.
+     */
+    static final class Head {
+
+        private final List<String> labels;
+        final float[][] weights;
+        final float[] bias;
+
+        Head(List<String> labels, int dimension) {
+            this.labels = List.copyOf(labels);
+            int vectors = labels.size() == 2 ? 1 : labels.size();
+            this.weights = new float[vectors][dimension];
+            this.bias = new float[vectors];
+        }
+
+        List<String> labels() {
+            return labels;
+        }
+
+        double[] probabilities(int[] features) {
+            double scale = features.length == 0 ? 0.0 : 1.0 / Math.sqrt(features.length);
+            if (weights.length == 1) {
+                double yes = 1.0 / (1.0 + Math.exp(-score(0, features, scale)));
+                return new double[]{1.0 - yes, yes};
+            }
+            double[] probabilities = new double[weights.length];
+            double max = Double.NEGATIVE_INFINITY;
+            for (int c = 0; c < weights.length; c++) {
+                probabilities[c] = score(c, features, scale);
+                max = Math.max(max, probabilities[c]);
+            }
+            double sum = 0.0;
+            for (int c = 0; c < probabilities.length; c++) {
+                probabilities[c] = Math.exp(probabilities[c] - max);
+                sum += probabilities[c];
+            }
+            for (int c = 0; c < probabilities.length; c++) {
+                probabilities[c] /= sum;
+            }
+            return probabilities;
+        }
+
+        /**
+         * One stochastic gradient step on the cross-entropy loss for a labelled example.
+         */
+        void update(int[] features, int label, double learningRate) {
+            double[] probabilities = probabilities(features);
+            double scale = features.length == 0 ? 0.0 : 1.0 / Math.sqrt(features.length);
+            for (int c = 0; c < weights.length; c++) {
+                // The single logistic unit scores the second label
+                int target = weights.length == 1 ? 1 : c;
+                double gradient = probabilities[target] - (label == target ? 1.0 : 0.0);
+                float step = (float) (learningRate * gradient);
+                bias[c] -= step;
+                float featureStep = (float) (step * scale);
+                for (int f : features) {
+                    weights[c][f] -= featureStep;
+                }
+            }
+        }
+
+        private double score(int vector, int[] features, double scale) {
+            float[] w = weights[vector];
+            double sum = 0.0;
+            for (int f : features) {
+                sum += w[f];
+            }
+            return bias[vector] + sum * scale;
+        }
+    }
+}
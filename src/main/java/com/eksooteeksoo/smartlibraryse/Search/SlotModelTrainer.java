@@ -0,0 +1,275 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.GenreNames;
+import com.eksooteeksoo.smartlibraryse.Search.SlotModel.Head;
+import com.eksooteeksoo.smartlibraryse.Search.SlotModel.Prediction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Offline trainer for {@link SlotModel}, run against the file {@link ExtractionTrainingLog}
+ * writes:
+ *
+ * <pre>
+ * java -cp app.jar -Dloader.main=com.eksooteeksoo.smartlibraryse.Search.SlotModelTrainer \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher training.jsonl slot-model.bin
+ * </pre>
+ *
+ * Every tenth example is held out first to report how often the model agrees with
+ * Mistral, then the written model is trained on all of them. Training is seeded, so the
+ * same log always gives the same model.
+ */
+public final class SlotModelTrainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotModelTrainer.class);
+
+    private static final int EPOCHS = 10;
+    private static final double LEARNING_RATE = 0.5;
+    private static final long SEED = 42L;
+    // Rarer genres get no head; the classifier cannot learn them from so few examples
+    private static final int MIN_GENRE_EXAMPLES = 3;
+    private static final int MIN_HELD_OUT = 10;
+    // The classifier's default extraction.classifier.min-confidence
+    private static final double REPORT_CONFIDENCE = 0.8;
+
+    private SlotModelTrainer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: SlotModelTrainer <training-log.jsonl> <model-file> [dimension]");
+            System.exit(2);
+        }
+        List<SlotExample> examples = SlotExample.readAll(Path.of(args[0]));
+        int dimension = args.length > 2 ? Integer.parseInt(args[2]) : SlotModel.DEFAULT_DIMENSION;
+        logger.info("Training slot model on {} examples", examples.size());
+
+        List<SlotExample> training = new ArrayList<>();
+        List<SlotExample> heldOut = new ArrayList<>();
+        for (int i = 0; i < examples.size(); i++) {
+            (i % 10 == 9 ? heldOut : training).add(examples.get(i));
+        }
+        if (heldOut.size() >= MIN_HELD_OUT) {
+            report(train(training, dimension), heldOut);
+        }
+
+        SlotModel model = train(examples, dimension);
+        model.write(Path.of(args[1]));
+        logger.info("Wrote slot model with heads {} to {}", model.heads().keySet(), args[1]);
+    }
+
+    public static SlotModel train(List<SlotExample> examples, int dimension) {
+        List<List<String>> tokens = examples.stream()
+                .map(example -> SlotFeatures.tokens(SlotFeatures.normalize(example.message())))
+                .toList();
+        List<int[]> features = tokens.stream().map(t -> SlotFeatures.message(t, dimension)).toList();
+        Map<String, Head> heads = new LinkedHashMap<>();
+
+        addLabelHead(heads, SlotModel.INTENT, examples, features, SlotExample::userIntent, dimension);
+        addLabelHead(heads, SlotModel.SORT_BY, examples, features, SlotExample::sortBy, dimension);
+        addLabelHead(heads, SlotModel.SORT_ORDER, examples, features, SlotExample::sortOrder, dimension);
+
+        // Years: only messages that contain one, labelled with how Mistral used it
+        List<int[]> yearFeatures = new ArrayList<>();
+        List<Integer> yearTargets = new ArrayList<>();
+        for (int i = 0; i < examples.size(); i++) {
+            String relation = yearRelation(SlotModel.years(tokens.get(i)), examples.get(i));
+            if (relation != null) {
+                yearFeatures.add(features.get(i));
+                yearTargets.add(SlotModel.YEAR_RELATIONS.indexOf(relation));
+            }
+        }
+        if (new HashSet<>(yearTargets).size() > 1) {
+            heads.put(SlotModel.YEAR_RELATION, fit(SlotModel.YEAR_RELATIONS, yearFeatures, yearTargets, dimension));
+        }
+
+        // Genres: one yes/no head per genre Mistral named often enough
+        List<Set<String>> genres = examples.stream().map(SlotModelTrainer::genres).toList();
+        Map<String, Integer> genreCounts = new TreeMap<>();
+        genres.forEach(set -> set.forEach(genre -> genreCounts.merge(genre, 1, Integer::sum)));
+        for (Map.Entry<String, Integer> genre : genreCounts.entrySet()) {
+            if (genre.getValue() >= MIN_GENRE_EXAMPLES) {
+                List<Integer> targets = genres.stream().map(set -> set.contains(genre.getKey()) ? 1 : 0).toList();
+                heads.put(SlotModel.GENRE_PREFIX + genre.getKey(), fit(SlotModel.NO_YES, features, targets, dimension));
+            }
+        }
+
+        // Authors: every token, yes when it is a word of an author name Mistral returned
+        List<int[]> tokenFeatures = new ArrayList<>();
+        List<Integer> tokenTargets = new ArrayList<>();
+        for (int i = 0; i < examples.size(); i++) {
+            Set<String> authorWords = authorWords(examples.get(i));
+            List<String> messageTokens = tokens.get(i);
+            for (int p = 0; p < messageTokens.size(); p++) {
+                tokenFeatures.add(SlotFeatures.token(messageTokens, p, dimension));
+                tokenTargets.add(authorWords.contains(messageTokens.get(p)) ? 1 : 0);
+            }
+        }
+        if (tokenTargets.contains(1)) {
+            heads.put(SlotModel.AUTHOR_TOKEN, fit(SlotModel.NO_YES, tokenFeatures, tokenTargets, dimension));
+        }
+
+        return new SlotModel(dimension, heads);
+    }
+
+    /**
+     * How the message's years became Mistral's range, or null when the example says
+     * nothing about years the model could reproduce (no year in the message, or a range
+     * Mistral inferred from words such as "recent").
+     */
+    static String yearRelation(List<Integer> years, SlotExample example) {
+        Integer from = example.yearFrom();
+        Integer to = example.yearTo();
+        if (years.isEmpty()) {
+            return null;
+        }
+        if (from == null && to == null) {
+            return "none";
+        }
+        if (from != null && to != null) {
+            if (from.equals(to)) {
+                return years.contains(from) ? "exact" : null;
+            }
+            return years.contains(from) && years.contains(to) ? "between" : null;
+        }
+        Integer bound = from != null ? from : to;
+        if (!years.get(0).equals(bound)) {
+            return null;
+        }
+        return from != null ? "from" : "to";
+    }
+
+    static Set<String> genres(SlotExample example) {
+        Set<String> genres = new TreeSet<>();
+        if (example.genres() != null) {
+            for (String genre : example.genres()) {
+                if (genre != null && !genre.isBlank()) {
+                    genres.add(GenreNames.normalize(genre));
+                }
+            }
+        }
+        return genres;
+    }
+
+    private static Set<String> authorWords(SlotExample example) {
+        Set<String> words = new HashSet<>();
+        if (example.authors() != null) {
+            for (String author : example.authors()) {
+                for (String word : SlotFeatures.tokens(SlotFeatures.normalize(author))) {
+                    if (word.length() > 1) {
+                        words.add(word);
+                    }
+                }
+            }
+        }
+        return words;
+    }
+
+    private static void addLabelHead(Map<String, Head> heads, String name, List<SlotExample> examples,
+                                     List<int[]> features, Function<SlotExample, String> slot, int dimension) {
+        List<int[]> labelled = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < examples.size(); i++) {
+            String value = label(slot.apply(examples.get(i)));
+            if (value != null) {
+                labelled.add(features.get(i));
+                values.add(value);
+            }
+        }
+        List<String> labels = List.copyOf(new TreeSet<>(values));
+        // A slot Mistral always fills the same way teaches nothing; the caller keeps its own value
+        if (labels.size() < 2) {
+            return;
+        }
+        heads.put(name, fit(labels, labelled, values.stream().map(labels::indexOf).toList(), dimension));
+    }
+
+    private static Head fit(List<String> labels, List<int[]> features, List<Integer> targets, int dimension) {
+        Head head = new Head(labels, dimension);
+        Random random = new Random(SEED);
+        int[] order = new int[features.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int epoch = 0; epoch < EPOCHS; epoch++) {
+            for (int i = order.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            double learningRate = LEARNING_RATE / (1 + epoch);
+            for (int i : order) {
+                head.update(features.get(i), targets.get(i), learningRate);
+            }
+        }
+        return head;
+    }
+
+    private static void report(SlotModel model, List<SlotExample> heldOut) {
+        int answered = 0;
+        int agreedAnswered = 0;
+        int agreed = 0;
+        for (SlotExample example : heldOut) {
+            Prediction prediction = model.predict(example.message());
+            boolean agrees = agrees(prediction, example);
+            agreed += agrees ? 1 : 0;
+            if (prediction.confidence() >= REPORT_CONFIDENCE) {
+                answered++;
+                agreedAnswered += agrees ? 1 : 0;
+            }
+        }
+        logger.info("Held-out: {} examples, all slots agree with Mistral on {}; {} answered at confidence {}, {} of those agree",
+                heldOut.size(), agreed, answered, REPORT_CONFIDENCE, agreedAnswered);
+    }
+
+    private static boolean agrees(Prediction prediction, SlotExample example) {
+        if (prediction.userIntent() != null && !prediction.userIntent().equals(label(example.userIntent()))) {
+            return false;
+        }
+        if (prediction.sortBy() != null && !prediction.sortBy().equals(label(example.sortBy()))) {
+            return false;
+        }
+        if (prediction.sortOrder() != null && !prediction.sortOrder().equals(label(example.sortOrder()))) {
+            return false;
+        }
+        if (prediction.genres() != null && !new TreeSet<>(prediction.genres()).equals(genres(example))) {
+            return false;
+        }
+        if (prediction.authors() != null) {
+            Set<String> expected = new HashSet<>();
+            if (example.authors() != null) {
+                example.authors().forEach(author -> expected.add(String.join(" ",
+                        SlotFeatures.tokens(SlotFeatures.normalize(author)))));
+            }
+            if (!new HashSet<>(prediction.authors()).equals(expected)) {
+                return false;
+            }
+        }
+        // Without predicted years the classifier keeps the rules' years, as it does for any missing slot
+        if (prediction.yearFrom() == null && prediction.yearTo() == null) {
+            return true;
+        }
+        return Objects.equals(prediction.yearFrom(), example.yearFrom())
+                && Objects.equals(prediction.yearTo(), example.yearTo());
+    }
+
+    private static String label(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
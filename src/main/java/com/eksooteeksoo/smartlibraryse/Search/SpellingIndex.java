@@ -0,0 +1,257 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogChangeEvent;
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogListener;
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogTokenizer;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Symmetric-delete (SymSpell) spelling index over the title, author and description
+ * tokens of the catalog, in both scripts. Every dictionary term is stored under the strings obtained by
+ * deleting up to two characters from its prefix, so a misspelled query term is corrected
+ * with a handful of hash lookups plus an edit-distance check on the few candidates,
+ * without touching the database.
+ */
+@Component
+public class SpellingIndex implements CatalogListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpellingIndex.class);
+
+    static final int MAX_EDIT_DISTANCE = 2;
+    // Deletes are generated from this many leading chars only, which bounds index size
+    private static final int PREFIX_LENGTH = 7;
+    // Shorter query terms have too many near neighbours to correct safely
+    private static final int MIN_TERM_LENGTH = 4;
+    private static final int MIN_INDEXED_LENGTH = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Term -> number of books containing it. Delete entries of terms whose count drops to
+    // zero are left behind and filtered out on lookup until the next rebuild.
+    private final Map<String, Integer> termCounts = new HashMap<>();
+    private final Map<String, Set<String>> deletes = new HashMap<>();
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+
+    @Override
+    public void rebuild(List<Book> books) {
+        lock.writeLock().lock();
+        try {
+            termCounts.clear();
+            deletes.clear();
+            documentTerms.clear();
+            for (Book book : books) {
+                addDocument(book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Spelling index built with {} terms and {} delete keys", termCounts.size(), deletes.size());
+    }
+
+    @Override
+    public void onCatalogChange(CatalogChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(event.getBookId());
+            if (event.getType() == CatalogChangeEvent.Type.SAVED) {
+                addDocument(event.getBook());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The closest catalog term to the given lowercase token: the token itself when it is
+     * known or cannot be corrected, otherwise the candidate with the smallest edit
+     * distance, then the most books.
+     */
+    public String correct(String term) {
+        if (term == null || term.length() < MIN_TERM_LENGTH) {
+            return term;
+        }
+        int maxDistance = term.length() <= 5 ? 1 : MAX_EDIT_DISTANCE;
+
+        lock.readLock().lock();
+        try {
+            if (termCounts.containsKey(term)) {
+                return term;
+            }
+
+            String best = null;
+            int bestDistance = maxDistance + 1;
+            int bestCount = 0;
+            Set<String> checked = new HashSet<>();
+            for (String variant : deleteVariants(prefix(term), maxDistance)) {
+                for (String candidate : deletes.getOrDefault(variant, Set.of())) {
+                    Integer count = termCounts.get(candidate);
+                    if (count == null || !checked.add(candidate)
+                            || Math.abs(candidate.length() - term.length()) > maxDistance) {
+                        continue;
+                    }
+                    int distance = editDistance(term, candidate, maxDistance);
+                    if (distance > maxDistance) {
+                        continue;
+                    }
+                    if (distance < bestDistance
+                            || (distance == bestDistance && (count > bestCount
+                                || (count == bestCount && candidate.compareTo(best) < 0)))) {
+                        best = candidate;
+                        bestDistance = distance;
+                        bestCount = count;
+                    }
+                }
+            }
+            return best != null ? best : term;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The text tokenized and every token corrected, joined with single spaces.
+     */
+    public String correctText(String text) {
+        List<String> corrected = new ArrayList<>();
+        for (String token : CatalogTokenizer.tokenize(text)) {
+            corrected.add(correct(token));
+        }
+        return String.join(" ", corrected);
+    }
+
+    /**
+     * A copy of the criteria with titles, authors and keywords spelling-corrected, or
+     * null when no term changed. Description words are in the dictionary too, so a word
+     * some description uses is left alone. Required keywords are hard filters and are
+     * never rewritten.
+     */
+    public BookSearchCriteria correct(BookSearchCriteria criteria) {
+        boolean[] changed = {false};
+        BookSearchCriteria corrected = criteria.toBuilder()
+                .titles(correctAll(criteria.getTitles(), changed))
+                .authors(correctAll(criteria.getAuthors(), changed))
+                .keywords(correctAll(criteria.getKeywords(), changed))
+                .descriptionKeywords(correctAll(criteria.getDescriptionKeywords(), changed))
+                .optionalKeywords(correctAll(criteria.getOptionalKeywords(), changed))
+                .build();
+        return changed[0] ? corrected : null;
+    }
+
+    private List<String> correctAll(List<String> values, boolean[] changed) {
+        if (values == null) {
+            return null;
+        }
+        List<String> corrected = new ArrayList<>(values.size());
+        for (String value : values) {
+            String fixed = correctText(value);
+            if (fixed.isEmpty() || fixed.equals(String.join(" ", CatalogTokenizer.tokenize(value)))) {
+                corrected.add(value);
+            } else {
+                corrected.add(fixed);
+                changed[0] = true;
+            }
+        }
+        return corrected;
+    }
+
+    private void addDocument(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        Set<String> terms = new HashSet<>();
+        for (String text : new String[]{book.getTitle(), book.getAuthor(), book.getAuthorBengali(),
+                book.getDescription()}) {
+            for (String token : CatalogTokenizer.tokenize(text)) {
+                if (token.length() >= MIN_INDEXED_LENGTH) {
+                    terms.add(token);
+                }
+            }
+        }
+        for (String term : terms) {
+            if (termCounts.merge(term, 1, Integer::sum) == 1) {
+                for (String variant : deleteVariants(prefix(term), MAX_EDIT_DISTANCE)) {
+                    deletes.computeIfAbsent(variant, k -> new HashSet<>()).add(term);
+                }
+            }
+        }
+        documentTerms.put(book.getId(), terms);
+    }
+
+    private void removeDocument(Long bookId) {
+        Set<String> terms = documentTerms.remove(bookId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            termCounts.computeIfPresent(term, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private static String prefix(String term) {
+        return term.length() > PREFIX_LENGTH ? term.substring(0, PREFIX_LENGTH) : term;
+    }
+
+    /**
+     * The word itself and every string reachable by deleting up to maxDistance chars.
+     */
+    static Set<String> deleteVariants(String word, int maxDistance) {
+        Set<String> variants = new HashSet<>();
+        variants.add(word);
+        List<String> frontier = List.of(word);
+        for (int distance = 0; distance < maxDistance; distance++) {
+            List<String> next = new ArrayList<>();
+            for (String current : frontier) {
+                for (int i = 0; i < current.length(); i++) {
+                    String deleted = current.substring(0, i) + current.substring(i + 1);
+                    if (variants.add(deleted)) {
+                        next.add(deleted);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return variants;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions). Returns
+     * maxDistance + 1 as soon as the distance is known to exceed maxDistance.
+     */
+    static int editDistance(String a, String b, int maxDistance) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int rowMin = Integer.MAX_VALUE;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, d[i][j]);
+            }
+            if (rowMin > maxDistance) {
+                return maxDistance + 1;
+            }
+        }
+        return Math.min(d[a.length()][b.length()], maxDistance + 1);
+    }
+}
@@ -0,0 +1,340 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogChangeEvent;
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogListener;
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogTokenizer;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSuggestion;
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import com.eksooteeksoo.smartlibraryse.Repository.BookBookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over book titles and author names in both scripts. Every suggestion is
+ * stored in a character trie under its normalized text and under the suffixes that start
+ * at each later word, so "pott" finds "Harry Potter". Each node caches its best
+ * {@link #TOP_K} suggestions, ranked by availability and then booking count, so a lookup
+ * is one walk down the prefix. Updates recompute the cached lists along the changed paths
+ * only.
+ */
+@Component
+public class SuggestionIndex implements CatalogListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionIndex.class);
+
+    public static final int TOP_K = 10;
+    // Word-start suffixes indexed per suggestion; bounds the cost of very long titles
+    private static final int MAX_WORD_STARTS = 8;
+
+    private static final Comparator<Suggestion> RANKING = Comparator
+            .comparing((Suggestion s) -> s.availableBooks > 0).reversed()
+            .thenComparing(Comparator.comparingLong((Suggestion s) -> s.bookings).reversed())
+            .thenComparing(s -> s.key)
+            .thenComparing(s -> s.kind);
+
+    private enum Kind {
+        TITLE,
+        AUTHOR
+    }
+
+    private static final class Suggestion {
+        private final Kind kind;
+        private final String text;
+        private final String key;
+        private final Set<Long> bookIds = new LinkedHashSet<>();
+        private int availableBooks;
+        private long bookings;
+
+        private Suggestion(Kind kind, String text, String key) {
+            this.kind = kind;
+            this.text = text;
+            this.key = key;
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final List<Suggestion> terminals = new ArrayList<>(1);
+        private List<Suggestion> top = List.of();
+    }
+
+    private record Document(List<Suggestion> suggestions, boolean available, long bookings) {
+    }
+
+    private final BookBookingRepository bookBookingRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root = new Node();
+    private final Map<String, Suggestion> suggestions = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    public SuggestionIndex(BookBookingRepository bookBookingRepository) {
+        this.bookBookingRepository = bookBookingRepository;
+    }
+
+    @Override
+    public void rebuild(List<Book> books) {
+        Map<Long, Long> bookings = new HashMap<>();
+        for (Object[] row : bookBookingRepository.countGroupedByBook()) {
+            bookings.put((Long) row[0], (Long) row[1]);
+        }
+
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            suggestions.clear();
+            documents.clear();
+            Set<Suggestion> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Book book : books) {
+                addDocument(book, bookings.getOrDefault(book.getId(), 0L), changed);
+            }
+            for (Suggestion suggestion : changed) {
+                for (String key : keys(suggestion.key)) {
+                    walk(key, true).terminals.add(suggestion);
+                }
+            }
+            refreshAll(root);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Suggestion index built with {} suggestions", suggestions.size());
+    }
+
+    /**
+     * Booking counts follow the events rather than the database, so a change costs no
+     * query. A booking made while the catalog loads may be counted twice, once by the
+     * snapshot and once by its replay; the count only orders suggestions.
+     */
+    @Override
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.getType() != CatalogChangeEvent.Type.SAVED) {
+            update(event.getBookId(), null, 0L);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Document indexed = documents.get(event.getBookId());
+            long bookings = (indexed == null ? 0L : indexed.bookings()) + event.getNewBookings();
+            update(event.getBookId(), event.getBook(), bookings);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the book with the given booking count, replacing what was indexed for it.
+     */
+    void update(Book book, long bookings) {
+        update(book.getId(), book, bookings);
+    }
+
+    private void update(Long bookId, Book book, long bookings) {
+        lock.writeLock().lock();
+        try {
+            Set<Suggestion> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+            Set<Suggestion> before = Collections.newSetFromMap(new IdentityHashMap<>());
+            removeDocument(bookId, changed);
+            before.addAll(changed);
+            if (book != null) {
+                addDocument(book, bookings, changed);
+            }
+
+            for (Suggestion suggestion : changed) {
+                boolean indexed = before.contains(suggestion) || suggestion.bookIds.size() > 1;
+                if (suggestion.bookIds.isEmpty()) {
+                    suggestions.remove(mapKey(suggestion.kind, suggestion.key));
+                }
+                for (String key : keys(suggestion.key)) {
+                    List<Node> path = path(key);
+                    Node terminal = path.get(path.size() - 1);
+                    if (suggestion.bookIds.isEmpty()) {
+                        terminal.terminals.remove(suggestion);
+                    } else if (!indexed) {
+                        terminal.terminals.add(suggestion);
+                    }
+                    refresh(key, path);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The best suggestions whose title or author starts with the prefix, or has a later
+     * word that does. At most {@link #TOP_K} are returned.
+     */
+    public List<BookSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isBlank() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = walk(key, false);
+            if (node == null) {
+                return List.of();
+            }
+            List<BookSuggestion> result = new ArrayList<>(Math.min(limit, node.top.size()));
+            for (Suggestion suggestion : node.top) {
+                if (result.size() == limit) {
+                    break;
+                }
+                Long bookId = suggestion.kind == Kind.TITLE && suggestion.bookIds.size() == 1
+                        ? suggestion.bookIds.iterator().next()
+                        : null;
+                result.add(new BookSuggestion(suggestion.text, suggestion.kind.name().toLowerCase(Locale.ROOT),
+                        bookId, suggestion.availableBooks > 0));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tokens joined with single spaces. A trailing separator is kept so "harry " only
+     * completes the word after it.
+     */
+    static String normalize(String text) {
+        String key = String.join(" ", CatalogTokenizer.tokenize(text));
+        if (!key.isEmpty() && Character.isWhitespace(text.charAt(text.length() - 1))) {
+            key += " ";
+        }
+        return key;
+    }
+
+    private void addDocument(Book book, long bookings, Set<Suggestion> changed) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        boolean available = book.getQuantity() > 0;
+        List<Suggestion> attached = new ArrayList<>(3);
+        attach(Kind.TITLE, book.getTitle(), book.getId(), available, bookings, attached, changed);
+        attach(Kind.AUTHOR, book.getAuthor(), book.getId(), available, bookings, attached, changed);
+        attach(Kind.AUTHOR, book.getAuthorBengali(), book.getId(), available, bookings, attached, changed);
+        documents.put(book.getId(), new Document(attached, available, bookings));
+    }
+
+    private void attach(Kind kind, String text, Long bookId, boolean available, long bookings,
+                        List<Suggestion> attached, Set<Suggestion> changed) {
+        String key = normalize(text == null ? null : text.trim());
+        if (key.isEmpty()) {
+            return;
+        }
+        Suggestion suggestion = suggestions.computeIfAbsent(mapKey(kind, key), k -> new Suggestion(kind, text.trim(), key));
+        if (!suggestion.bookIds.add(bookId)) {
+            return;
+        }
+        if (available) {
+            suggestion.availableBooks++;
+        }
+        suggestion.bookings += bookings;
+        attached.add(suggestion);
+        changed.add(suggestion);
+    }
+
+    private void removeDocument(Long bookId, Set<Suggestion> changed) {
+        Document document = documents.remove(bookId);
+        if (document == null) {
+            return;
+        }
+        for (Suggestion suggestion : document.suggestions()) {
+            suggestion.bookIds.remove(bookId);
+            if (document.available()) {
+                suggestion.availableBooks--;
+            }
+            suggestion.bookings -= document.bookings();
+            changed.add(suggestion);
+        }
+    }
+
+    private Node walk(String key, boolean create) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = create
+                    ? node.children.computeIfAbsent(key.charAt(i), c -> new Node())
+                    : node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            path.add(node);
+        }
+        return path;
+    }
+
+    // Recomputes the cached lists from the end of the path up, dropping emptied nodes
+    private static void refresh(String key, List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            if (i > 0 && node.children.isEmpty() && node.terminals.isEmpty()) {
+                path.get(i - 1).children.remove(key.charAt(i - 1));
+                continue;
+            }
+            computeTop(node);
+        }
+    }
+
+    private static void refreshAll(Node node) {
+        for (Node child : node.children.values()) {
+            refreshAll(child);
+        }
+        computeTop(node);
+    }
+
+    private static void computeTop(Node node) {
+        List<Suggestion> candidates = new ArrayList<>(node.terminals);
+        for (Node child : node.children.values()) {
+            candidates.addAll(child.top);
+        }
+        candidates.sort(RANKING);
+
+        List<Suggestion> top = new ArrayList<>(Math.min(TOP_K, candidates.size()));
+        Set<Suggestion> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Suggestion candidate : candidates) {
+            if (top.size() == TOP_K) {
+                break;
+            }
+            // A suggestion reached through two of its word suffixes appears twice
+            if (seen.add(candidate)) {
+                top.add(candidate);
+            }
+        }
+        node.top = top;
+    }
+
+    private static List<String> keys(String key) {
+        List<String> keys = new ArrayList<>();
+        keys.add(key);
+        for (int i = key.indexOf(' '); i >= 0 && keys.size() < MAX_WORD_STARTS; i = key.indexOf(' ', i + 1)) {
+            keys.add(key.substring(i + 1));
+        }
+        return keys;
+    }
+
+    private static String mapKey(Kind kind, String key) {
+        return kind + ":" + key;
+    }
+}
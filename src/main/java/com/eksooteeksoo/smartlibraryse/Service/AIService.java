@@ -1,7 +1,10 @@
 package com.eksooteeksoo.smartlibraryse.Service;
 import com.eksooteeksoo.smartlibraryse.DTO.ChatRequest;
 import com.eksooteeksoo.smartlibraryse.DTO.ChatResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 public interface AIService {
     ChatResponse processChat(ChatRequest chatRequest);
+    SseEmitter streamChat(ChatRequest chatRequest);
 }
 
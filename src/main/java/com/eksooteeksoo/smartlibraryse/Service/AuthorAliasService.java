@@ -0,0 +1,14 @@
+package com.eksooteeksoo.smartlibraryse.Service;
+
+import com.eksooteeksoo.smartlibraryse.DTO.AuthorDTO;
+import com.eksooteeksoo.smartlibraryse.Model.Author;
+
+import java.util.List;
+
+public interface AuthorAliasService {
+    List<Author> getAllAuthors();
+    Author getAuthorById(Long id);
+    Author createAuthor(AuthorDTO authorDTO);
+    Author updateAuthor(Long id, AuthorDTO authorDTO);
+    void deleteAuthor(Long id);
+}
@@ -1,6 +1,10 @@
 package com.eksooteeksoo.smartlibraryse.Service;
 
 import com.eksooteeksoo.smartlibraryse.DTO.BookDTO;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSuggestion;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSummary;
+import com.eksooteeksoo.smartlibraryse.DTO.CursorPage;
+import com.eksooteeksoo.smartlibraryse.DTO.SearchFacets;
 import com.eksooteeksoo.smartlibraryse.Model.Book;
 
 import java.util.List;
@@ -8,10 +12,14 @@ import java.util.List;
 public interface BookService {
     List<Book> getAllBooks();
     List<Book> getAvailableBooks();
+    CursorPage<BookSummary> getBooksPage(String cursor, Integer size);
+    CursorPage<BookSummary> getAvailableBooksPage(String cursor, Integer size);
     Book getBookById(Long id);
     Book createBook(BookDTO bookDTO);
     Book updateBook(Long id, BookDTO bookDTO);
     void deleteBook(Long id);
     List<Book> searchBooks(String searchTerm);
-    List<Book> searchAvailableBooks(String searchTerm);
+    List<BookSummary> searchAvailableBooks(String searchTerm);
+    SearchFacets searchAvailableBookFacets(String searchTerm);
+    List<BookSuggestion> suggestBooks(String prefix, Integer limit);
 }
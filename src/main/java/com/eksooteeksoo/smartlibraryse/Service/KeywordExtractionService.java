@@ -2,6 +2,13 @@ package com.eksooteeksoo.smartlibraryse.Service;
 
 import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
 
+import java.util.Map;
+
 public interface KeywordExtractionService {
     BookSearchCriteria extractBookSearchCriteria(String userMessage);
+    BookSearchCriteria extractWithRules(String userMessage);
+    BookSearchCriteria extractWithLanguageModel(String userMessage);
+    boolean needsLanguageModel(BookSearchCriteria ruleCriteria);
+    BookSearchCriteria extractWithClassifier(String userMessage, BookSearchCriteria ruleCriteria);
+    Map<String, Object> getDiagnostics();
 }
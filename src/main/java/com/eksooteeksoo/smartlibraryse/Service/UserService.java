@@ -1,6 +1,7 @@
 package com.eksooteeksoo.smartlibraryse.Service;
 
 import com.eksooteeksoo.smartlibraryse.DTO.BookBookingDTO;
+import com.eksooteeksoo.smartlibraryse.DTO.CursorPage;
 import com.eksooteeksoo.smartlibraryse.DTO.UserRegistrationDTO;
 import com.eksooteeksoo.smartlibraryse.Model.BookBooking;
 import com.eksooteeksoo.smartlibraryse.Model.Usr;
@@ -9,6 +10,7 @@ import java.util.List;
 
 public interface UserService {
     List<Usr> getAllUsers();
+    CursorPage<Usr> getUsersPage(String cursor, Integer size);
     Usr getUserById(Long id);
     Usr createUser(UserRegistrationDTO userDTO);
     Usr updateUser(Long id, UserRegistrationDTO userDTO);
@@ -1,23 +1,43 @@
 package com.eksooteeksoo.smartlibraryse.ServiceImpl;
 
 import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSummary;
 import com.eksooteeksoo.smartlibraryse.DTO.ChatRequest;
 import com.eksooteeksoo.smartlibraryse.DTO.ChatResponse;
 import com.eksooteeksoo.smartlibraryse.Model.Book;
 import com.eksooteeksoo.smartlibraryse.Repository.BookRepository;
+import com.eksooteeksoo.smartlibraryse.Search.AuthorAliasRegistry;
+import com.eksooteeksoo.smartlibraryse.Search.FacetIndex;
+import com.eksooteeksoo.smartlibraryse.Search.PhoneticIndex;
+import com.eksooteeksoo.smartlibraryse.Search.RelevanceScorer;
+import com.eksooteeksoo.smartlibraryse.Search.SpellingIndex;
 import com.eksooteeksoo.smartlibraryse.Service.AIService;
 import com.eksooteeksoo.smartlibraryse.Service.KeywordExtractionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Service
 public class AIServiceImpl implements AIService {
@@ -26,296 +46,385 @@ public class AIServiceImpl implements AIService {
 
     private final BookRepository bookRepository;
     private final KeywordExtractionService keywordExtractionService;
-
-    public AIServiceImpl(BookRepository bookRepository, KeywordExtractionService keywordExtractionService) {
+    private final AuthorAliasRegistry authorAliasRegistry;
+    private final RelevanceScorer relevanceScorer;
+    private final SpellingIndex spellingIndex;
+    private final PhoneticIndex phoneticIndex;
+    private final FacetIndex facetIndex;
+    private final Executor chatExecutor;
+    private final MeterRegistry meterRegistry;
+    private final SingleFlight<ChatKey, ChatResponse> chatFlights = new SingleFlight<>();
+    private final Counter coalescedChats;
+
+    @Value("${chat.coalesce.enabled:true}")
+    private boolean coalescingEnabled;
+
+    @Value("${chat.hedge.enabled:true}")
+    private boolean hedgingEnabled;
+
+    @Value("${chat.hedge.budget-ms:1500}")
+    private long hedgeBudgetMs;
+
+    @Value("${chat.stream.timeout-ms:30000}")
+    private long streamTimeoutMs;
+
+    public AIServiceImpl(BookRepository bookRepository,
+                         KeywordExtractionService keywordExtractionService,
+                         AuthorAliasRegistry authorAliasRegistry,
+                         RelevanceScorer relevanceScorer,
+                         SpellingIndex spellingIndex,
+                         PhoneticIndex phoneticIndex,
+                         FacetIndex facetIndex,
+                         @Qualifier("chatExecutor") Executor chatExecutor,
+                         MeterRegistry meterRegistry) {
         this.bookRepository = bookRepository;
         this.keywordExtractionService = keywordExtractionService;
+        this.authorAliasRegistry = authorAliasRegistry;
+        this.relevanceScorer = relevanceScorer;
+        this.spellingIndex = spellingIndex;
+        this.phoneticIndex = phoneticIndex;
+        this.facetIndex = facetIndex;
+        this.chatExecutor = chatExecutor;
+        this.meterRegistry = meterRegistry;
+        this.coalescedChats = Counter.builder("chat.coalesced")
+            .description("Chat requests answered by an identical request already in flight")
+            .register(meterRegistry);
+        Gauge.builder("chat.inflight", chatFlights, SingleFlight::inFlight)
+            .description("Distinct chat questions currently being answered")
+            .register(meterRegistry);
+    }
+
+    private record ChatKey(String message, String language) {
     }
 
+    /**
+     * Identical questions (same normalized message and language) that arrive while one is
+     * being answered wait for that answer instead of calling Mistral and searching again,
+     * so a burst of the same popular query costs one pipeline run. Waiting callers share
+     * the same ChatResponse instance, which is only ever serialized.
+     */
     @Override
     public ChatResponse processChat(ChatRequest chatRequest) {
+        if (!coalescingEnabled) {
+            return answerChat(chatRequest);
+        }
+        String language = chatRequest.getLanguage() != null ? chatRequest.getLanguage() : "bn+en";
+        ChatKey key = new ChatKey(KeywordExtractionServiceImpl.normalizeMessage(chatRequest.getMessage()), language);
+        SingleFlight.Result<ChatResponse> result = chatFlights.execute(key, () -> answerChat(chatRequest));
+        if (result.shared()) {
+            coalescedChats.increment();
+        }
+        return result.value();
+    }
+
+    private ChatResponse answerChat(ChatRequest chatRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             String message = chatRequest.getMessage();
             String language = chatRequest.getLanguage() != null ? chatRequest.getLanguage() : "bn+en";
             
             logger.info("Processing chat message: '{}' in language: {}", message, language);
 
-            // Extract search criteria using Mistral AI or rule-based fallback
-            BookSearchCriteria searchCriteria = keywordExtractionService.extractBookSearchCriteria(message);
-            logger.info("Extracted search criteria: {}", searchCriteria);
-
-            // Search for books using the extracted criteria
-            List<Book> foundBooks = searchBooksWithCriteria(searchCriteria);
+            // Extract search criteria (Mistral AI or rule-based fallback) and search with them
+            SearchOutcome outcome = hedgingEnabled ? extractAndSearchHedged(message) : extractAndSearch(message);
 
-            // Generate response message
-            String responseMessage = generateResponseMessage(foundBooks, searchCriteria, language);
-
-            // Return response with books
-            if (!foundBooks.isEmpty()) {
-                return new ChatResponse(foundBooks, responseMessage);
-            } else {
-                return new ChatResponse(responseMessage);
-            }
+            // Generate response message and return it with the books found
+            ChatResponse response = timeStage("respond", () -> toChatResponse(outcome, language));
+            recordChat(sample, outcome);
+            return response;
             
         } catch (Exception e) {
             logger.error("Error processing chat request", e);
+            sample.stop(chatTimer("unknown", "error"));
             return ChatResponse.error(getErrorMessage(chatRequest.getLanguage()));
         }
     }
 
-    private List<Book> searchBooksWithCriteria(BookSearchCriteria criteria) {
-        Set<Book> resultBooks = new HashSet<>();
-        boolean foundExactMatches = false;
-
-        if (criteria.isEmpty()) {
-            // If no specific criteria, return some available books
-            return bookRepository.findByQuantityGreaterThan(0).stream().limit(10).toList();
+    /**
+     * chat.process latency plus result counts, tagged with where the winning criteria came
+     * from. The zero-result rate is chat.results.zero over the chat.process count. Requests
+     * coalesced onto another one are counted in chat.coalesced, not here.
+     */
+    private void recordChat(Timer.Sample sample, SearchOutcome outcome) {
+        String source = outcome.criteria().getExtractionSource() != null
+            ? outcome.criteria().getExtractionSource() : "unknown";
+        sample.stop(chatTimer(source, "success"));
+
+        DistributionSummary.builder("chat.results")
+            .description("Books returned per chat answer")
+            .tag("source", source)
+            .register(meterRegistry)
+            .record(outcome.books().size());
+        if (outcome.books().isEmpty()) {
+            Counter.builder("chat.results.zero")
+                .description("Chat answers that found no books")
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment();
         }
+    }
 
-        // Priority 1: Combined title + description search for specific queries like "third book in harry potter series"
-        if (criteria.getTitles() != null && !criteria.getTitles().isEmpty() &&
-            criteria.getDescriptionKeywords() != null && !criteria.getDescriptionKeywords().isEmpty()) {
+    private Timer chatTimer(String source, String outcome) {
+        return Timer.builder("chat.process")
+            .description("End-to-end latency of non-streaming chat requests")
+            .tag("source", source)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
 
-            for (String title : criteria.getTitles()) {
-                for (String descKeyword : criteria.getDescriptionKeywords()) {
-                    // Search for books that match both title and description criteria
-                    List<Book> combinedBooks = bookRepository.findByTitleContainingIgnoreCaseAndDescriptionContainingIgnoreCaseAndQuantityGreaterThan(title, descKeyword, 0);
-                    if (!combinedBooks.isEmpty()) {
-                        resultBooks.addAll(combinedBooks);
-                        foundExactMatches = true;
-                    }
-                }
-            }
-        }
+    private <T> T timeStage(String stage, Supplier<T> work) {
+        return Timer.builder("chat.stage")
+            .description("Latency of each chat pipeline stage")
+            .tag("stage", stage)
+            .register(meterRegistry)
+            .record(work);
+    }
 
-        // Priority 2: Exact title matches (if no combined matches found)
-        if (!foundExactMatches && criteria.getTitles() != null && !criteria.getTitles().isEmpty()) {
-            for (String title : criteria.getTitles()) {
-                List<Book> exactTitleBooks = bookRepository.findByTitleContainingIgnoreCaseAndQuantityGreaterThan(title, 0);
-                if (!exactTitleBooks.isEmpty()) {
-                    resultBooks.addAll(exactTitleBooks);
-                    foundExactMatches = true;
-                }
-            }
-        }
+    /**
+     * Streams the chat answer as server-sent events: "books" with the rule-based results as
+     * soon as they are ready, "refined" once the classifier or Mistral criteria have been
+     * searched (only when the rules routed the message onwards and one of them answered),
+     * then "summary" with the final message. All work runs on the chat executor, so no
+     * request thread waits on Mistral. A saturated executor gets the "error" event
+     * straight away; if only the Mistral leg is turned away the rules' answer stands.
+     */
+    @Override
+    public SseEmitter streamChat(ChatRequest chatRequest) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        String message = chatRequest.getMessage();
+        String language = chatRequest.getLanguage() != null ? chatRequest.getLanguage() : "bn+en";
 
-        // Priority 3: Description keyword search (only if no title matches and description keywords exist)
-        if (!foundExactMatches && criteria.getDescriptionKeywords() != null && !criteria.getDescriptionKeywords().isEmpty()) {
-            for (String descKeyword : criteria.getDescriptionKeywords()) {
-                List<Book> descBooks = bookRepository.findByDescriptionContainingIgnoreCaseAndQuantityGreaterThan(descKeyword, 0);
-                if (!descBooks.isEmpty()) {
-                    resultBooks.addAll(descBooks);
-                    foundExactMatches = true;
-                }
-            }
-        }
+        logger.info("Streaming chat message: '{}' in language: {}", message, language);
 
-        // If we found exact matches, apply additional filters to existing results
-        if (foundExactMatches && !resultBooks.isEmpty()) {
-            List<Book> filteredResults = new ArrayList<>(resultBooks);
-
-            // Apply year filter if specified
-            if (criteria.getYearFrom() != null || criteria.getYearTo() != null) {
-                filteredResults = filteredResults.stream()
-                        .filter(book -> {
-                            if (criteria.getYearFrom() != null && book.getPublishedYear() < criteria.getYearFrom()) {
-                                return false;
-                            }
-                            return criteria.getYearTo() == null || book.getPublishedYear() <= criteria.getYearTo();
-                        })
-                        .toList();
-            }
+        CompletableFuture<BookSearchCriteria> ruleCriteriaFuture;
+        try {
+            ruleCriteriaFuture = CompletableFuture.supplyAsync(
+                () -> timeStage("extract.rules", () -> keywordExtractionService.extractWithRules(message)),
+                chatExecutor);
+        } catch (RejectedExecutionException e) {
+            countRejected("stream");
+            logger.warn("Chat executor is saturated, rejecting streamed chat");
+            sendEvent(emitter, "error", ChatResponse.error(getErrorMessage(language)));
+            emitter.complete();
+            return emitter;
+        }
 
-            // Apply multilingual author filter if specified
-            if (criteria.getAuthors() != null && !criteria.getAuthors().isEmpty()) {
-                filteredResults = filteredResults.stream()
-                        .filter(book -> matchesMultilingualAuthor(book.getAuthor(), criteria.getAuthors()))
-                        .toList();
-            }
+        // Later stages run on the chat thread that finished the one before; only Mistral gets its own task
+        ruleCriteriaFuture.thenCompose(ruleCriteria -> {
+            CompletableFuture<BookSearchCriteria> aiFuture = refineCriteria(message, ruleCriteria);
+            SearchOutcome ruleOutcome = new SearchOutcome(ruleCriteria, searchBooksWithCriteria(ruleCriteria));
+            sendEvent(emitter, "books", toChatResponse(ruleOutcome, language));
+            return aiFuture.thenApply(aiCriteria -> {
+                SearchOutcome finalOutcome = ruleOutcome;
+                if (aiCriteria != null) {
+                    logger.info("Extracted search criteria: {}", aiCriteria);
+                    finalOutcome = new SearchOutcome(aiCriteria, searchBooksWithCriteria(aiCriteria));
+                    sendEvent(emitter, "refined", toChatResponse(finalOutcome, language));
+                }
+                sendEvent(emitter, "summary",
+                    new ChatResponse(generateResponseMessage(finalOutcome.books(), finalOutcome.criteria(), language)));
+                emitter.complete();
+                return finalOutcome;
+            });
+        }).exceptionally(e -> {
+            logger.error("Error streaming chat request", e);
+            sendEvent(emitter, "error", ChatResponse.error(getErrorMessage(language)));
+            emitter.complete();
+            return null;
+        });
+
+        return emitter;
+    }
 
-            return filteredResults;
+    /**
+     * Criteria to refine the streamed rule answer with, or null when the rules settled the
+     * message. Mistral is only asked when neither the rules nor the slot classifier did.
+     */
+    private CompletableFuture<BookSearchCriteria> refineCriteria(String message, BookSearchCriteria ruleCriteria) {
+        if (!keywordExtractionService.needsLanguageModel(ruleCriteria)) {
+            return CompletableFuture.completedFuture(null);
         }
-
-        // Priority 4: Multilingual author search (if no exact title/description matches)
-        if (criteria.getAuthors() != null && !criteria.getAuthors().isEmpty()) {
-            for (String author : criteria.getAuthors()) {
-                List<Book> authorBooks = searchBooksByAuthorMultilingual(author);
-                resultBooks.addAll(authorBooks);
-                foundExactMatches = true;
-            }
+        BookSearchCriteria classified = timeStage("extract.classifier",
+            () -> keywordExtractionService.extractWithClassifier(message, ruleCriteria));
+        if (classified != null) {
+            return CompletableFuture.completedFuture(classified);
         }
-
-        // Priority 5: Combined Genre + Year search (most common use case)
-        if (!foundExactMatches && criteria.getGenres() != null && !criteria.getGenres().isEmpty()) {
-            String operation = criteria.getGenreSearchOperation();
-            List<Book> genreBooks;
-
-            if ("AND".equalsIgnoreCase(operation)) {
-                // User wants books that contain ALL specified genres
-                genreBooks = searchBooksWithAllGenres(criteria.getGenres());
-                logger.info("Using AND logic for genres: {}", criteria.getGenres());
-            } else {
-                // User wants books that contain ANY of the specified genres (OR logic)
-                genreBooks = searchBooksWithAnyGenre(criteria.getGenres());
-                logger.info("Using OR logic for genres: {}", criteria.getGenres());
-            }
-
-            // Apply year filter to genre results if specified
-            if (criteria.getYearFrom() != null || criteria.getYearTo() != null) {
-                genreBooks = genreBooks.stream()
-                        .filter(book -> {
-                            if (criteria.getYearFrom() != null && book.getPublishedYear() < criteria.getYearFrom()) {
-                                return false;
-                            }
-                            return criteria.getYearTo() == null || book.getPublishedYear() <= criteria.getYearTo();
-                        })
-                        .toList();
-            }
-
-            resultBooks.addAll(genreBooks);
-            foundExactMatches = true;
+        try {
+            return CompletableFuture.supplyAsync(
+                () -> timeStage("extract.language_model", () -> keywordExtractionService.extractWithLanguageModel(message)),
+                chatExecutor);
+        } catch (RejectedExecutionException e) {
+            countRejected("stream");
+            logger.warn("Chat executor is saturated, streaming rule-based results only");
+            return CompletableFuture.completedFuture(null);
         }
+    }
 
-        // Priority 6: Year-only search (only if no genres specified)
-        if (!foundExactMatches && (criteria.getYearFrom() != null || criteria.getYearTo() != null)) {
-            List<Book> yearBooks = searchByYear(criteria.getYearFrom(), criteria.getYearTo());
-            resultBooks.addAll(yearBooks);
+    private void sendEvent(SseEmitter emitter, String name, ChatResponse data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter timed out; the remaining events are dropped
+            logger.debug("Could not send '{}' chat event: {}", name, e.getMessage());
         }
-
-        return new ArrayList<>(resultBooks);
     }
 
-    // Multilingual author name mappings - Enhanced with both directions
-    private final Map<String, List<String>> authorNameMappings = createAuthorNameMappings();
-
-    private Map<String, List<String>> createAuthorNameMappings() {
-        Map<String, List<String>> mappings = new HashMap<>();
-
-        // Common Bangla authors and their English transliterations
-        mappings.put("জে.কে. রোলিং", List.of("j.k. rowling", "jk rowling", "joanne rowling", "rowling"));
-        mappings.put("j.k. rowling", List.of("জে.কে. রোলিং", "জোয়ান রোলিং"));
-
-        mappings.put("রবীন্দ্রনাথ ঠাকুর", List.of("rabindranath tagore", "tagore", "rabindranath thakur", "রবি ঠাকুর", "রবীন্দ্রনাথ"));
-        mappings.put("rabindranath tagore", List.of("রবীন্দ্রনাথ ঠাকুর", "রবি ঠাকুর"));
-        mappings.put("রবি", List.of("rabindranath tagore", "রবীন্দ্রনাথ ঠাকুর", "রবি ঠাকুর"));
-
-        mappings.put("কাজী নজরুল ইসলাম", List.of("kazi nazrul islam", "nazrul islam", "nazrul", "নজরুল"));
-        mappings.put("nazrul", List.of("কাজী নজরুল ইসলাম", "নজরুল"));
-        mappings.put("নজরুল", List.of("kazi nazrul islam", "nazrul"));
+    private ChatResponse toChatResponse(SearchOutcome outcome, String language) {
+        String responseMessage = generateResponseMessage(outcome.books(), outcome.criteria(), language);
+        if (outcome.books().isEmpty()) {
+            return new ChatResponse(responseMessage);
+        }
+        // Chat only needs the summary fields; descriptions stay server-side
+        List<BookSummary> summaries = outcome.books().stream().map(BookSummary::new).toList();
+        ChatResponse response = new ChatResponse(summaries, responseMessage);
+        response.setFacets(facetIndex.facets(summaries.stream().map(BookSummary::getId).toList()));
+        return response;
+    }
 
-        mappings.put("শরৎচন্দ্র চট্টোপাধ্যায়", List.of("sarat chandra chattopadhyay", "sharatchandra", "sarat chandra", "শরৎচন্দ্র"));
-        mappings.put("sarat chandra", List.of("শরৎচন্দ্র চট্টোপাধ্যায়", "শরৎচন্দ্র"));
-        mappings.put("শরৎ", List.of("sarat chandra chattopadhyay", "শরৎচন্দ্র চট্টোপাধ্যায়"));
+    private record SearchOutcome(BookSearchCriteria criteria, List<Book> books) {
+    }
 
-        mappings.put("বঙ্কিমচন্দ্র চট্টোপাধ্যায়", List.of("bankim chandra chattopadhyay", "bankim chandra", "bankimchandra", "বঙ্কিম"));
-        mappings.put("bankim chandra", List.of("বঙ্কিমচন্দ্র চট্টোপাধ্যায়", "বঙ্কিম"));
-        mappings.put("বঙ্কিম", List.of("bankim chandra chattopadhyay", "বঙ্কিমচন্দ্র চট্টোপাধ্যায়"));
+    private SearchOutcome extractAndSearch(String message) {
+        BookSearchCriteria searchCriteria = timeStage("extract", () -> keywordExtractionService.extractBookSearchCriteria(message));
+        logger.info("Extracted search criteria: {}", searchCriteria);
+        return new SearchOutcome(searchCriteria, searchBooksWithCriteria(searchCriteria));
+    }
 
-        mappings.put("হুমায়ূন আহমেদ", List.of("humayun ahmed", "humayun ahmad", "হুমায়ূন"));
-        mappings.put("humayun ahmed", List.of("হুমায়ূন আহমেদ", "হুমায়ূন"));
-        mappings.put("হুমায়ূন", List.of("humayun ahmed", "হুমায়ূন আহমেদ"));
+    /**
+     * Races the rule-based path (extraction plus DB search on this thread) against the
+     * Mistral extraction on the chat executor. If Mistral has not answered when the
+     * latency budget runs out the rule-based results are returned. The Mistral call is
+     * left running so its answer still lands in the extraction cache for the next asker.
+     * Messages the rules fully recognized, or the slot classifier is sure about, skip
+     * Mistral and the race altogether, and so does every message while the chat
+     * executor is saturated.
+     */
+    private SearchOutcome extractAndSearchHedged(String message) {
+        BookSearchCriteria ruleCriteria = timeStage("extract.rules", () -> keywordExtractionService.extractWithRules(message));
+        if (!keywordExtractionService.needsLanguageModel(ruleCriteria)) {
+            logger.info("Extracted search criteria (rules only): {}", ruleCriteria);
+            return new SearchOutcome(ruleCriteria, searchBooksWithCriteria(ruleCriteria));
+        }
+        BookSearchCriteria classified = timeStage("extract.classifier",
+            () -> keywordExtractionService.extractWithClassifier(message, ruleCriteria));
+        if (classified != null) {
+            logger.info("Extracted search criteria (classifier): {}", classified);
+            return new SearchOutcome(classified, searchBooksWithCriteria(classified));
+        }
 
-        mappings.put("আহমদ ছফা", List.of("ahmad sofa", "ahmed sofa"));
-        mappings.put("ahmad sofa", List.of("আহমদ ছফা"));
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hedgeBudgetMs);
 
-        mappings.put("জহির রায়হান", List.of("zahir raihan", "jahir raihan"));
-        mappings.put("zahir raihan", List.of("জহির রায়হান"));
+        CompletableFuture<BookSearchCriteria> aiFuture;
+        try {
+            aiFuture = CompletableFuture.supplyAsync(
+                () -> timeStage("extract.language_model", () -> keywordExtractionService.extractWithLanguageModel(message)),
+                chatExecutor);
+        } catch (RejectedExecutionException e) {
+            countRejected("hedged");
+            logger.warn("Chat executor is saturated, answering with rule-based results");
+            logger.info("Extracted search criteria (rules): {}", ruleCriteria);
+            return new SearchOutcome(ruleCriteria, searchBooksWithCriteria(ruleCriteria));
+        }
 
-        mappings.put("শহীদুল জহির", List.of("shahidul jahir", "shahidul zahir"));
-        mappings.put("shahidul jahir", List.of("শহীদুল জহির"));
+        // A cached Mistral answer is usually ready by now; the speculative search is wasted then
+        boolean aiAlreadyAnswered = aiFuture.isDone() && !aiFuture.isCompletedExceptionally() && aiFuture.join() != null;
+        List<Book> ruleBooks = aiAlreadyAnswered ? null : searchBooksWithCriteria(ruleCriteria);
 
-        mappings.put("আল মাহমুদ", List.of("al mahmud", "al-mahmud"));
-        mappings.put("al mahmud", List.of("আল মাহমুদ"));
+        BookSearchCriteria aiCriteria = null;
+        try {
+            aiCriteria = aiFuture.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.info("Mistral extraction exceeded the {} ms budget, answering with rule-based results", hedgeBudgetMs);
+        } catch (ExecutionException e) {
+            logger.warn("Mistral extraction failed, answering with rule-based results", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
 
-        mappings.put("আনিসুল হক", List.of("anisul hoque", "anisul haq"));
-        mappings.put("anisul hoque", List.of("আনিসুল হক"));
+        if (aiCriteria == null) {
+            // Only reachable when the rule-based search above ran
+            logger.info("Extracted search criteria (rules): {}", ruleCriteria);
+            return new SearchOutcome(ruleCriteria, ruleBooks);
+        }
 
-        return mappings;
+        logger.info("Extracted search criteria: {}", aiCriteria);
+        return new SearchOutcome(aiCriteria, searchBooksWithCriteria(aiCriteria));
     }
 
-    private List<Book> searchBooksByAuthorMultilingual(String authorQuery) {
-        Set<Book> results = new HashSet<>();
-        String queryLower = authorQuery.toLowerCase().trim();
-
-        // Direct search first
-        results.addAll(bookRepository.findByAuthorContainingIgnoreCaseAndQuantityGreaterThan(authorQuery, 0));
-
-        // Search using author name mappings
-        Set<String> authorVariations = new HashSet<>();
-        authorVariations.add(queryLower);
-
-        // Find all possible variations of the author name
-        for (Map.Entry<String, List<String>> entry : authorNameMappings.entrySet()) {
-            String key = entry.getKey().toLowerCase();
-            List<String> variations = entry.getValue();
-
-            // If query matches any key or variation, add all variations
-            if (key.contains(queryLower) || queryLower.contains(key) ||
-                variations.stream().anyMatch(v -> v.toLowerCase().contains(queryLower) || queryLower.contains(v.toLowerCase()))) {
+    private List<Book> searchBooksWithCriteria(BookSearchCriteria criteria) {
+        return timeStage("search", () -> runSearch(criteria));
+    }
 
-                authorVariations.add(entry.getKey()); // Add the key (could be Bangla or English)
-                authorVariations.addAll(variations.stream().map(String::toLowerCase).collect(Collectors.toList()));
-            }
+    private List<Book> runSearch(BookSearchCriteria criteria) {
+        if (criteria.isEmpty()) {
+            // If no specific criteria, return some available books
+            countRepositoryCall("available");
+            return bookRepository.findByQuantityGreaterThanOrderByIdAsc(0, Limit.of(10));
         }
 
-        // Search for each variation
-        for (String variation : authorVariations) {
-            if (!variation.trim().isEmpty()) {
-                results.addAll(bookRepository.findByAuthorContainingIgnoreCaseAndQuantityGreaterThan(variation, 0));
+        // Fuzzy mode corrects typos up front; otherwise only when the exact terms find nothing
+        if ("fuzzy".equalsIgnoreCase(criteria.getSearchMode())) {
+            BookSearchCriteria corrected = spellingIndex.correct(criteria);
+            return searchCatalog(corrected != null ? corrected : criteria);
+        }
+        List<Book> books = searchCatalog(criteria);
+        if (books.isEmpty()) {
+            BookSearchCriteria corrected = spellingIndex.correct(criteria);
+            if (corrected != null) {
+                logger.info("No results, retrying with spelling-corrected criteria: {}", corrected);
+                return searchCatalog(corrected);
             }
         }
-
-        logger.debug("Found {} author variations for query '{}': {}", authorVariations.size(), authorQuery, authorVariations);
-
-        return new ArrayList<>(results);
+        return books;
     }
 
-    private boolean matchesMultilingualAuthor(String bookAuthor, List<String> searchAuthors) {
-        String bookAuthorLower = bookAuthor.toLowerCase();
-
-        for (String searchAuthor : searchAuthors) {
-            String searchAuthorLower = searchAuthor.toLowerCase();
-
-            // Direct match
-            if (bookAuthorLower.contains(searchAuthorLower) || searchAuthorLower.contains(bookAuthorLower)) {
-                return true;
+    private List<Book> searchCatalog(BookSearchCriteria criteria) {
+        // Expand authors to every known spelling up front so the whole criteria compiles into one query,
+        // and add the books whose author or title sounds the same in either script
+        Set<String> authorNames = new HashSet<>();
+        Set<Long> authorBookIds = new HashSet<>();
+        if (criteria.getAuthors() != null) {
+            for (String author : criteria.getAuthors()) {
+                authorNames.addAll(authorAliasRegistry.expand(author));
+                authorBookIds.addAll(phoneticIndex.findByAuthor(author));
             }
-
-            // Check through multilingual mappings
-            for (Map.Entry<String, List<String>> entry : authorNameMappings.entrySet()) {
-                String key = entry.getKey().toLowerCase();
-                List<String> variations = entry.getValue();
-
-                // If book author matches key or any variation
-                boolean bookAuthorMatches = key.contains(bookAuthorLower) || bookAuthorLower.contains(key) ||
-                    variations.stream().anyMatch(v -> v.toLowerCase().contains(bookAuthorLower) || bookAuthorLower.contains(v.toLowerCase()));
-
-                // If search author matches key or any variation
-                boolean searchAuthorMatches = key.contains(searchAuthorLower) || searchAuthorLower.contains(key) ||
-                    variations.stream().anyMatch(v -> v.toLowerCase().contains(searchAuthorLower) || searchAuthorLower.contains(v.toLowerCase()));
-
-                if (bookAuthorMatches && searchAuthorMatches) {
-                    return true;
-                }
+        }
+        Set<Long> titleBookIds = new HashSet<>();
+        if (criteria.getTitles() != null) {
+            for (String title : criteria.getTitles()) {
+                titleBookIds.addAll(phoneticIndex.findByTitle(title));
             }
         }
 
-        return false;
+        // Fetch a wider pool from the best match tier and keep the best maxResults by relevance
+        countRepositoryCall("criteria");
+        List<Book> candidates = bookRepository.searchByCriteria(
+            criteria, authorNames, authorBookIds, titleBookIds, relevanceScorer.candidatePoolSize(criteria));
+        return relevanceScorer.rank(criteria, authorNames, candidates);
     }
 
-    private List<Book> searchByYear(Integer yearFrom, Integer yearTo) {
-        if (yearFrom != null && yearTo != null) {
-            if (yearFrom.equals(yearTo)) {
-                return bookRepository.findByPublishedYearAndQuantityGreaterThan(yearFrom, 0);
-            } else {
-                return bookRepository.findByPublishedYearBetweenAndQuantityGreaterThan(yearFrom, yearTo, 0);
-            }
-        } else if (yearFrom != null) {
-            return bookRepository.findByPublishedYearBetweenAndQuantityGreaterThan(yearFrom, 2030, 0);
-        } else if (yearTo != null) {
-            return bookRepository.findByPublishedYearBetweenAndQuantityGreaterThan(1000, yearTo, 0);
-        }
-        return new ArrayList<>();
+    /**
+     * Chat work the saturated chat executor turned away: hedged chats and refinements were
+     * answered from the rules, streams rejected up front got the "error" event.
+     */
+    private void countRejected(String path) {
+        Counter.builder("chat.executor.rejected")
+            .description("Chat work rejected because the chat executor was saturated")
+            .tag("path", path)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * One increment per repository query a chat search issues; divided by the
+     * chat.stage{stage=search} count it gives queries per search.
+     */
+    private void countRepositoryCall(String query) {
+        Counter.builder("chat.search.repository.calls")
+            .description("Repository queries issued by chat searches")
+            .tag("query", query)
+            .register(meterRegistry)
+            .increment();
     }
 
     private String generateResponseMessage(List<Book> books, BookSearchCriteria criteria, String language) {
@@ -418,52 +527,4 @@ public class AIServiceImpl implements AIService {
             "Sorry, something went wrong. Please try again.",
             "দুঃখিত, কিছু problem হয়েছে। আবার try করুন।");
     }
-
-    /**
-     * Search for books that contain ALL specified genres (AND logic)
-     * This method ensures that returned books have all the genres mentioned in the search
-     */
-    private List<Book> searchBooksWithAllGenres(List<String> genres) {
-        if (genres == null || genres.isEmpty()) {
-            return new ArrayList<>();
-        }
-
-        // Start with books that contain the first genre
-        List<Book> candidateBooks = bookRepository.findByGenreContainingIgnoreCaseAndQuantityGreaterThan(genres.get(0), 0);
-
-        // Filter books to only those that contain ALL specified genres
-        return candidateBooks.stream()
-                .filter(book -> {
-                    String bookGenre = book.getGenre();
-                    if (bookGenre == null) return false;
-
-                    String bookGenreLower = bookGenre.toLowerCase();
-
-                    // Check if ALL genres are present in this book's genre field
-                    return genres.stream().allMatch(genre ->
-                        bookGenreLower.contains(genre.toLowerCase())
-                    );
-                })
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Search for books that contain ANY of the specified genres (OR logic)
-     * This method ensures that returned books have at least one of the genres mentioned in the search
-     */
-    private List<Book> searchBooksWithAnyGenre(List<String> genres) {
-        if (genres == null || genres.isEmpty()) {
-            return new ArrayList<>();
-        }
-
-        Set<Book> resultBooks = new HashSet<>();
-
-        // Find books that contain ANY of the specified genres
-        for (String genre : genres) {
-            List<Book> genreBooks = bookRepository.findByGenreContainingIgnoreCaseAndQuantityGreaterThan(genre, 0);
-            resultBooks.addAll(genreBooks);
-        }
-
-        return new ArrayList<>(resultBooks);
-    }
 }
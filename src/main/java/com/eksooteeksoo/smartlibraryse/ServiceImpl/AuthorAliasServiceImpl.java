@@ -0,0 +1,86 @@
+package com.eksooteeksoo.smartlibraryse.ServiceImpl;
+
+import com.eksooteeksoo.smartlibraryse.DTO.AuthorDTO;
+import com.eksooteeksoo.smartlibraryse.Model.Author;
+import com.eksooteeksoo.smartlibraryse.Repository.AuthorRepository;
+import com.eksooteeksoo.smartlibraryse.Search.AuthorAliasRegistry;
+import com.eksooteeksoo.smartlibraryse.Service.AuthorAliasService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class AuthorAliasServiceImpl implements AuthorAliasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorAliasServiceImpl.class);
+
+    private final AuthorRepository authorRepository;
+    private final AuthorAliasRegistry authorAliasRegistry;
+
+    public AuthorAliasServiceImpl(AuthorRepository authorRepository, AuthorAliasRegistry authorAliasRegistry) {
+        this.authorRepository = authorRepository;
+        this.authorAliasRegistry = authorAliasRegistry;
+    }
+
+    @Override
+    public List<Author> getAllAuthors() {
+        logger.debug("Fetching all authors");
+        return authorRepository.findAll();
+    }
+
+    @Override
+    public Author getAuthorById(Long id) {
+        logger.debug("Fetching author with id: {}", id);
+        return authorRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Author not found with id: " + id));
+    }
+
+    @Override
+    public Author createAuthor(AuthorDTO authorDTO) {
+        logger.info("Creating new author: {}", authorDTO.getCanonicalName());
+        if (authorRepository.existsByCanonicalNameIgnoreCase(authorDTO.getCanonicalName().trim())) {
+            throw new IllegalArgumentException("Author already exists: " + authorDTO.getCanonicalName());
+        }
+        Author author = new Author();
+        updateAuthorFromDto(author, authorDTO);
+        Author saved = authorRepository.save(author);
+        authorAliasRegistry.reload();
+        return saved;
+    }
+
+    @Override
+    public Author updateAuthor(Long id, AuthorDTO authorDTO) {
+        logger.info("Updating author with id: {}", id);
+        Author author = getAuthorById(id);
+        updateAuthorFromDto(author, authorDTO);
+        Author saved = authorRepository.save(author);
+        authorAliasRegistry.reload();
+        return saved;
+    }
+
+    @Override
+    public void deleteAuthor(Long id) {
+        logger.info("Deleting author with id: {}", id);
+        authorRepository.delete(getAuthorById(id));
+        authorAliasRegistry.reload();
+    }
+
+    private void updateAuthorFromDto(Author author, AuthorDTO authorDTO) {
+        author.setCanonicalName(authorDTO.getCanonicalName().trim());
+        author.setNameBengali(authorDTO.getNameBengali());
+
+        Set<String> aliases = new HashSet<>();
+        if (authorDTO.getAliases() != null) {
+            for (String alias : authorDTO.getAliases()) {
+                if (alias != null && !alias.isBlank()) {
+                    aliases.add(alias.trim());
+                }
+            }
+        }
+        author.setAliases(aliases);
+    }
+}
@@ -1,8 +1,12 @@
 package com.eksooteeksoo.smartlibraryse.ServiceImpl;
 
+import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
 import com.eksooteeksoo.smartlibraryse.DTO.BookSearchKeywords;
 import com.eksooteeksoo.smartlibraryse.Model.Book;
 import com.eksooteeksoo.smartlibraryse.Repository.BookRepository;
+import com.eksooteeksoo.smartlibraryse.Search.AuthorAliasRegistry;
+import com.eksooteeksoo.smartlibraryse.Search.PhoneticIndex;
+import com.eksooteeksoo.smartlibraryse.Search.SpellingIndex;
 import com.eksooteeksoo.smartlibraryse.Service.BookSearchService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,45 +24,14 @@ public class BookSearchServiceImpl implements BookSearchService {
     @Autowired
     private BookRepository bookRepository;
     
-    // Multilingual author name mappings (Bangla -> English variations)
-    private final Map<String, List<String>> authorNameMappings = createAuthorNameMappings();
-
-    private Map<String, List<String>> createAuthorNameMappings() {
-        Map<String, List<String>> mappings = new HashMap<>();
-
-        // Common Bangla authors and their English transliterations
-        mappings.put("জে.কে. রোলিং", Arrays.asList("j.k. rowling", "jk rowling", "joanne rowling", "rowling"));
-        mappings.put("রবীন্দ্রনাথ ঠাকুর", Arrays.asList("rabindranath tagore", "tagore", "rabindranath thakur"));
-        mappings.put("কাজী নজরুল ইসলাম", Arrays.asList("kazi nazrul islam", "nazrul islam", "nazrul"));
-        mappings.put("শরৎচন্দ্র চট্টোপাধ্যায়", Arrays.asList("sarat chandra chattopadhyay", "sharatchandra", "sarat chandra"));
-        mappings.put("বঙ্কিমচন্দ্র চট্টোপাধ্যায়", Arrays.asList("bankim chandra chattopadhyay", "bankim chandra", "bankimchandra"));
-        mappings.put("মাইকেল মধুসূদন দত্ত", Arrays.asList("michael madhusudan dutt", "madhusudan dutt", "michael madhusudan"));
-        mappings.put("তারাশঙ্কর বন্দ্যোপাধ্যায়", Arrays.asList("tarashankar bandyopadhyay", "tarashankar banerjee"));
-        mappings.put("বিভূতিভূষণ বন্দ্যোপাধ্যায়", Arrays.asList("bibhutibhushan bandyopadhyay", "bibhutibhushan banerjee"));
-        mappings.put("মানিক বন্দ্যোপাধ্যায়", Arrays.asList("manik bandyopadhyay", "manik banerjee"));
-        mappings.put("হুমায়ূন আহমেদ", Arrays.asList("humayun ahmed", "humayun ahmad"));
-        mappings.put("আহমদ ছফা", Arrays.asList("ahmad sofa", "ahmed sofa"));
-        mappings.put("জহির রায়হান", Arrays.asList("zahir raihan", "jahir raihan"));
-        mappings.put("শহীদুল জহির", Arrays.asList("shahidul jahir", "shahidul zahir"));
-        mappings.put("আল মাহমুদ", Arrays.asList("al mahmud", "al-mahmud"));
-        mappings.put("আনিসুল হক", Arrays.asList("anisul hoque", "anisul haq"));
-
-        // Add reverse mappings (English -> Bangla)
-        Map<String, List<String>> reverseMappings = new HashMap<>();
-        for (Map.Entry<String, List<String>> entry : mappings.entrySet()) {
-            String banglaName = entry.getKey();
-            for (String englishVariation : entry.getValue()) {
-                reverseMappings.computeIfAbsent(englishVariation.toLowerCase(), k -> new ArrayList<>()).add(banglaName);
-            }
-        }
+    @Autowired
+    private AuthorAliasRegistry authorAliasRegistry;
 
-        // Merge reverse mappings
-        for (Map.Entry<String, List<String>> entry : reverseMappings.entrySet()) {
-            mappings.put(entry.getKey(), entry.getValue());
-        }
+    @Autowired
+    private SpellingIndex spellingIndex;
 
-        return mappings;
-    }
+    @Autowired
+    private PhoneticIndex phoneticIndex;
 
     @Override
     public List<Book> searchBooks(BookSearchKeywords keywords) {
@@ -103,13 +76,14 @@ public class BookSearchServiceImpl implements BookSearchService {
             }
         }
 
-        // Search by genres
+        // Search by genres: any of them, in one query over the genre join table
         if (keywords.getGenres() != null && !keywords.getGenres().isEmpty()) {
-            for (String genre : keywords.getGenres()) {
-                if (genre != null && !genre.trim().isEmpty()) {
-                    results.addAll(bookRepository.findByGenreContainingIgnoreCaseAndQuantityGreaterThan(genre, 0));
-                }
-            }
+            BookSearchCriteria criteria = BookSearchCriteria.builder()
+                    .genres(keywords.getGenres())
+                    .genreSearchOperation("OR")
+                    .maxResults(BookSearchCriteria.MAX_RESULTS_LIMIT)
+                    .build();
+            results.addAll(bookRepository.searchByCriteria(criteria, List.of()));
         }
 
         // Search by year range
@@ -130,40 +104,16 @@ public class BookSearchServiceImpl implements BookSearchService {
     }
 
     private Set<Book> searchBooksByAuthorMultilingual(String authorQuery) {
-        Set<Book> results = new HashSet<>();
-        String queryLower = authorQuery.toLowerCase().trim();
-
-        // Direct search first
-        results.addAll(bookRepository.findByAuthorContainingIgnoreCaseAndQuantityGreaterThan(authorQuery, 0));
-
-        // Search using author name mappings
-        Set<String> authorVariations = new HashSet<>();
-        authorVariations.add(queryLower);
-
-        // Find all possible variations of the author name
-        for (Map.Entry<String, List<String>> entry : authorNameMappings.entrySet()) {
-            String key = entry.getKey().toLowerCase();
-            List<String> variations = entry.getValue();
-
-            // If query matches any key or variation, add all variations
-            if (key.contains(queryLower) || queryLower.contains(key) ||
-                variations.stream().anyMatch(v -> v.toLowerCase().contains(queryLower) || queryLower.contains(v.toLowerCase()))) {
-
-                authorVariations.add(entry.getKey()); // Add the key (could be Bangla or English)
-                authorVariations.addAll(variations.stream().map(String::toLowerCase).collect(Collectors.toList()));
-            }
-        }
-
-        // Search for each variation
-        for (String variation : authorVariations) {
-            if (!variation.trim().isEmpty()) {
-                results.addAll(bookRepository.findByAuthorContainingIgnoreCaseAndQuantityGreaterThan(variation, 0));
-            }
-        }
-
+        // Every known spelling of the author, matched in a single query
+        Set<String> authorVariations = authorAliasRegistry.expand(authorQuery);
         logger.debug("Found {} author variations for query '{}': {}", authorVariations.size(), authorQuery, authorVariations);
 
-        return results;
+        BookSearchCriteria criteria = BookSearchCriteria.builder()
+                .authors(List.of(authorQuery))
+                .maxResults(100)
+                .build();
+        return new HashSet<>(bookRepository.searchByCriteria(criteria, authorVariations,
+                phoneticIndex.findByAuthor(authorQuery), List.of(), criteria.resolveMaxResults()));
     }
     
     private Set<Book> performBroaderSearch(BookSearchKeywords keywords) {
@@ -208,15 +158,48 @@ public class BookSearchServiceImpl implements BookSearchService {
             }
         }
 
-        // Search with individual keywords
+        // Correct typos against the catalog and drop duplicates before touching the database
+        Set<String> words = new LinkedHashSet<>();
         for (String keyword : allKeywords) {
             if (keyword.length() > 2) { // Skip very short words
-                results.addAll(bookRepository.searchAvailableBooks(keyword));
-
-                // Also try multilingual author search for each keyword
-                results.addAll(searchBooksByAuthorMultilingual(keyword));
+                String corrected = spellingIndex.correctText(keyword);
+                if (!corrected.isEmpty()) {
+                    words.add(corrected);
+                }
             }
         }
+        if (words.isEmpty()) {
+            return results;
+        }
+
+        // Any word in title, genre or any spelling of the author, one query per field instead
+        // of a LIKE query and an author search per word. The fields stay separate queries:
+        // in one criteria query a title hit must also be by a matching author.
+        Set<String> authorNames = new HashSet<>();
+        Set<Long> authorBookIds = new HashSet<>();
+        Set<Long> titleBookIds = new HashSet<>();
+        for (String word : words) {
+            authorNames.addAll(authorAliasRegistry.expand(word));
+            authorBookIds.addAll(phoneticIndex.findByAuthor(word));
+            titleBookIds.addAll(phoneticIndex.findByTitle(word));
+        }
+        BookSearchCriteria byTitle = BookSearchCriteria.builder()
+                .titles(new ArrayList<>(words))
+                .maxResults(BookSearchCriteria.MAX_RESULTS_LIMIT)
+                .build();
+        results.addAll(bookRepository.searchByCriteria(byTitle, List.of(), List.of(), titleBookIds,
+                byTitle.resolveMaxResults()));
+        BookSearchCriteria byAuthor = BookSearchCriteria.builder()
+                .maxResults(BookSearchCriteria.MAX_RESULTS_LIMIT)
+                .build();
+        results.addAll(bookRepository.searchByCriteria(byAuthor, authorNames, authorBookIds, List.of(),
+                byAuthor.resolveMaxResults()));
+        BookSearchCriteria byGenre = BookSearchCriteria.builder()
+                .genres(new ArrayList<>(words))
+                .genreSearchOperation("OR")
+                .maxResults(BookSearchCriteria.MAX_RESULTS_LIMIT)
+                .build();
+        results.addAll(bookRepository.searchByCriteria(byGenre, List.of()));
         
         return results;
     }
@@ -1,14 +1,35 @@
 package com.eksooteeksoo.smartlibraryse.ServiceImpl;
 
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogChangeEvent;
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogIndex;
+import com.eksooteeksoo.smartlibraryse.Catalog.GenreNames;
 import com.eksooteeksoo.smartlibraryse.DTO.BookDTO;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSuggestion;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSummary;
+import com.eksooteeksoo.smartlibraryse.DTO.CursorPage;
+import com.eksooteeksoo.smartlibraryse.DTO.SearchFacets;
 import com.eksooteeksoo.smartlibraryse.Model.Book;
+import com.eksooteeksoo.smartlibraryse.Model.Genre;
 import com.eksooteeksoo.smartlibraryse.Repository.BookRepository;
+import com.eksooteeksoo.smartlibraryse.Repository.GenreRepository;
+import com.eksooteeksoo.smartlibraryse.Search.FacetIndex;
+import com.eksooteeksoo.smartlibraryse.Search.SuggestionIndex;
 import com.eksooteeksoo.smartlibraryse.Service.BookService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class BookServiceImpl implements BookService {
@@ -16,9 +37,79 @@ public class BookServiceImpl implements BookService {
     private static final Logger logger = LoggerFactory.getLogger(BookServiceImpl.class);
 
     private final BookRepository bookRepository;
+    private final GenreRepository genreRepository;
+    private final CatalogIndex catalogIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final FacetIndex facetIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public BookServiceImpl(BookRepository bookRepository) {
+    public BookServiceImpl(BookRepository bookRepository,
+                           GenreRepository genreRepository,
+                           CatalogIndex catalogIndex,
+                           SuggestionIndex suggestionIndex,
+                           FacetIndex facetIndex,
+                           ApplicationEventPublisher eventPublisher) {
         this.bookRepository = bookRepository;
+        this.genreRepository = genreRepository;
+        this.catalogIndex = catalogIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.facetIndex = facetIndex;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Splits the genre text of books saved before genres were normalized into genre rows.
+     * Runs on every start and only touches books that have genre text but no genre links.
+     * Genre rows stored under an older normalization are brought up to date first.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void linkUnsplitGenres() {
+        renormalizeGenres();
+        Map<String, Genre> known = new HashMap<>();
+        List<Book> linked = new ArrayList<>();
+        for (Book book : bookRepository.findWithUnlinkedGenres()) {
+            Set<Genre> genres = resolveGenres(GenreNames.split(book.getGenre()), known);
+            if (!genres.isEmpty()) {
+                book.setGenres(genres);
+                linked.add(book);
+            }
+        }
+        if (!linked.isEmpty()) {
+            bookRepository.saveAll(linked);
+            logger.info("Linked {} books to {} genres", linked.size(), known.size());
+        }
+    }
+
+    /**
+     * Re-keys genre rows whose normalized name predates the current
+     * {@link GenreNames#normalize}. A row whose new key another row already holds ("self-help"
+     * next to "self help") is merged into that row: its book links move over and it is deleted.
+     */
+    private void renormalizeGenres() {
+        Map<String, Genre> byKey = new HashMap<>();
+        List<Genre> stale = new ArrayList<>();
+        for (Genre genre : genreRepository.findAll()) {
+            if (GenreNames.normalize(genre.getName()).equals(genre.getNormalizedName())) {
+                byKey.put(genre.getNormalizedName(), genre);
+            } else {
+                stale.add(genre);
+            }
+        }
+        for (Genre genre : stale) {
+            String key = GenreNames.normalize(genre.getName());
+            Genre survivor = byKey.get(key);
+            if (survivor == null) {
+                genre.setNormalizedName(key);
+                byKey.put(key, genreRepository.save(genre));
+            } else {
+                genreRepository.moveBookLinks(genre.getId(), survivor.getId());
+                genreRepository.deleteBookLinks(genre.getId());
+                genreRepository.deleteById(genre.getId());
+            }
+        }
+        if (!stale.isEmpty()) {
+            logger.info("Renormalized {} genre names", stale.size());
+        }
     }
 
     @Override
@@ -33,6 +124,22 @@ public class BookServiceImpl implements BookService {
         return bookRepository.findByQuantityGreaterThan(0);
     }
 
+    @Override
+    public CursorPage<BookSummary> getBooksPage(String cursor, Integer size) {
+        int pageSize = CursorPage.resolveSize(size);
+        logger.debug("Fetching books page after cursor {} with size {}", cursor, pageSize);
+        List<BookSummary> rows = bookRepository.findSummaryPageAfter(CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return CursorPage.fromRows(rows, pageSize, BookSummary::getId);
+    }
+
+    @Override
+    public CursorPage<BookSummary> getAvailableBooksPage(String cursor, Integer size) {
+        int pageSize = CursorPage.resolveSize(size);
+        logger.debug("Fetching available books page after cursor {} with size {}", cursor, pageSize);
+        List<BookSummary> rows = bookRepository.findAvailableSummaryPageAfter(CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return CursorPage.fromRows(rows, pageSize, BookSummary::getId);
+    }
+
     @Override
     public Book getBookById(Long id) {
         logger.debug("Fetching book with id: {}", id);
@@ -43,8 +150,9 @@ public class BookServiceImpl implements BookService {
     @Override
     public Book createBook(BookDTO bookDTO) {
         logger.info("Creating new book: {}", bookDTO.getTitle());
-        Book book = mapDtoToEntity(bookDTO);
-        return bookRepository.save(book);
+        Book book = bookRepository.save(mapDtoToEntity(bookDTO));
+        eventPublisher.publishEvent(CatalogChangeEvent.saved(book));
+        return book;
     }
 
     @Override
@@ -52,7 +160,9 @@ public class BookServiceImpl implements BookService {
         logger.info("Updating book with id: {}", id);
         Book existingBook = getBookById(id);
         updateBookFromDto(existingBook, bookDTO);
-        return bookRepository.save(existingBook);
+        Book book = bookRepository.save(existingBook);
+        eventPublisher.publishEvent(CatalogChangeEvent.saved(book));
+        return book;
     }
 
     @Override
@@ -60,6 +170,7 @@ public class BookServiceImpl implements BookService {
         logger.info("Deleting book with id: {}", id);
         Book book = getBookById(id);
         bookRepository.delete(book);
+        eventPublisher.publishEvent(CatalogChangeEvent.deleted(id));
     }
 
     @Override
@@ -69,9 +180,34 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
-    public List<Book> searchAvailableBooks(String searchTerm) {
+    public List<BookSummary> searchAvailableBooks(String searchTerm) {
         logger.debug("Searching available books with term: {}", searchTerm);
-        return bookRepository.searchAvailableBooks(searchTerm);
+        if (!catalogIndex.isReady()) {
+            return bookRepository.searchAvailableSummaries(searchTerm);
+        }
+
+        List<Long> bookIds = catalogIndex.search(searchTerm);
+        if (bookIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // The index may lag a concurrent booking, so the query re-checks availability
+        return bookRepository.findAvailableSummariesByIdIn(bookIds);
+    }
+
+    @Override
+    public SearchFacets searchAvailableBookFacets(String searchTerm) {
+        logger.debug("Computing facets for available books matching: {}", searchTerm);
+        List<Long> bookIds = catalogIndex.isReady()
+                ? catalogIndex.search(searchTerm)
+                : bookRepository.searchAvailableSummaries(searchTerm).stream().map(BookSummary::getId).toList();
+        return facetIndex.facets(bookIds);
+    }
+
+    @Override
+    public List<BookSuggestion> suggestBooks(String prefix, Integer limit) {
+        int size = limit == null || limit <= 0 ? SuggestionIndex.TOP_K : Math.min(limit, SuggestionIndex.TOP_K);
+        return suggestionIndex.suggest(prefix, size);
     }
 
     private Book mapDtoToEntity(BookDTO bookDTO) {
@@ -87,7 +223,46 @@ public class BookServiceImpl implements BookService {
         book.setPublishedYear(bookDTO.getPublishedYear());
         book.setQuantity(bookDTO.getQuantity());
         book.setIsbn(bookDTO.getIsbn());
-        book.setGenre(bookDTO.getGenre());
+        List<String> genres = GenreNames.split(bookDTO.getGenre());
+        book.setGenre(genres.isEmpty() ? null : String.join(", ", genres));
+        book.setGenres(resolveGenres(genres, new HashMap<>()));
         book.setDescription(bookDTO.getDescription());
     }
+
+    // Genre rows for the given names, reusing known and existing rows and creating the rest
+    private Set<Genre> resolveGenres(List<String> names, Map<String, Genre> known) {
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            String normalized = GenreNames.normalize(name);
+            if (!known.containsKey(normalized)) {
+                missing.add(normalized);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Genre genre : genreRepository.findByNormalizedNameIn(missing)) {
+                known.put(genre.getNormalizedName(), genre);
+            }
+        }
+
+        Set<Genre> genres = new HashSet<>();
+        for (String name : names) {
+            genres.add(known.computeIfAbsent(GenreNames.normalize(name), normalized -> createGenre(name, normalized)));
+        }
+        return genres;
+    }
+
+    // A concurrent save may create the same genre first; the unique normalized_name then
+    // rejects this insert and the row that won is used instead
+    private Genre createGenre(String name, String normalized) {
+        Genre created = new Genre();
+        created.setName(name);
+        created.setNormalizedName(normalized);
+        try {
+            return genreRepository.save(created);
+        } catch (DataIntegrityViolationException e) {
+            return genreRepository.findByNormalizedNameIn(List.of(normalized)).stream()
+                    .findFirst()
+                    .orElseThrow(() -> e);
+        }
+    }
 }
@@ -1,54 +1,98 @@
 package com.eksooteeksoo.smartlibraryse.ServiceImpl;
 
+import com.eksooteeksoo.smartlibraryse.Client.MistralClient;
 import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import com.eksooteeksoo.smartlibraryse.Search.ExtractionTrainingLog;
+import com.eksooteeksoo.smartlibraryse.Search.MessageFeatures;
+import com.eksooteeksoo.smartlibraryse.Search.RuleLexicon;
+import com.eksooteeksoo.smartlibraryse.Search.RuleLexicon.Feature;
+import com.eksooteeksoo.smartlibraryse.Search.SlotClassifier;
 import com.eksooteeksoo.smartlibraryse.Service.KeywordExtractionService;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.text.Normalizer;
+import java.time.Duration;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Service
 public class KeywordExtractionServiceImpl implements KeywordExtractionService {
 
     private static final Logger logger = LoggerFactory.getLogger(KeywordExtractionServiceImpl.class);
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
-
-    @Value("${mistral.api.key:}")
-    private String mistralApiKey;
 
-    @Value("${mistral.api.url:https://api.mistral.ai/v1/chat/completions}")
-    private String mistralApiUrl;
+    // Chars allowed between the years of a "1990-2000" style range
+    private static final String YEAR_RANGE_SEPARATORS = "-–—to";
 
-    public KeywordExtractionServiceImpl() {
-        this.restTemplate = new RestTemplate();
+    private final MistralClient mistralClient;
+    private final ExtractionTrainingLog trainingLog;
+    private final SlotClassifier slotClassifier;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, BookSearchCriteria> extractionCache;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary ruleConfidence;
+
+    @Value("${chat.routing.enabled:true}")
+    private boolean routingEnabled;
+
+    @Value("${chat.routing.min-confidence:1.0}")
+    private double routingMinConfidence;
+
+    public KeywordExtractionServiceImpl(MistralClient mistralClient,
+                                        ExtractionTrainingLog trainingLog,
+                                        SlotClassifier slotClassifier,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${mistral.cache.max-size:10000}") long cacheMaxSize,
+                                        @Value("${mistral.cache.ttl-minutes:60}") long cacheTtlMinutes) {
+        this.mistralClient = mistralClient;
+        this.trainingLog = trainingLog;
+        this.slotClassifier = slotClassifier;
+        this.meterRegistry = meterRegistry;
+        this.ruleConfidence = DistributionSummary.builder("chat.extraction.confidence")
+                .description("Share of each chat message the rule lexicon recognized")
+                .register(meterRegistry);
         this.objectMapper = new ObjectMapper();
+        this.extractionCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, extractionCache, "mistral.extraction");
     }
 
     @Override
     public BookSearchCriteria extractBookSearchCriteria(String userMessage) {
         try {
-            // First try Mistral AI if API key is available
-            if (mistralApiKey != null && !mistralApiKey.trim().isEmpty()) {
-                BookSearchCriteria aiExtracted = extractWithMistralAI(userMessage);
-                if (aiExtracted != null) {
-                    return aiExtracted;
-                }
+            // Messages the rules fully understand never leave the JVM
+            BookSearchCriteria ruleExtracted = extractWithRules(userMessage);
+            if (!needsLanguageModel(ruleExtracted)) {
+                return ruleExtracted;
+            }
+
+            // Then the on-box classifier, when a model is loaded and sure of itself
+            BookSearchCriteria classified = extractWithClassifier(userMessage, ruleExtracted);
+            if (classified != null) {
+                return classified;
+            }
+
+            // Otherwise try Mistral AI if API key is available
+            BookSearchCriteria aiExtracted = extractWithLanguageModel(userMessage);
+            if (aiExtracted != null) {
+                return aiExtracted;
             }
 
             // Fallback to rule-based extraction
-            return extractWithRules(userMessage);
+            return ruleExtracted;
 
         } catch (Exception e) {
             logger.error("Error extracting keywords, falling back to rule-based extraction", e);
@@ -56,6 +100,120 @@ public class KeywordExtractionServiceImpl implements KeywordExtractionService {
         }
     }
 
+    /**
+     * Mistral extraction with the cache in front of it. Returns null when no key is
+     * configured, the circuit breaker is open or the call fails.
+     */
+    @Override
+    public BookSearchCriteria extractWithLanguageModel(String userMessage) {
+        if (!mistralClient.isConfigured()) {
+            return null;
+        }
+
+        String cacheKey = normalizeMessage(userMessage);
+        BookSearchCriteria cached = extractionCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            // Hand out a copy so callers never share a cached instance
+            return cached.toBuilder().extractionSource("cache").build();
+        }
+
+        // While the circuit breaker is open go straight to the rules
+        if (!mistralClient.isAvailable()) {
+            return null;
+        }
+
+        BookSearchCriteria aiExtracted = extractWithMistralAI(userMessage);
+        if (aiExtracted != null) {
+            // Only Mistral answers are cached; rule-based fallbacks are cheap and
+            // caching them would pin a transient outage for the whole TTL
+            extractionCache.put(cacheKey, aiExtracted.toBuilder().build());
+            trainingLog.record(userMessage, aiExtracted);
+        }
+        return aiExtracted;
+    }
+
+    /**
+     * The slot classifier's criteria for a message the rules routed onwards, or null when
+     * no model is loaded or it is unsure. Outcomes are counted in chat.extraction.classifier.
+     */
+    @Override
+    public BookSearchCriteria extractWithClassifier(String userMessage, BookSearchCriteria ruleCriteria) {
+        if (!slotClassifier.isLoaded()) {
+            return null;
+        }
+        BookSearchCriteria classified = slotClassifier.classify(userMessage, ruleCriteria);
+        Counter.builder("chat.extraction.classifier")
+                .description("Slot classifier outcomes for messages the rules could not settle")
+                .tag("outcome", classified != null ? "answered" : "unsure")
+                .register(meterRegistry)
+                .increment();
+        return classified;
+    }
+
+    /**
+     * Routing decision for a message already run through the rules: Mistral is only asked
+     * when the query is complex or the rules left words no slot took. Simple and
+     * moderate queries the lexicon fully recognized ("fantasy books after 2010") are
+     * answered from the rule criteria. Every decision is counted in chat.extraction.route.
+     */
+    @Override
+    public boolean needsLanguageModel(BookSearchCriteria ruleCriteria) {
+        double confidence = ruleCriteria.getExtractionConfidence() != null ? ruleCriteria.getExtractionConfidence() : 0.0;
+        ruleConfidence.record(confidence);
+
+        String complexity = ruleCriteria.getSearchComplexity();
+        String reason;
+        if (!routingEnabled) {
+            reason = "disabled";
+        } else if ("complex".equals(complexity)) {
+            reason = "complex";
+        } else if (confidence < routingMinConfidence) {
+            reason = "low_confidence";
+        } else {
+            reason = "confident";
+        }
+        boolean needsLanguageModel = !"confident".equals(reason);
+
+        Counter.builder("chat.extraction.route")
+                .description("Extraction routing decisions: rules only or rules plus the language model")
+                .tag("route", needsLanguageModel ? "language_model" : "rules")
+                .tag("reason", reason)
+                .tag("complexity", complexity)
+                .register(meterRegistry)
+                .increment();
+        return needsLanguageModel;
+    }
+
+    @Override
+    public Map<String, Object> getDiagnostics() {
+        CacheStats stats = extractionCache.stats();
+        Map<String, Object> cache = new LinkedHashMap<>();
+        cache.put("size", extractionCache.estimatedSize());
+        cache.put("hits", stats.hitCount());
+        cache.put("misses", stats.missCount());
+        cache.put("hitRate", stats.hitRate());
+        cache.put("evictions", stats.evictionCount());
+
+        Map<String, Object> diagnostics = new LinkedHashMap<>();
+        diagnostics.put("extractionCache", cache);
+        diagnostics.put("mistralCircuitBreaker", mistralClient.getCircuitBreaker().snapshot());
+        return diagnostics;
+    }
+
+    /**
+     * Cache key for a chat message: NFC-normalized (so composed and decomposed Bengali
+     * spell the same key), lowercased and with whitespace collapsed.
+     */
+    static String normalizeMessage(String message) {
+        if (message == null) {
+            return "";
+        }
+        return Normalizer.normalize(message, Normalizer.Form.NFC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
     private BookSearchCriteria extractWithMistralAI(String userMessage) {
         try {
             String prompt = buildPrompt(userMessage);
@@ -72,17 +230,9 @@ public class KeywordExtractionServiceImpl implements KeywordExtractionService {
             messages.add(message);
             requestBody.put("messages", messages);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Bearer " + mistralApiKey);
-            headers.set("Content-Type", "application/json");
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                mistralApiUrl, HttpMethod.POST, entity, String.class);
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                return parseAIResponse(response.getBody());
+            String responseBody = mistralClient.chatCompletion(requestBody);
+            if (responseBody != null) {
+                return parseAIResponse(responseBody);
             }
 
         } catch (Exception e) {
@@ -206,7 +356,7 @@ public class KeywordExtractionServiceImpl implements KeywordExtractionService {
             User message: """ + userMessage;
     }
 
-    private BookSearchCriteria parseAIResponse(String aiResponse) {
+    BookSearchCriteria parseAIResponse(String aiResponse) {
         try {
             JsonNode rootNode = objectMapper.readTree(aiResponse);
             JsonNode choicesNode = rootNode.get("choices");
@@ -249,6 +399,7 @@ public class KeywordExtractionServiceImpl implements KeywordExtractionService {
                         .requiredKeywords(extractStringList(criteriaNode, "requiredKeywords"))
                         .optionalKeywords(extractStringList(criteriaNode, "optionalKeywords"))
                         .userIntent(extractString(criteriaNode, "userIntent"))
+                        .extractionSource("mistral")
                         .build();
                 }
             }
@@ -310,67 +461,64 @@ public class KeywordExtractionServiceImpl implements KeywordExtractionService {
         return null;
     }
 
-    private BookSearchCriteria extractWithRules(String userMessage) {
-        String cleanMessage = userMessage.toLowerCase().trim();
+    @Override
+    public BookSearchCriteria extractWithRules(String userMessage) {
+        // One pass over the message collects every phrase, genre, number and keyword below
+        MessageFeatures features = RuleLexicon.scan(userMessage);
 
         BookSearchCriteria.BookSearchCriteriaBuilder builder = BookSearchCriteria.builder();
 
-        // Extract years using regex
-        extractYears(cleanMessage, builder);
+        // Extract years
+        extractYears(features, builder);
 
         // Extract common genres
-        extractGenres(cleanMessage, builder);
+        extractGenres(features, builder);
 
         // Detect genre search operation (AND vs OR)
-        String genreOperation = detectGenreSearchOperation(userMessage);
-        builder.genreSearchOperation(genreOperation);
+        builder.genreSearchOperation(detectGenreSearchOperation(features));
 
-        // Extract general keywords
-        List<String> keywords = extractGeneralKeywords(cleanMessage);
+        // Agent-like enhancements for rule-based extraction
+        detectUserIntent(features, builder);
+        detectSearchMode(features, builder);
+        detectSortingPreferences(features, builder);
+        List<String> excludeAuthors = detectExclusions(features, builder);
+        detectLanguagePreference(features, builder);
+        detectAvailabilityPreferences(features, builder);
+        detectQuantityPreferences(features, builder);
+
+        // Known authors, unless the message excludes them
+        extractAuthors(features, excludeAuthors, builder);
+
+        // Only words no slot took are searched as free text, in titles and descriptions alike
+        List<String> keywords = features.getUnplacedKeywords();
         builder.keywords(keywords);
-
-        // Use same keywords for description search
         builder.descriptionKeywords(new ArrayList<>(keywords));
 
-        // Agent-like enhancements for rule-based extraction
-        detectUserIntent(userMessage, builder);
-        detectSearchMode(userMessage, builder);
-        detectSortingPreferences(userMessage, builder);
-        detectExclusions(userMessage, builder);
-        detectLanguagePreference(userMessage, builder);
-        detectAvailabilityPreferences(userMessage, builder);
-        detectQuantityPreferences(userMessage, builder);
-
-        return builder.build();
+        return builder.extractionSource("rules")
+                .extractionConfidence(features.recognizedShare())
+                .build();
     }
 
     /**
      * Detect user intent from natural language patterns
      */
-    private void detectUserIntent(String userMessage, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
-        String message = userMessage.toLowerCase();
-
+    private void detectUserIntent(MessageFeatures features, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
         // Specific intent indicators
-        if (message.contains("exact") || message.contains("precisely") ||
-            message.contains("specific") || message.matches(".*\".*\".*")) {
+        if (features.has(Feature.INTENT_SPECIFIC) || features.isQuoted()) {
             builder.userIntent("specific");
             builder.exactTitleMatch(true);
             builder.exactAuthorMatch(true);
             builder.searchMode("strict");
         }
         // Research intent indicators
-        else if (message.contains("research") || message.contains("study") ||
-                 message.contains("academic") || message.contains("paper") ||
-                 message.contains("thesis")) {
+        else if (features.has(Feature.INTENT_RESEARCH)) {
             builder.userIntent("research");
             builder.prioritizeRecentBooks(true);
             builder.searchMode("strict");
             builder.includeOutOfStock(true); // Researchers might want all books
         }
         // Browsing intent indicators
-        else if (message.contains("browse") || message.contains("explore") ||
-                 message.contains("discover") || message.contains("similar") ||
-                 message.contains("like")) {
+        else if (features.has(Feature.INTENT_BROWSE)) {
             builder.userIntent("browsing");
             builder.searchMode("fuzzy");
             builder.maxResults(75); // More results for browsing
@@ -384,15 +532,11 @@ public class KeywordExtractionServiceImpl implements KeywordExtractionService {
     /**
      * Detect search mode from language patterns
      */
-    private void detectSearchMode(String userMessage, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
-        String message = userMessage.toLowerCase();
-
-        if (message.contains("exactly") || message.contains("precisely") ||
-            message.contains("strict") || message.matches(".*\".*\".*")) {
+    private void detectSearchMode(MessageFeatures features, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
+        if (features.has(Feature.MODE_STRICT) || features.isQuoted()) {
             builder.searchMode("strict");
         }
-        else if (message.contains("similar") || message.contains("like") ||
-                 message.contains("something like") || message.contains("fuzzy")) {
+        else if (features.has(Feature.MODE_FUZZY)) {
             builder.searchMode("fuzzy");
         }
         else {
@@ -403,33 +547,29 @@ public class KeywordExtractionServiceImpl implements KeywordExtractionService {
     /**
      * Detect sorting and prioritization preferences
      */
-    private void detectSortingPreferences(String userMessage, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
-        String message = userMessage.toLowerCase();
-
+    private void detectSortingPreferences(MessageFeatures features, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
         // Year-based sorting
-        if (message.contains("latest") || message.contains("newest") || message.contains("recent")) {
+        if (features.has(Feature.SORT_RECENT)) {
             builder.sortBy("year");
             builder.sortOrder("desc");
             builder.prioritizeRecentBooks(true);
         }
-        else if (message.contains("oldest") || message.contains("classic") || message.contains("vintage")) {
+        else if (features.has(Feature.SORT_OLDEST)) {
             builder.sortBy("year");
             builder.sortOrder("asc");
         }
         // Popularity-based sorting
-        else if (message.contains("popular") || message.contains("best") ||
-                 message.contains("top") || message.contains("famous")) {
+        else if (features.has(Feature.SORT_POPULAR)) {
             builder.sortBy("popularity");
             builder.prioritizePopularBooks(true);
         }
         // Title-based sorting
-        else if (message.contains("alphabetical") || message.contains("a to z") ||
-                 message.contains("z to a")) {
+        else if (features.has(Feature.SORT_ALPHABETICAL)) {
             builder.sortBy("title");
-            builder.sortOrder(message.contains("z to a") ? "desc" : "asc");
+            builder.sortOrder(features.has(Feature.SORT_REVERSE_ALPHABETICAL) ? "desc" : "asc");
         }
         // Author-based sorting
-        else if (message.contains("by author")) {
+        else if (features.has(Feature.SORT_BY_AUTHOR)) {
             builder.sortBy("author");
             builder.sortOrder("asc");
         }
@@ -440,51 +580,72 @@ public class KeywordExtractionServiceImpl implements KeywordExtractionService {
     }
 
     /**
-     * Detect exclusion patterns
+     * Detect exclusion patterns. Returns the excluded authors.
      */
-    private void detectExclusions(String userMessage, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
-        String message = userMessage.toLowerCase();
+    private List<String> detectExclusions(MessageFeatures features, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
+        String message = features.getText();
         List<String> excludeGenres = new ArrayList<>();
         List<String> excludeAuthors = new ArrayList<>();
 
-        // Common exclusion patterns
-        String[] exclusionPatterns = {
-            "not ", "except ", "but not ", "avoid ", "exclude ", "without "
-        };
-
-        for (String pattern : exclusionPatterns) {
-            if (message.contains(pattern)) {
-                // Extract words following exclusion patterns
-                String[] words = message.split(pattern);
-                if (words.length > 1) {
-                    String exclusionPart = words[1].split("[,\\.]")[0].trim();
-
-                    // Check if it's a genre
-                    if (isGenre(exclusionPart)) {
-                        excludeGenres.add(exclusionPart);
-                    }
-                    // Check if it's an author (contains proper case or is a known author)
-                    else if (exclusionPart.matches(".*[A-Z].*") || isKnownAuthor(exclusionPart)) {
-                        excludeAuthors.add(exclusionPart);
-                    }
+        for (Feature pattern : RuleLexicon.EXCLUSIONS) {
+            int occurrences = features.occurrences(pattern);
+            if (occurrences == 0) {
+                continue;
+            }
+
+            // Words following the first exclusion phrase, up to the next one or the end of the clause
+            int from = features.matchEnd(pattern, 0);
+            int to = occurrences > 1 ? features.matchStart(pattern, 1) : message.length();
+            for (int i = from; i < to; i++) {
+                char c = message.charAt(i);
+                if (c == ',' || c == '.') {
+                    to = i;
+                    break;
                 }
             }
+            String exclusionPart = message.substring(from, to).trim();
+            if (exclusionPart.isEmpty()) {
+                continue;
+            }
+
+            // Check if it's a genre
+            if (RuleLexicon.isExcludableGenre(exclusionPart)) {
+                excludeGenres.add(exclusionPart);
+                features.place(features.matchStart(pattern, 0), to);
+            }
+            // Check if it's a known author
+            else if (RuleLexicon.isKnownAuthor(exclusionPart)) {
+                excludeAuthors.add(exclusionPart);
+                features.place(features.matchStart(pattern, 0), to);
+            }
         }
 
         if (!excludeGenres.isEmpty()) builder.excludeGenres(excludeGenres);
         if (!excludeAuthors.isEmpty()) builder.excludeAuthors(excludeAuthors);
+        return excludeAuthors;
     }
 
     /**
-     * Detect language preference
+     * Well-known authors named in the message become the authors slot, so "books by
+     * tolkien" is an author search rather than a description keyword.
      */
-    private void detectLanguagePreference(String userMessage, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
-        boolean hasBengali = userMessage.matches(".*[\\u0980-\\u09FF].*");
-        boolean hasEnglish = userMessage.matches(".*[a-zA-Z].*");
+    private void extractAuthors(MessageFeatures features, List<String> excludeAuthors,
+                                BookSearchCriteria.BookSearchCriteriaBuilder builder) {
+        List<String> authors = features.getKnownAuthors().stream()
+                .filter(author -> excludeAuthors.stream().noneMatch(excluded -> excluded.contains(author)))
+                .toList();
+        if (!authors.isEmpty()) {
+            builder.authors(new ArrayList<>(authors));
+        }
+    }
 
-        if (hasBengali && hasEnglish) {
+    /**
+     * Detect language preference
+     */
+    private void detectLanguagePreference(MessageFeatures features, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
+        if (features.hasBengali() && features.hasLatin()) {
             builder.language("any");
-        } else if (hasBengali) {
+        } else if (features.hasBengali()) {
             builder.language("bengali");
         } else {
             builder.language("english");
@@ -494,14 +655,11 @@ public class KeywordExtractionServiceImpl implements KeywordExtractionService {
     /**
      * Detect availability preferences
      */
-    private void detectAvailabilityPreferences(String userMessage, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
-        String message = userMessage.toLowerCase();
-
-        if (message.contains("available now") || message.contains("in stock")) {
+    private void detectAvailabilityPreferences(MessageFeatures features, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
+        if (features.has(Feature.AVAILABLE_ONLY)) {
             builder.includeOutOfStock(false);
         }
-        else if (message.contains("any books") || message.contains("all books") ||
-                 message.contains("including unavailable")) {
+        else if (features.has(Feature.INCLUDE_UNAVAILABLE)) {
             builder.includeOutOfStock(true);
         }
         else {
@@ -512,32 +670,32 @@ public class KeywordExtractionServiceImpl implements KeywordExtractionService {
     /**
      * Detect quantity preferences
      */
-    private void detectQuantityPreferences(String userMessage, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
-        String message = userMessage.toLowerCase();
-
-        // Extract numeric quantities
-        if (message.matches(".*\\b(\\d+)\\s+(books?|results?).*")) {
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("\\b(\\d+)\\s+(?:books?|results?)");
-            java.util.regex.Matcher matcher = pattern.matcher(message);
-            if (matcher.find()) {
-                int quantity = Integer.parseInt(matcher.group(1));
-                builder.maxResults(Math.min(quantity, 100)); // Cap at 100
-            }
+    private void detectQuantityPreferences(MessageFeatures features, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
+        // Explicit counts such as "5 books" or "20 results"
+        Integer quantity = findCountBeforeNoun(features);
+        if (quantity != null) {
+            builder.maxResults(Math.min(quantity, 100)); // Cap at 100
         }
         // Qualitative quantities
-        else if (message.contains("few") || message.contains("some")) {
+        else if (features.has(Feature.FEW)) {
             builder.maxResults(10);
         }
-        else if (message.contains("many") || message.contains("lots") || message.contains("plenty")) {
+        else if (features.has(Feature.MANY)) {
             builder.maxResults(100);
         }
-        else if (message.contains("at least")) {
-            // Extract number after "at least"
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("at least\\s+(\\d+)");
-            java.util.regex.Matcher matcher = pattern.matcher(message);
-            if (matcher.find()) {
-                int minQuantity = Integer.parseInt(matcher.group(1));
-                builder.maxResults(Math.max(minQuantity, 50));
+        else if (features.has(Feature.AT_LEAST)) {
+            // Number after "at least"
+            for (int i = 0; i < features.occurrences(Feature.AT_LEAST); i++) {
+                int numberStart = skipWhitespace(features.getText(), features.matchEnd(Feature.AT_LEAST, i), true);
+                if (numberStart < 0) {
+                    continue;
+                }
+                int numberEnd = digitsEnd(features.getText(), numberStart);
+                if (numberEnd > numberStart) {
+                    features.place(features.matchStart(Feature.AT_LEAST, i), numberEnd);
+                    builder.maxResults(Math.max(parseCount(features.getText(), numberStart, numberEnd), 50));
+                    break;
+                }
             }
         }
         else {
@@ -546,211 +704,212 @@ public class KeywordExtractionServiceImpl implements KeywordExtractionService {
     }
 
     /**
-     * Helper method to check if a word is a genre
+     * Finds the first number that stands on its own and is followed by whitespace and
+     * "book"/"result", e.g. "show me 5 books".
      */
-    private boolean isGenre(String word) {
-        String[] commonGenres = {
-            "fiction", "romance", "mystery", "thriller", "fantasy", "science-fiction",
-            "biography", "history", "self-help", "children", "poetry", "drama",
-            "horror", "adventure", "comedy", "tragedy", "western", "crime"
-        };
-
-        for (String genre : commonGenres) {
-            if (genre.equalsIgnoreCase(word) || word.contains(genre)) {
-                return true;
+    private Integer findCountBeforeNoun(MessageFeatures features) {
+        String message = features.getText();
+        for (int i = 0; i < features.occurrences(Feature.COUNT_NOUN); i++) {
+            int nounStart = features.matchStart(Feature.COUNT_NOUN, i);
+            int numberEnd = nounStart;
+            while (numberEnd > 0 && isRegexWhitespace(message.charAt(numberEnd - 1))) {
+                numberEnd--;
+            }
+            if (numberEnd == nounStart) {
+                continue;
+            }
+            int numberStart = numberEnd;
+            while (numberStart > 0 && isAsciiDigit(message.charAt(numberStart - 1))) {
+                numberStart--;
+            }
+            if (numberStart < numberEnd && startsWord(message, numberStart)) {
+                features.place(numberStart, features.matchEnd(Feature.COUNT_NOUN, i));
+                return parseCount(message, numberStart, numberEnd);
             }
         }
-        return false;
+        return null;
     }
 
     /**
-     * Helper method to check if a word/phrase is a known author
+     * Extract years from the message. Tried in order: a "1990-2000" range, "between X and Y",
+     * "after X", "before X", "in X", and finally the first standalone four-digit number.
      */
-    private boolean isKnownAuthor(String phrase) {
-        String[] knownAuthors = {
-            "shakespeare", "dickens", "austen", "tolkien", "rowling", "stephen king",
-            "agatha christie", "mark twain", "hemingway", "orwell",
-            "রবীন্দ্রনাথ", "নজরুল", "হুমায়ূন", "শরৎচন্দ্র"
-        };
-
-        for (String author : knownAuthors) {
-            if (phrase.toLowerCase().contains(author.toLowerCase())) {
-                return true;
+    private void extractYears(MessageFeatures features, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
+        String message = features.getText();
+
+        // 1990-2000 (a single -, –, —, t or o between the years)
+        for (int run = 0; run < features.digitRunCount(); run++) {
+            int start = features.digitRunStart(run);
+            int end = features.digitRunEnd(run);
+            if (end - start != 4 || !startsWord(message, start)) {
+                continue;
+            }
+            int separator = skipWhitespace(message, end, false);
+            if (separator >= message.length() || YEAR_RANGE_SEPARATORS.indexOf(message.charAt(separator)) < 0) {
+                continue;
+            }
+            int secondYear = skipWhitespace(message, separator + 1, false);
+            if (hasFourDigits(message, secondYear) && endsWord(message, secondYear + 4)) {
+                builder.yearFrom(parseCount(message, start, end));
+                builder.yearTo(parseCount(message, secondYear, secondYear + 4));
+                return;
             }
         }
-        return false;
-    }
 
-    /**
-     * Extract years from the message using regex patterns
-     */
-    private void extractYears(String message, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
-        // Patterns for different year formats
-        java.util.regex.Pattern[] yearPatterns = {
-            java.util.regex.Pattern.compile("\\b(\\d{4})\\s*[-–—to]\\s*(\\d{4})\\b"),  // 1990-2000
-            java.util.regex.Pattern.compile("between\\s+(\\d{4})\\s+and\\s+(\\d{4})"),   // between 1990 and 2000
-            java.util.regex.Pattern.compile("after\\s+(\\d{4})"),                       // after 1990
-            java.util.regex.Pattern.compile("before\\s+(\\d{4})"),                      // before 2000
-            java.util.regex.Pattern.compile("in\\s+(\\d{4})"),                          // in 1995
-            java.util.regex.Pattern.compile("\\b(\\d{4})\\b")                          // standalone year
-        };
-
-        for (java.util.regex.Pattern pattern : yearPatterns) {
-            java.util.regex.Matcher matcher = pattern.matcher(message);
-            if (matcher.find()) {
-                if (pattern.pattern().contains("[-–—to]") || pattern.pattern().contains("between")) {
-                    // Range pattern
-                    builder.yearFrom(Integer.parseInt(matcher.group(1)));
-                    builder.yearTo(Integer.parseInt(matcher.group(2)));
-                    return;
-                } else if (pattern.pattern().contains("after")) {
-                    builder.yearFrom(Integer.parseInt(matcher.group(1)));
-                    return;
-                } else if (pattern.pattern().contains("before")) {
-                    builder.yearTo(Integer.parseInt(matcher.group(1)));
-                    return;
-                } else if (pattern.pattern().contains("in")) {
-                    int year = Integer.parseInt(matcher.group(1));
+        // between 1990 and 2000
+        for (int i = 0; i < features.occurrences(Feature.YEAR_BETWEEN); i++) {
+            int firstYear = skipWhitespace(message, features.matchEnd(Feature.YEAR_BETWEEN, i), true);
+            if (firstYear < 0 || !hasFourDigits(message, firstYear)) {
+                continue;
+            }
+            int and = skipWhitespace(message, firstYear + 4, true);
+            if (and < 0 || !message.startsWith("and", and)) {
+                continue;
+            }
+            int secondYear = skipWhitespace(message, and + 3, true);
+            if (secondYear >= 0 && hasFourDigits(message, secondYear)) {
+                features.place(features.matchStart(Feature.YEAR_BETWEEN, i), secondYear + 4);
+                builder.yearFrom(parseCount(message, firstYear, firstYear + 4));
+                builder.yearTo(parseCount(message, secondYear, secondYear + 4));
+                return;
+            }
+        }
+
+        Integer after = findYearAfter(features, Feature.YEAR_AFTER);
+        if (after != null) {
+            builder.yearFrom(after);
+            return;
+        }
+        Integer before = findYearAfter(features, Feature.YEAR_BEFORE);
+        if (before != null) {
+            builder.yearTo(before);
+            return;
+        }
+        Integer in = findYearAfter(features, Feature.YEAR_IN);
+        if (in != null) {
+            builder.yearFrom(in);
+            builder.yearTo(in);
+            return;
+        }
+
+        // Standalone year; only the first four-digit number is considered
+        for (int run = 0; run < features.digitRunCount(); run++) {
+            int start = features.digitRunStart(run);
+            int end = features.digitRunEnd(run);
+            if (end - start == 4 && startsWord(message, start) && endsWord(message, end)) {
+                int year = parseCount(message, start, end);
+                if (year >= 1000 && year <= 2030) {  // Valid year range
                     builder.yearFrom(year);
                     builder.yearTo(year);
-                    return;
-                } else {
-                    // Standalone year
-                    int year = Integer.parseInt(matcher.group(1));
-                    if (year >= 1000 && year <= 2030) {  // Valid year range
-                        builder.yearFrom(year);
-                        builder.yearTo(year);
-                        return;
-                    }
                 }
+                return;
             }
         }
     }
 
     /**
-     * Extract genres from the message
+     * The four-digit number following the first occurrence of the phrase that has one,
+     * separated by whitespace, or null. The phrase and year found are marked placed.
      */
-    private void extractGenres(String message, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
-        Map<String, String[]> genreKeywords = new HashMap<>();
-        genreKeywords.put("fiction", new String[]{"fiction", "novel", "story"});
-        genreKeywords.put("romance", new String[]{"romance", "love", "romantic"});
-        genreKeywords.put("mystery", new String[]{"mystery", "detective", "crime", "thriller"});
-        genreKeywords.put("science-fiction", new String[]{"science fiction", "sci-fi", "space", "future"});
-        genreKeywords.put("fantasy", new String[]{"fantasy", "magic", "dragon", "wizard"});
-        genreKeywords.put("biography", new String[]{"biography", "memoir", "life story"});
-        genreKeywords.put("history", new String[]{"history", "historical", "past"});
-        genreKeywords.put("self-help", new String[]{"self help", "improvement", "motivation", "success"});
-        genreKeywords.put("children", new String[]{"children", "kids", "child"});
-        genreKeywords.put("education", new String[]{"education", "learning", "study", "academic", "textbook"});
-        genreKeywords.put("programming", new String[]{"programming", "coding", "software", "developer", "computer science", "algorithm", "java", "python", "javascript"});
-        genreKeywords.put("technology", new String[]{"technology", "tech", "digital", "internet", "web", "mobile", "app", "development"});
-        genreKeywords.put("business", new String[]{"business", "management", "entrepreneurship", "startup", "finance", "economics"});
-        genreKeywords.put("science", new String[]{"science", "physics", "chemistry", "biology", "mathematics", "engineering"});
-        genreKeywords.put("health", new String[]{"health", "medical", "medicine", "fitness", "nutrition", "wellness"});
-        genreKeywords.put("art", new String[]{"art", "design", "photography", "painting", "creative", "drawing"});
-
-        List<String> detectedGenres = new ArrayList<>();
-
-        for (Map.Entry<String, String[]> entry : genreKeywords.entrySet()) {
-            for (String keyword : entry.getValue()) {
-                if (message.contains(keyword)) {
-                    detectedGenres.add(entry.getKey());
-                    break;
-                }
+    private Integer findYearAfter(MessageFeatures features, Feature phrase) {
+        String message = features.getText();
+        for (int i = 0; i < features.occurrences(phrase); i++) {
+            int year = skipWhitespace(message, features.matchEnd(phrase, i), true);
+            if (year >= 0 && hasFourDigits(message, year)) {
+                features.place(features.matchStart(phrase, i), year + 4);
+                return parseCount(message, year, year + 4);
             }
         }
+        return null;
+    }
 
+    /**
+     * Extract genres from the message
+     */
+    private void extractGenres(MessageFeatures features, BookSearchCriteria.BookSearchCriteriaBuilder builder) {
+        List<String> detectedGenres = features.getGenres();
         if (!detectedGenres.isEmpty()) {
             builder.genres(detectedGenres);
         }
     }
 
     /**
-     * Extract general keywords from the message
+     * Detect whether user wants OR or AND logic for genre searches. Any English or Bengali
+     * AND indicator ("both", "and", "এবং", ...) means AND; otherwise OR.
      */
-    private List<String> extractGeneralKeywords(String message) {
-        // Remove common stop words and extract meaningful keywords
-        String[] stopWords = {
-            "i", "am", "is", "are", "the", "a", "an", "book", "books", "looking", "for",
-            "want", "need", "find", "do", "you", "have", "any", "some", "can", "could",
-            "would", "should", "about", "on", "in", "at", "by", "with", "from", "to",
-            "published", "written", "author", "title"
-        };
-
-        Set<String> stopWordSet = Set.of(stopWords);
-
-        String cleanedMessage = message
-            .replaceAll("[^\\p{L}\\p{N}\\s]", " ")  // Remove punctuation
-            .replaceAll("\\s+", " ")                 // Normalize whitespace
-            .toLowerCase()
-            .trim();
-
-        List<String> keywords = new ArrayList<>();
-        String[] words = cleanedMessage.split("\\s+");
-
-        for (String word : words) {
-            if (word.length() > 2 && !stopWordSet.contains(word) && !word.matches("\\d+")) {
-                keywords.add(word);
-            }
-        }
-
-        return keywords;
+    private String detectGenreSearchOperation(MessageFeatures features) {
+        return features.has(Feature.GENRE_AND) ? "AND" : "OR";
     }
 
     /**
-     * Detect whether user wants OR or AND logic for genre searches based on NLP analysis
+     * Index of the first non-whitespace char at or after {@code from}. With
+     * {@code required} set, returns -1 unless at least one whitespace char was skipped.
      */
-    private String detectGenreSearchOperation(String userMessage) {
-        String message = userMessage.toLowerCase();
-
-        // AND indicators (English)
-        String[] andIndicators = {
-            "both", "and", "with both", "containing all", "must have both",
-            "all of", "include all", "that have all", "with all"
-        };
-
-        // OR indicators (English)
-        String[] orIndicators = {
-            " or ", "either", "any of", "one of", "some of"
-        };
-
-        // Bengali AND indicators
-        String[] bengaliAndIndicators = {
-            "এবং", "আর", "ও", "উভয়", "দুটোই", "সব", "সকল"
-        };
-
-        // Bengali OR indicators
-        String[] bengaliOrIndicators = {
-            "অথবা", "বা", "কিংবা", "যেকোনো", "কোনো একটি"
-        };
-
-        // Check for AND indicators first (more specific)
-        for (String indicator : andIndicators) {
-            if (message.contains(indicator)) {
-                return "AND";
-            }
+    private static int skipWhitespace(String text, int from, boolean required) {
+        int i = from;
+        while (i < text.length() && isRegexWhitespace(text.charAt(i))) {
+            i++;
         }
+        return required && i == from ? -1 : i;
+    }
 
-        for (String indicator : bengaliAndIndicators) {
-            if (message.contains(indicator)) {
-                return "AND";
-            }
+    private static int digitsEnd(String text, int from) {
+        int i = from;
+        while (i < text.length() && isAsciiDigit(text.charAt(i))) {
+            i++;
         }
+        return i;
+    }
 
-        // Check for OR indicators
-        for (String indicator : orIndicators) {
-            if (message.contains(indicator)) {
-                return "OR";
+    private static boolean hasFourDigits(String text, int from) {
+        if (from < 0 || from + 4 > text.length()) {
+            return false;
+        }
+        for (int i = from; i < from + 4; i++) {
+            if (!isAsciiDigit(text.charAt(i))) {
+                return false;
             }
         }
+        return true;
+    }
+
+    /**
+     * Regex {@code \b} before a digit run starting at {@code index}.
+     */
+    private static boolean startsWord(String text, int index) {
+        return index == 0 || !isWordChar(text.charAt(index - 1));
+    }
+
+    /**
+     * Regex {@code \b} after a digit run ending at {@code index}.
+     */
+    private static boolean endsWord(String text, int index) {
+        return index >= text.length() || !isWordChar(text.charAt(index));
+    }
+
+    private static boolean isWordChar(char c) {
+        return c == '_' || Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK;
+    }
 
-        for (String indicator : bengaliOrIndicators) {
-            if (message.contains(indicator)) {
-                return "OR";
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Parses a run of ASCII digits, saturating instead of overflowing on absurd inputs.
+     */
+    private static int parseCount(String text, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+            if (value > Integer.MAX_VALUE) {
+                return Integer.MAX_VALUE;
             }
         }
-
-        // Default to OR if no clear indicators found
-        return "OR";
+        return (int) value;
     }
 }
@@ -0,0 +1,76 @@
+package com.eksooteeksoo.smartlibraryse.ServiceImpl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * In-flight deduplication: while a computation for a key is running, further calls with
+ * the same key wait for it and share its result instead of starting their own. Nothing
+ * is kept once the computation finishes, so this is not a cache; a call arriving after
+ * the first one returns computes again.
+ */
+class SingleFlight<K, V> {
+
+    /**
+     * A result and whether it came from another caller's computation.
+     */
+    record Result<V>(V value, boolean shared) {
+    }
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs work for the key unless an identical call is already running, in which case
+     * its result (or exception) is returned. The work runs on the calling thread.
+     */
+    Result<V> execute(K key, Supplier<V> work) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            return new Result<>(await(running), true);
+        }
+
+        try {
+            V value = work.get();
+            call.complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Number of keys with a computation currently running.
+     */
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Number of callers waiting on the running computation for the key; for tests.
+     */
+    int waiting(K key) {
+        CompletableFuture<V> running = inFlight.get(key);
+        return running == null ? 0 : running.getNumberOfDependents();
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.eksooteeksoo.smartlibraryse.ServiceImpl;
 
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogChangeEvent;
 import com.eksooteeksoo.smartlibraryse.DTO.BookBookingDTO;
+import com.eksooteeksoo.smartlibraryse.DTO.CursorPage;
 import com.eksooteeksoo.smartlibraryse.DTO.UserRegistrationDTO;
 import com.eksooteeksoo.smartlibraryse.Model.*;
 import com.eksooteeksoo.smartlibraryse.Repository.BookBookingRepository;
@@ -10,6 +12,8 @@ import com.eksooteeksoo.smartlibraryse.Service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +31,7 @@ public class UserServiceImpl implements UserService {
     private final BookRepository bookRepository;
     private final BookBookingRepository bookBookingRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.admin.registration.key}")
     private String adminRegistrationKey;
@@ -34,11 +39,13 @@ public class UserServiceImpl implements UserService {
     public UserServiceImpl(UserRepository userRepository,
                           BookRepository bookRepository,
                           BookBookingRepository bookBookingRepository,
-                          PasswordEncoder passwordEncoder) {
+                          PasswordEncoder passwordEncoder,
+                          ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.bookRepository = bookRepository;
         this.bookBookingRepository = bookBookingRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -48,6 +55,15 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Usr> getUsersPage(String cursor, Integer size) {
+        int pageSize = CursorPage.resolveSize(size);
+        logger.debug("Fetching users page after cursor {} with size {}", cursor, pageSize);
+        List<Usr> rows = userRepository.findPageAfter(CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return CursorPage.fromRows(rows, pageSize, Usr::getId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Usr getUserById(Long id) {
@@ -128,24 +144,28 @@ public class UserServiceImpl implements UserService {
     public BookBooking bookBook(String username, BookBookingDTO bookingDTO) {
         logger.info("User {} booking book with id: {}", username, bookingDTO.getBookId());
 
-        Usr user = userRepository.findByUserName(username)
-                .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
+        Long bookId = bookingDTO.getBookId();
 
-        Book book = bookRepository.findById(bookingDTO.getBookId())
-                .orElseThrow(() -> new IllegalArgumentException("Book not found with id: " + bookingDTO.getBookId()));
-
-        if (book.getQuantity() <= 0) {
+        // Claim a copy first with a conditional decrement; any failure below rolls it back.
+        // This runs before the entities are loaded because the update clears the persistence context.
+        if (bookRepository.decrementQuantityIfAvailable(bookId) == 0) {
+            if (!bookRepository.existsById(bookId)) {
+                throw new IllegalArgumentException("Book not found with id: " + bookId);
+            }
             throw new IllegalStateException("Book is not available for booking");
         }
 
+        Usr user = userRepository.findByUserName(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
+
         // Check if user already has active booking for this book
-        if (bookBookingRepository.existsByUserIdAndBookIdAndStatus(user.getId(), book.getId(), BookingStatus.ACTIVE)) {
+        if (bookBookingRepository.existsByUserIdAndBookIdAndStatus(user.getId(), bookId, BookingStatus.ACTIVE)) {
             throw new IllegalStateException("User already has an active booking for this book");
         }
 
-        // Decrease book quantity
-        book.setQuantity(book.getQuantity() - 1);
-        bookRepository.save(book);
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new IllegalArgumentException("Book not found with id: " + bookId));
+        eventPublisher.publishEvent(CatalogChangeEvent.booked(book));
 
         // Create booking
         BookBooking booking = new BookBooking();
@@ -164,19 +184,20 @@ public class UserServiceImpl implements UserService {
         BookBooking booking = bookBookingRepository.findById(bookingId)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found with id: " + bookingId));
 
-        if (booking.getStatus() != BookingStatus.ACTIVE) {
+        Long bookId = booking.getBook().getId();
+
+        // Only the request that flips ACTIVE -> RETURNED gives the copy back
+        if (bookBookingRepository.updateStatusIfCurrent(bookingId, BookingStatus.ACTIVE, BookingStatus.RETURNED) == 0) {
             throw new IllegalStateException("Booking is not active");
         }
+        bookRepository.incrementQuantity(bookId);
 
-        // Update booking status
-        booking.setStatus(BookingStatus.RETURNED);
+        // Both updates cleared the persistence context, so reload the fresh state
+        bookRepository.findById(bookId)
+                .ifPresent(book -> eventPublisher.publishEvent(CatalogChangeEvent.saved(book)));
 
-        // Increase book quantity
-        Book book = booking.getBook();
-        book.setQuantity(book.getQuantity() + 1);
-        bookRepository.save(book);
-
-        return bookBookingRepository.save(booking);
+        return bookBookingRepository.findById(bookingId)
+                .orElseThrow(() -> new IllegalArgumentException("Booking not found with id: " + bookingId));
     }
 
     @Override
@@ -0,0 +1,88 @@
+package com.eksooteeksoo.smartlibraryse.Catalog;
+
+import com.eksooteeksoo.smartlibraryse.DTO.BookSummary;
+import com.eksooteeksoo.smartlibraryse.DTO.CursorPage;
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import com.eksooteeksoo.smartlibraryse.Service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AvailableBooksSnapshotTest {
+
+    private final BookService bookService = mock(BookService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AvailableBooksSnapshot snapshot =
+            new AvailableBooksSnapshot(bookService, objectMapper, new SimpleMeterRegistry(), 16);
+
+    @Test
+    void servesRepeatedRequestsFromTheSameBytes() throws IOException {
+        CursorPage<BookSummary> page = new CursorPage<>(List.of(summary(1L, "Himu")), null, false);
+        when(bookService.getAvailableBooksPage(any(), anyInt())).thenReturn(page);
+
+        AvailableBooksSnapshot.Page first = snapshot.get(null, null);
+        AvailableBooksSnapshot.Page second = snapshot.get(null, CursorPage.DEFAULT_SIZE);
+
+        assertSame(first, second);
+        verify(bookService, times(1)).getAvailableBooksPage(null, CursorPage.DEFAULT_SIZE);
+        assertArrayEquals(objectMapper.writeValueAsBytes(page), first.json());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+            assertArrayEquals(first.json(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void catalogChangesInvalidateAndChangeTheEtag() {
+        when(bookService.getAvailableBooksPage(any(), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(summary(1L, "Himu")), null, false))
+                .thenReturn(new CursorPage<>(List.of(), null, false));
+
+        AvailableBooksSnapshot.Page before = snapshot.get(null, 10);
+        snapshot.onCatalogChange(CatalogChangeEvent.deleted(1L));
+        AvailableBooksSnapshot.Page after = snapshot.get(null, 10);
+
+        assertNotEquals(before.etag(), after.etag());
+        verify(bookService, times(2)).getAvailableBooksPage(null, 10);
+        assertFalse(AvailableBooksSnapshot.matches(before.etag(), after));
+    }
+
+    @Test
+    void matchesIfNoneMatchLists() {
+        when(bookService.getAvailableBooksPage(any(), anyInt())).thenReturn(new CursorPage<>(List.of(), null, false));
+        AvailableBooksSnapshot.Page page = snapshot.get(null, null);
+
+        assertTrue(AvailableBooksSnapshot.matches(page.etag(), page));
+        assertTrue(AvailableBooksSnapshot.matches("\"other\", " + page.etag(), page));
+        assertTrue(AvailableBooksSnapshot.matches(page.etag().substring(2), page));
+        assertTrue(AvailableBooksSnapshot.matches("*", page));
+        assertFalse(AvailableBooksSnapshot.matches(null, page));
+        assertFalse(AvailableBooksSnapshot.matches("\"other\"", page));
+    }
+
+    private static BookSummary summary(Long id, String title) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor("Humayun Ahmed");
+        book.setQuantity(1);
+        return new BookSummary(book);
+    }
+}
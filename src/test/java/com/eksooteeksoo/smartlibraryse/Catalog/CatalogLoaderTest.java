@@ -0,0 +1,78 @@
+package com.eksooteeksoo.smartlibraryse.Catalog;
+
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import com.eksooteeksoo.smartlibraryse.Repository.BookRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.eksooteeksoo.smartlibraryse.Model.BookFixture.book;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogLoaderTest {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final CatalogIndex catalogIndex = new CatalogIndex();
+    private final CatalogListener otherIndex = mock(CatalogListener.class);
+    private final CatalogLoader loader = new CatalogLoader(bookRepository, List.of(catalogIndex, otherIndex));
+
+    @Test
+    void changeDuringTheLoadIsReplayedOverTheSnapshot() {
+        Book before = book(1L, "Himu", "Humayun Ahmed").build();
+        CatalogChangeEvent renamed = CatalogChangeEvent.saved(book(1L, "Himu Returns", "Humayun Ahmed").build());
+        // The change commits after the snapshot was read but before the indexes are rebuilt
+        when(bookRepository.findAll()).thenAnswer(invocation -> {
+            loader.onCatalogChange(renamed);
+            return List.of(before);
+        });
+
+        loader.load();
+
+        assertEquals(List.of(1L), catalogIndex.search("returns"));
+        verify(bookRepository, times(1)).findAll();
+        var order = inOrder(otherIndex);
+        order.verify(otherIndex).rebuild(List.of(before));
+        order.verify(otherIndex).onCatalogChange(renamed);
+    }
+
+    @Test
+    void changesAfterTheLoadGoStraightToEveryIndex() {
+        when(bookRepository.findAll()).thenReturn(List.of(book(1L, "Himu", "Humayun Ahmed").build()));
+        loader.load();
+
+        CatalogChangeEvent added = CatalogChangeEvent.saved(book(2L, "Misir Ali", "Humayun Ahmed").build());
+        loader.onCatalogChange(added);
+
+        assertEquals(List.of(2L), catalogIndex.search("misir"));
+        verify(otherIndex).onCatalogChange(added);
+    }
+
+    @Test
+    void changeArrivingDuringTheReplayIsReplayedAfterIt() {
+        Book himu = book(1L, "Himu", "Humayun Ahmed").build();
+        CatalogChangeEvent first = CatalogChangeEvent.saved(book(2L, "Misir Ali", "Humayun Ahmed").build());
+        CatalogChangeEvent second = CatalogChangeEvent.deleted(2L);
+        when(bookRepository.findAll()).thenAnswer(invocation -> {
+            loader.onCatalogChange(first);
+            return List.of(himu);
+        });
+        // The second change commits while the first is being replayed
+        doAnswer(invocation -> {
+            loader.onCatalogChange(second);
+            return null;
+        }).when(otherIndex).onCatalogChange(first);
+
+        loader.load();
+
+        assertEquals(List.of(), catalogIndex.search("misir"));
+        var order = inOrder(otherIndex);
+        order.verify(otherIndex).onCatalogChange(first);
+        order.verify(otherIndex).onCatalogChange(second);
+    }
+}
@@ -0,0 +1,123 @@
+package com.eksooteeksoo.smartlibraryse.Client;
+
+import com.eksooteeksoo.smartlibraryse.Config.MistralClientConfig;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs MistralClient against a local stub server that can inject latency and failures.
+ */
+class MistralClientTest {
+
+    private static final String OK_BODY = "{\"choices\":[{\"message\":{\"content\":\"{}\"}}]}";
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile long delayMs = 0;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v1/chat/completions", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = (status == 200 ? OK_BODY : "{\"error\":\"boom\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private MistralClient client(Duration readTimeout, int failureThreshold, Duration openDuration) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions";
+        return new MistralClient(
+            MistralClientConfig.createRestTemplate(Duration.ofMillis(500), readTimeout, 4),
+            new CircuitBreaker("mistral-test", failureThreshold, openDuration),
+            url, "test-key", meterRegistry);
+    }
+
+    @Test
+    void returnsBodyOnSuccess() {
+        MistralClient client = client(Duration.ofSeconds(2), 3, Duration.ofSeconds(30));
+
+        assertEquals(OK_BODY, client.chatCompletion(Map.of("model", "test")));
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitBreaker().getState());
+        assertEquals(1, meterRegistry.get("mistral.call").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void slowUpstreamIsCutOffByReadTimeout() {
+        delayMs = 2_000;
+        MistralClient client = client(Duration.ofMillis(200), 3, Duration.ofSeconds(30));
+
+        long start = System.nanoTime();
+        assertNull(client.chatCompletion(Map.of("model", "test")));
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(elapsedMs < 1_500, "call should give up near the read timeout, took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void breakerOpensAfterConsecutiveFailuresAndShortCircuits() {
+        status = 500;
+        MistralClient client = client(Duration.ofSeconds(2), 3, Duration.ofSeconds(30));
+
+        for (int i = 0; i < 3; i++) {
+            assertNull(client.chatCompletion(Map.of("model", "test")));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreaker().getState());
+        assertFalse(client.isAvailable());
+
+        assertNull(client.chatCompletion(Map.of("model", "test")));
+        assertEquals(3, requests.get(), "open breaker must not reach the upstream");
+        assertEquals(1.0, meterRegistry.get("mistral.breaker.rejected").counter().count());
+    }
+
+    @Test
+    void halfOpenProbeClosesBreakerOnceUpstreamRecovers() throws InterruptedException {
+        status = 500;
+        MistralClient client = client(Duration.ofSeconds(2), 2, Duration.ofMillis(200));
+
+        client.chatCompletion(Map.of("model", "test"));
+        client.chatCompletion(Map.of("model", "test"));
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreaker().getState());
+
+        Thread.sleep(300);
+        status = 200;
+
+        assertEquals(OK_BODY, client.chatCompletion(Map.of("model", "test")));
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitBreaker().getState());
+    }
+}
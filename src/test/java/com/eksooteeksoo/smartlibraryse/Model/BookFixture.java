@@ -0,0 +1,50 @@
+package com.eksooteeksoo.smartlibraryse.Model;
+
+/**
+ * Unsaved {@link Book}s for the in-memory index and service tests: one copy in stock
+ * and only the fields a test names set.
+ */
+public final class BookFixture {
+
+    private final Book book = new Book();
+
+    private BookFixture(Long id, String title, String author) {
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setQuantity(1);
+    }
+
+    public static BookFixture book(Long id, String title, String author) {
+        return new BookFixture(id, title, author);
+    }
+
+    public BookFixture authorBengali(String authorBengali) {
+        book.setAuthorBengali(authorBengali);
+        return this;
+    }
+
+    public BookFixture description(String description) {
+        book.setDescription(description);
+        return this;
+    }
+
+    public BookFixture genre(String genre) {
+        book.setGenre(genre);
+        return this;
+    }
+
+    public BookFixture publishedYear(int publishedYear) {
+        book.setPublishedYear(publishedYear);
+        return this;
+    }
+
+    public BookFixture quantity(int quantity) {
+        book.setQuantity(quantity);
+        return this;
+    }
+
+    public Book build() {
+        return book;
+    }
+}
@@ -0,0 +1,139 @@
+package com.eksooteeksoo.smartlibraryse.Repository;
+
+import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import com.eksooteeksoo.smartlibraryse.Model.BookBooking;
+import com.eksooteeksoo.smartlibraryse.Model.Role;
+import com.eksooteeksoo.smartlibraryse.Model.Usr;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The criteria query returns only the best match tier, with title and description hits
+ * narrowed to the requested authors, the way the old sequential fallbacks did, and orders
+ * a relevance-ranked tier by its priors before the candidate pool limit.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "app.admin.registration.key=test"
+})
+class BookCriteriaQueryTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookBookingRepository bookBookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Book himu;
+    private Book himuMidnight;
+    private Book misirAli;
+    private Book otherHimu;
+
+    @BeforeEach
+    void saveBooks() {
+        himu = save("Himu", "Humayun Ahmed", "Himu walks barefoot through Dhaka at night");
+        himuMidnight = save("Himu at Midnight", "Humayun Ahmed", "A yellow panjabi and a full moon");
+        misirAli = save("Misir Ali", "Humayun Ahmed", "A psychiatrist solves mysteries at night");
+        otherHimu = save("Himu Returns", "Someone Else", "A fan sequel set at night");
+    }
+
+    @Test
+    void titleAndAuthorQueryKeepsOnlyThatAuthorsTitles() {
+        BookSearchCriteria criteria = BookSearchCriteria.builder()
+                .titles(List.of("himu"))
+                .authors(List.of("Humayun Ahmed"))
+                .build();
+
+        assertEquals(Set.of(himu.getId(), himuMidnight.getId()),
+                ids(bookRepository.searchByCriteria(criteria, List.of("Humayun Ahmed"))));
+    }
+
+    @Test
+    void titleAndDescriptionQueryIsNotPaddedWithDescriptionOnlyHits() {
+        BookSearchCriteria criteria = BookSearchCriteria.builder()
+                .titles(List.of("himu"))
+                .descriptionKeywords(List.of("night"))
+                .build();
+
+        assertEquals(Set.of(himu.getId(), otherHimu.getId()),
+                ids(bookRepository.searchByCriteria(criteria, List.of())));
+    }
+
+    @Test
+    void authorTierAnswersWhenNoTitleMatches() {
+        BookSearchCriteria criteria = BookSearchCriteria.builder()
+                .titles(List.of("shonkhonil karagar"))
+                .authors(List.of("Humayun Ahmed"))
+                .build();
+
+        assertEquals(Set.of(himu.getId(), himuMidnight.getId(), misirAli.getId()),
+                ids(bookRepository.searchByCriteria(criteria, List.of("Humayun Ahmed"))));
+    }
+
+    @Test
+    void candidatePoolKeepsTheNewestBooksOfALargeTier() {
+        Book newest = save("Himu Rimande", "Humayun Ahmed", "Himu in custody", 2008);
+        BookSearchCriteria criteria = BookSearchCriteria.builder()
+                .authors(List.of("Humayun Ahmed"))
+                .prioritizeRecentBooks(true)
+                .build();
+
+        assertEquals(Set.of(newest.getId()),
+                ids(bookRepository.searchByCriteria(criteria, List.of("Humayun Ahmed"), 1)));
+    }
+
+    @Test
+    void candidatePoolKeepsTheMostBookedBooksOfALargeTier() {
+        Book mostBooked = save("Daruchini Dip", "Humayun Ahmed", "A trip to Saint Martin", 1990);
+        book(mostBooked, "first");
+        book(mostBooked, "second");
+        book(misirAli, "third");
+        BookSearchCriteria criteria = BookSearchCriteria.builder()
+                .authors(List.of("Humayun Ahmed"))
+                .sortBy("popularity")
+                .build();
+
+        assertEquals(Set.of(mostBooked.getId()),
+                ids(bookRepository.searchByCriteria(criteria, List.of("Humayun Ahmed"), 1)));
+    }
+
+    private Book save(String title, String author, String description) {
+        return save(title, author, description, 1990);
+    }
+
+    private Book save(String title, String author, String description, int year) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setDescription(description);
+        book.setPublishedYear(year);
+        book.setQuantity(1);
+        return bookRepository.save(book);
+    }
+
+    private void book(Book book, String userName) {
+        Usr user = new Usr();
+        user.setUserName(userName);
+        user.setPassword("secret");
+        user.setRoles(Set.of(Role.ROLE_USER));
+        BookBooking booking = new BookBooking();
+        booking.setUser(userRepository.save(user));
+        booking.setBook(book);
+        bookBookingRepository.save(booking);
+    }
+
+    private static Set<Long> ids(List<Book> books) {
+        return Set.copyOf(books.stream().map(Book::getId).toList());
+    }
+}
@@ -0,0 +1,203 @@
+package com.eksooteeksoo.smartlibraryse.Repository;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogIndex;
+import com.eksooteeksoo.smartlibraryse.Client.MistralClient;
+import com.eksooteeksoo.smartlibraryse.DTO.BookDTO;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import com.eksooteeksoo.smartlibraryse.Model.Genre;
+import com.eksooteeksoo.smartlibraryse.Search.ExtractionTrainingLog;
+import com.eksooteeksoo.smartlibraryse.Search.FacetIndex;
+import com.eksooteeksoo.smartlibraryse.Search.SlotClassifier;
+import com.eksooteeksoo.smartlibraryse.Search.SuggestionIndex;
+import com.eksooteeksoo.smartlibraryse.ServiceImpl.BookServiceImpl;
+import com.eksooteeksoo.smartlibraryse.ServiceImpl.KeywordExtractionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Genre queries against the book_genres join table: N-way AND and OR over exact genre
+ * names in the criteria query, exclusion, the split of legacy genre text, and what the
+ * rule-extracted criteria for genre and author messages find.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "app.admin.registration.key=test"
+})
+@Import(BookServiceImpl.class)
+class BookGenreQueryTest {
+
+    @Autowired
+    private BookServiceImpl bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @MockitoBean
+    private CatalogIndex catalogIndex;
+
+    @MockitoBean
+    private SuggestionIndex suggestionIndex;
+
+    @MockitoBean
+    private FacetIndex facetIndex;
+
+    private final KeywordExtractionServiceImpl rules = new KeywordExtractionServiceImpl(mock(MistralClient.class),
+            mock(ExtractionTrainingLog.class), mock(SlotClassifier.class), new SimpleMeterRegistry(), 100, 60);
+
+    private Book hobbit;
+    private Book dune;
+    private Book foundation;
+
+    @BeforeEach
+    void saveBooks() {
+        hobbit = bookService.createBook(dto("The Hobbit", "Fantasy, Adventure"));
+        dune = bookService.createBook(dto("Dune", "Science Fiction / Adventure"));
+        foundation = bookService.createBook(dto("Foundation", "science fiction"));
+    }
+
+    @Test
+    void adminGenreTextIsSplitIntoSharedGenreRows() {
+        assertEquals(3, genreRepository.count());
+        assertEquals("Science Fiction, Adventure", dune.getGenre());
+    }
+
+    @Test
+    void criteriaQueryMatchesAnyOrAllGenres() {
+        assertEquals(Set.of(hobbit.getId(), dune.getId(), foundation.getId()),
+                ids(bookRepository.searchByCriteria(genres("OR", "fantasy", "Science  Fiction"), List.of())));
+        assertEquals(Set.of(dune.getId()),
+                ids(bookRepository.searchByCriteria(genres("AND", "adventure", "science fiction"), List.of())));
+        assertEquals(Set.of(),
+                ids(bookRepository.searchByCriteria(genres("AND", "fantasy", "adventure", "science fiction"), List.of())));
+    }
+
+    @Test
+    void criteriaQueryMatchesExactGenreNames() {
+        // "fiction" alone is not a genre, so it matches nothing rather than "science fiction"
+        assertEquals(Set.of(), ids(bookRepository.searchByCriteria(genres("OR", "fiction"), List.of())));
+        assertEquals(Set.of(hobbit.getId()),
+                ids(bookRepository.searchByCriteria(genres("OR", "fantasy", "fiction"), List.of())));
+        // AND over a genre the catalog lacks cannot be satisfied
+        assertEquals(Set.of(),
+                ids(bookRepository.searchByCriteria(genres("AND", "adventure", "fiction"), List.of())));
+    }
+
+    @Test
+    void lexiconGenreNamesMatchAdminGenreNames() {
+        Book selfHelp = bookService.createBook(dto("Atomic Habits", "Self Help"));
+
+        assertEquals(Set.of(dune.getId(), foundation.getId()),
+                ids(bookRepository.searchByCriteria(genres("OR", "science-fiction"), List.of())));
+        assertEquals(Set.of(selfHelp.getId()),
+                ids(bookRepository.searchByCriteria(genres("OR", "self-help"), List.of())));
+    }
+
+    @Test
+    void genresStoredUnderAnOlderNormalizationAreMergedOnStart() {
+        Genre hyphenated = new Genre();
+        hyphenated.setName("Self-Help");
+        hyphenated.setNormalizedName("self-help");
+        hyphenated = genreRepository.save(hyphenated);
+        Book older = new Book();
+        older.setTitle("Older");
+        older.setAuthor("Someone");
+        older.setPublishedYear(1990);
+        older.setQuantity(1);
+        older.setGenre("Self-Help");
+        older.setGenres(Set.of(hyphenated));
+        older = bookRepository.save(older);
+        Book newer = bookService.createBook(dto("Newer", "Self Help"));
+
+        bookService.linkUnsplitGenres();
+
+        assertEquals(4, genreRepository.count());
+        assertEquals(Set.of(older.getId(), newer.getId()),
+                ids(bookRepository.searchByCriteria(genres("OR", "self help"), List.of())));
+    }
+
+    @Test
+    void criteriaQueryExcludesGenres() {
+        BookSearchCriteria criteria = genres("OR", "adventure").toBuilder()
+                .excludeGenres(List.of("fantasy"))
+                .build();
+
+        assertEquals(Set.of(dune.getId()), ids(bookRepository.searchByCriteria(criteria, List.of())));
+    }
+
+    @Test
+    void linksBooksSavedWithOnlyGenreText() {
+        Book legacy = new Book();
+        legacy.setTitle("Legacy");
+        legacy.setAuthor("Someone");
+        legacy.setPublishedYear(1990);
+        legacy.setQuantity(1);
+        legacy.setGenre("Mystery; Fantasy");
+        legacy = bookRepository.save(legacy);
+
+        bookService.linkUnsplitGenres();
+
+        assertEquals(Set.of(hobbit.getId(), legacy.getId()),
+                ids(bookRepository.searchByCriteria(genres("OR", "fantasy"), List.of())));
+        assertEquals(Set.of(legacy.getId()), ids(bookRepository.searchByCriteria(genres("OR", "mystery"), List.of())));
+        assertEquals(4, genreRepository.count());
+    }
+
+    @Test
+    void ruleCriteriaSearchGenresAndAuthorsRatherThanTheirWords() {
+        Book recentFantasy = bookService.createBook(
+                dto("Dragon Court", "Fantasy", "A Writer", 2015, "Set after the war"));
+        bookService.createBook(dto("Long Road", "Adventure", "B Writer", 2016, "What came after"));
+        Book silmarillion = bookService.createBook(
+                dto("The Silmarillion", "Fantasy", "J. R. R. Tolkien", 1977, "Elder days"));
+        bookService.createBook(dto("Reading Middle-earth", "Criticism", "C Critic", 2001, "Essays on tolkien"));
+
+        BookSearchCriteria fantasyAfter = rules.extractWithRules("fantasy books after 2010");
+        assertEquals(Set.of(recentFantasy.getId()),
+                ids(bookRepository.searchByCriteria(fantasyAfter, List.of())));
+
+        BookSearchCriteria byTolkien = rules.extractWithRules("books by tolkien");
+        assertEquals(Set.of(silmarillion.getId()),
+                ids(bookRepository.searchByCriteria(byTolkien, byTolkien.getAuthors())));
+    }
+
+    private static BookSearchCriteria genres(String operation, String... genres) {
+        return BookSearchCriteria.builder()
+                .genres(List.of(genres))
+                .genreSearchOperation(operation)
+                .build();
+    }
+
+    private static Set<Long> ids(List<Book> books) {
+        return Set.copyOf(books.stream().map(Book::getId).toList());
+    }
+
+    private static BookDTO dto(String title, String genre) {
+        return dto(title, genre, "Author", 1965, null);
+    }
+
+    private static BookDTO dto(String title, String genre, String author, int year, String description) {
+        BookDTO dto = new BookDTO();
+        dto.setTitle(title);
+        dto.setAuthor(author);
+        dto.setPublishedYear(year);
+        dto.setQuantity(2);
+        dto.setGenre(genre);
+        dto.setDescription(description);
+        return dto;
+    }
+}
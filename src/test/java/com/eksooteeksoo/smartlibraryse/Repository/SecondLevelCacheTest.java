@@ -0,0 +1,112 @@
+package com.eksooteeksoo.smartlibraryse.Repository;
+
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import com.eksooteeksoo.smartlibraryse.Model.Role;
+import com.eksooteeksoo.smartlibraryse.Model.Usr;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Books, users and the username lookup are served from the second-level cache after
+ * their first load. Runs without the test transaction so
+ * each repository call commits and the read-write regions are populated.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "app.admin.registration.key=test"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void deleteRows() {
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void bookLoadedOnceIsReadFromTheBooksRegion() {
+        Book book = new Book();
+        book.setTitle("Dune");
+        book.setAuthor("Frank Herbert");
+        book.setQuantity(1);
+        Long id = bookRepository.save(book).getId();
+
+        bookRepository.findById(id).orElseThrow();
+        long statements = statistics.getPrepareStatementCount();
+        Book cached = bookRepository.findById(id).orElseThrow();
+
+        assertEquals("Dune", cached.getTitle());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("books").getHitCount());
+    }
+
+    @Test
+    void bookingEvictsOnlyTheBookedBook() {
+        Long booked = bookRepository.save(book("Dune", 2)).getId();
+        Long other = bookRepository.save(book("Emma", 1)).getId();
+        bookRepository.findById(booked).orElseThrow();
+        bookRepository.findById(other).orElseThrow();
+
+        assertEquals(1, bookRepository.decrementQuantityIfAvailable(booked));
+
+        long statements = statistics.getPrepareStatementCount();
+        bookRepository.findById(other).orElseThrow();
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, bookRepository.findById(booked).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void repeatedUsernameLookupRunsNoSql() {
+        Usr user = new Usr();
+        user.setUserName("reader");
+        user.setPassword("secret");
+        user.setRoles(Set.of(Role.ROLE_USER));
+        userRepository.save(user);
+
+        userRepository.findByUserName("reader").orElseThrow();
+        long statements = statistics.getPrepareStatementCount();
+        Usr cached = userRepository.findByUserName("reader").orElseThrow();
+
+        assertEquals(Set.of(Role.ROLE_USER), cached.getRoles());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    private static Book book(String title, int quantity) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Someone");
+        book.setQuantity(quantity);
+        return book;
+    }
+}
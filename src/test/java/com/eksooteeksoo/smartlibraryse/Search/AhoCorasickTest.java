@@ -0,0 +1,63 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AhoCorasickTest {
+
+    private static List<String> scan(AhoCorasick automaton, List<String> patterns, String text) {
+        List<String> found = new ArrayList<>();
+        int state = automaton.initialState();
+        for (int i = 0; i < text.length(); i++) {
+            state = automaton.next(state, text.charAt(i));
+            for (int id : automaton.matches(state)) {
+                int start = i + 1 - automaton.patternLength(id);
+                found.add(patterns.get(id) + "@" + start);
+            }
+        }
+        return found;
+    }
+
+    @Test
+    void reportsOverlappingAndNestedMatches() {
+        List<String> patterns = List.of("he", "she", "his", "hers");
+        AhoCorasick.Builder builder = AhoCorasick.builder();
+        patterns.forEach(builder::add);
+        AhoCorasick automaton = builder.build();
+
+        List<String> found = scan(automaton, patterns, "ushers");
+
+        assertTrue(found.contains("she@1"));
+        assertTrue(found.contains("he@2"));
+        assertTrue(found.contains("hers@2"));
+        assertEquals(3, found.size());
+    }
+
+    @Test
+    void duplicatePatternsShareAnId() {
+        AhoCorasick.Builder builder = AhoCorasick.builder();
+        int first = builder.add("novel");
+        int second = builder.add("novel");
+
+        assertEquals(first, second);
+        assertEquals(1, builder.build().patternCount());
+    }
+
+    @Test
+    void matchesBengaliPatterns() {
+        List<String> patterns = List.of("উপন্যাস", "গল্প");
+        AhoCorasick.Builder builder = AhoCorasick.builder();
+        patterns.forEach(builder::add);
+        AhoCorasick automaton = builder.build();
+
+        assertEquals(List.of("উপন্যাস@5"), scan(automaton, patterns, "কিছু উপন্যাস দাও"));
+        assertTrue(automaton.containsAny("ছোট গল্প"));
+        assertFalse(automaton.containsAny("poetry"));
+    }
+}
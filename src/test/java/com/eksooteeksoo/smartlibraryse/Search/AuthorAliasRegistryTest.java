@@ -0,0 +1,61 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.Model.Author;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthorAliasRegistryTest {
+
+    private final AuthorAliasRegistry.Snapshot snapshot = AuthorAliasRegistry.compile(defaultAuthors());
+
+    @Test
+    void resolvesEnglishAndBengaliSpellingsToTheSameAuthor() {
+        Set<Long> tagore = snapshot.resolve("Rabindranath Tagore");
+
+        assertEquals(1, tagore.size());
+        assertEquals(tagore, snapshot.resolve("রবীন্দ্রনাথ ঠাকুর"));
+        assertEquals(tagore, snapshot.resolve("রবি"));
+        assertEquals(tagore, snapshot.resolve("tagore"));
+    }
+
+    @Test
+    void findsWholeNamesInsideLongerQueries() {
+        assertEquals(snapshot.resolve("sarat chandra"), snapshot.resolve("books by Sarat Chandra please"));
+        assertEquals(1, snapshot.resolve("books by sarat chandra please").size());
+    }
+
+    @Test
+    void fallsBackToNameTokensWhenNoWholeNameMatches() {
+        // "chandra" alone is shared by two authors, as with the old substring matching
+        assertEquals(2, snapshot.resolve("chandra").size());
+        assertEquals(snapshot.resolve("Humayun Ahmed"), snapshot.resolve("ahmed humayun"));
+    }
+
+    @Test
+    void unknownAuthorsResolveToNothing() {
+        assertTrue(snapshot.resolve("terry pratchett").isEmpty());
+        assertTrue(snapshot.resolve("").isEmpty());
+        assertTrue(snapshot.resolve(null).isEmpty());
+    }
+
+    private static List<Author> defaultAuthors() {
+        List<Author> authors = new ArrayList<>();
+        long id = 1;
+        for (DefaultAuthorAliases.Entry entry : DefaultAuthorAliases.ENTRIES) {
+            Author author = new Author();
+            author.setId(id++);
+            author.setCanonicalName(entry.canonicalName());
+            author.setNameBengali(entry.nameBengali());
+            author.setAliases(new HashSet<>(entry.aliases()));
+            authors.add(author);
+        }
+        return authors;
+    }
+}
@@ -0,0 +1,65 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogChangeEvent;
+import com.eksooteeksoo.smartlibraryse.DTO.SearchFacets;
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.eksooteeksoo.smartlibraryse.Model.BookFixture.book;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FacetIndexTest {
+
+    private final FacetIndex index = new FacetIndex();
+
+    @BeforeEach
+    void addBooks() {
+        index.onCatalogChange(CatalogChangeEvent.saved(book(1L, "Book 1", "Author")
+                .genre("Fantasy, Adventure").publishedYear(1997).quantity(2).build()));
+        index.onCatalogChange(CatalogChangeEvent.saved(book(2L, "Book 2", "Author")
+                .genre("fantasy").publishedYear(1998).quantity(0).build()));
+        index.onCatalogChange(CatalogChangeEvent.saved(book(3L, "Book 3", "Author")
+                .genre("Science Fiction / Adventure").publishedYear(2005).build()));
+        index.onCatalogChange(CatalogChangeEvent.saved(book(4L, "Book 4", "Author").build()));
+    }
+
+    @Test
+    void countsGenresDecadesAndStockOverTheResultSet() {
+        SearchFacets facets = index.facets(List.of(1L, 2L, 3L, 4L));
+
+        assertEquals(4, facets.getTotal());
+        assertEquals(3, facets.getInStock());
+        assertEquals(List.of("Adventure", "Fantasy", "Science Fiction"), List.copyOf(facets.getGenres().keySet()));
+        assertEquals(Map.of("Adventure", 2, "Fantasy", 2, "Science Fiction", 1), facets.getGenres());
+        assertEquals(List.of(1990, 2000), List.copyOf(facets.getDecades().keySet()));
+        assertEquals(Map.of(1990, 2, 2000, 1), facets.getDecades());
+    }
+
+    @Test
+    void ignoresBooksOutsideTheResultAndUnknownIds() {
+        SearchFacets facets = index.facets(List.of(2L, 99L));
+
+        assertEquals(1, facets.getTotal());
+        assertEquals(0, facets.getInStock());
+        assertEquals(Map.of("Fantasy", 1), facets.getGenres());
+        assertEquals(Map.of(1990, 1), facets.getDecades());
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        index.onCatalogChange(CatalogChangeEvent.saved(book(2L, "Book 2", "Author")
+                .genre("Mystery").publishedYear(2011).quantity(4).build()));
+        index.onCatalogChange(CatalogChangeEvent.deleted(3L));
+
+        SearchFacets facets = index.facets(List.of(1L, 2L, 3L));
+
+        assertEquals(2, facets.getTotal());
+        assertEquals(2, facets.getInStock());
+        assertEquals(Map.of("Adventure", 1, "Fantasy", 1, "Mystery", 1), facets.getGenres());
+        assertEquals(Map.of(1990, 1, 2010, 1), facets.getDecades());
+    }
+}
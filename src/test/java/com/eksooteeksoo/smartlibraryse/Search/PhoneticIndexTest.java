@@ -0,0 +1,48 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static com.eksooteeksoo.smartlibraryse.Model.BookFixture.book;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PhoneticIndexTest {
+
+    private final PhoneticIndex index = new PhoneticIndex();
+
+    @BeforeEach
+    void addBooks() {
+        index.onCatalogChange(CatalogChangeEvent.saved(book(1L, "Gitanjali", "Rabindranath Tagore")
+                .authorBengali("রবীন্দ্রনাথ ঠাকুর").build()));
+        index.onCatalogChange(CatalogChangeEvent.saved(book(2L, "Pather Panchali", "Humayun Ahmed").build()));
+        index.onCatalogChange(CatalogChangeEvent.saved(book(3L, "Devdas", "Sarat Chandra Chattopadhyay").build()));
+    }
+
+    @Test
+    void resolvesAuthorsInEitherScript() {
+        assertEquals(Set.of(1L), index.findByAuthor("রবীন্দ্রনাথ ঠাকুর"));
+        assertEquals(Set.of(1L), index.findByAuthor("rabindranath"));
+        assertEquals(Set.of(2L), index.findByAuthor("হুমায়ূন আহমেদ"));
+        assertEquals(Set.of(2L), index.findByAuthor("humayoon"));
+        assertEquals(Set.of(3L), index.findByAuthor("শরৎচন্দ্র চট্টোপাধ্যায়"));
+    }
+
+    @Test
+    void resolvesWholeTitlesAcrossScripts() {
+        assertEquals(Set.of(2L), index.findByTitle("পথের পাঁচালী"));
+        assertEquals(Set.of(3L), index.findByTitle("দেবদাস"));
+        assertTrue(index.findByTitle("Devdas Returns").isEmpty());
+    }
+
+    @Test
+    void dropsBooksOnDelete() {
+        index.onCatalogChange(CatalogChangeEvent.deleted(2L));
+
+        assertTrue(index.findByAuthor("humayun").isEmpty());
+        assertTrue(index.findByTitle("pather panchali").isEmpty());
+    }
+}
@@ -0,0 +1,37 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class PhoneticKeyTest {
+
+    @Test
+    void bengaliAndRomanizedSpellingsShareAKey() {
+        assertEquals(PhoneticKey.of("রবীন্দ্রনাথ"), PhoneticKey.of("rabindranath"));
+        assertEquals(PhoneticKey.of("হুমায়ূন আহমেদ"), PhoneticKey.of("Humayun Ahmed"));
+        assertEquals(PhoneticKey.of("কাজী নজরুল ইসলাম"), PhoneticKey.of("Kazi Nazrul Islam"));
+        assertEquals(PhoneticKey.of("জীবনানন্দ দাশ"), PhoneticKey.of("Jibanananda Das"));
+        assertEquals(PhoneticKey.of("চট্টোপাধ্যায়"), PhoneticKey.of("Chattopadhyay"));
+    }
+
+    @Test
+    void romanizationVariantsShareAKey() {
+        assertEquals(PhoneticKey.of("humayun"), PhoneticKey.of("humayoon"));
+        assertEquals(PhoneticKey.of("Bibhutibhushan"), PhoneticKey.of("Bibhutibhusan"));
+        assertEquals(PhoneticKey.of("Sharat"), PhoneticKey.of("Sarat"));
+        assertEquals(PhoneticKey.of("Vivekananda"), PhoneticKey.of("Bibekananda"));
+    }
+
+    @Test
+    void wordSplitsDoNotMatter() {
+        assertEquals(PhoneticKey.of("শরৎচন্দ্র"), PhoneticKey.of("Sarat Chandra"));
+    }
+
+    @Test
+    void differentNamesKeepDifferentKeys() {
+        assertNotEquals(PhoneticKey.of("Humayun Ahmed"), PhoneticKey.of("Muhammed Zafar Iqbal"));
+        assertNotEquals(PhoneticKey.of("ahmed"), PhoneticKey.of("hamid"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogIndex;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.eksooteeksoo.smartlibraryse.Model.BookFixture.book;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Scores against statistics taken from the candidates themselves, as before the catalog
+ * index is built.
+ */
+class RelevanceScorerTest {
+
+    private final RelevanceScorer scorer = new RelevanceScorer(new CatalogIndex(), null);
+
+    @Test
+    void titleMatchesOutrankDescriptionMentions() {
+        Book mention = book(1L, "Gardening Basics", "A Writer")
+                .description("Has one chapter about dragons").publishedYear(2001).build();
+        Book title = book(2L, "The Dragons of Autumn", "B Writer")
+                .description("An epic journey").publishedYear(1984).build();
+        Book unrelated = book(3L, "Cooking at Home", "C Writer").description("Recipes").publishedYear(2010).build();
+
+        List<Book> ranked = scorer.rank(criteria().keywords(List.of("dragons")).build(), Set.of(),
+            List.of(mention, unrelated, title));
+
+        assertEquals(List.of(title, mention, unrelated), ranked);
+    }
+
+    @Test
+    void optionalKeywordsBoostWithoutFiltering() {
+        Book plain = book(1L, "Space Stories", "A Writer").description("Tales from orbit").publishedYear(2000).build();
+        Book boosted = book(2L, "Space Stories Two", "B Writer")
+                .description("Tales from orbit with robots").publishedYear(2000).build();
+
+        List<Book> ranked = scorer.rank(criteria().keywords(List.of("space")).optionalKeywords(List.of("robots")).build(),
+            Set.of(), List.of(plain, boosted));
+
+        assertEquals(List.of(boosted, plain), ranked);
+    }
+
+    @Test
+    void recencyPriorBreaksTextTies() {
+        Book older = book(1L, "History of Bengal", "A Writer").description("").publishedYear(1950).build();
+        Book newer = book(2L, "History of Bengal", "B Writer").description("").publishedYear(2020).build();
+
+        List<Book> ranked = scorer.rank(criteria().keywords(List.of("history")).prioritizeRecentBooks(true).build(),
+            Set.of(), List.of(older, newer));
+
+        assertEquals(List.of(newer, older), ranked);
+    }
+
+    @Test
+    void keepsOnlyTheBestMaxResultsInCandidateOrderOnTies() {
+        List<Book> candidates = List.of(
+            book(1L, "Poems", "A Writer").description("").publishedYear(2000).build(),
+            book(2L, "Mystery Poems", "B Writer").description("").publishedYear(2000).build(),
+            book(3L, "Songs", "C Writer").description("").publishedYear(2000).build(),
+            book(4L, "Mystery", "D Writer").description("").publishedYear(2000).build(),
+            book(5L, "Essays", "E Writer").description("").publishedYear(2000).build());
+
+        List<Book> ranked = scorer.rank(criteria().keywords(List.of("mystery")).maxResults(3).build(), Set.of(), candidates);
+
+        assertEquals(List.of(4L, 2L, 1L), ranked.stream().map(Book::getId).toList());
+    }
+
+    @Test
+    void explicitSortKeepsDatabaseOrder() {
+        List<Book> candidates = List.of(
+            book(1L, "Alpha", "A Writer").description("").publishedYear(2000).build(),
+            book(2L, "Beta dragons", "B Writer").description("").publishedYear(2000).build());
+
+        BookSearchCriteria byTitle = criteria().keywords(List.of("dragons")).sortBy("title").build();
+
+        assertEquals(candidates, scorer.rank(byTitle, Set.of(), candidates));
+        assertEquals(byTitle.resolveMaxResults(), scorer.candidatePoolSize(byTitle));
+        assertTrue(scorer.candidatePoolSize(criteria().build()) > criteria().build().resolveMaxResults());
+    }
+
+    private static BookSearchCriteria.BookSearchCriteriaBuilder criteria() {
+        return BookSearchCriteria.builder();
+    }
+}
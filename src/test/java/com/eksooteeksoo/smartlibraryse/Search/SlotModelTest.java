@@ -0,0 +1,168 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import com.eksooteeksoo.smartlibraryse.Search.SlotModel.Prediction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Trains on templated messages labelled the way Mistral labels them, then checks the
+ * slots on messages with words and years the model never saw.
+ */
+class SlotModelTest {
+
+    private static final String[] GENRES = {"fantasy", "mystery", "romance", "horror"};
+    private static final String[] AUTHORS = {
+        "jane austen", "agatha christie", "stephen king", "neil gaiman", "terry pratchett",
+        "ursula le guin", "dan brown", "nora roberts", "humayun ahmed", "anne rice"};
+
+    private static SlotModel model;
+
+    @BeforeAll
+    static void train() {
+        model = SlotModelTrainer.train(examples(), 1 << 12);
+    }
+
+    @Test
+    void predictsSlotsForUnseenMessages() {
+        Prediction after = model.predict("latest horror books after 2017");
+        assertEquals(List.of("horror"), after.genres());
+        assertEquals(2017, after.yearFrom());
+        assertNull(after.yearTo());
+        assertEquals("year", after.sortBy());
+        assertEquals("desc", after.sortOrder());
+
+        Prediction between = model.predict("romance between 1988 and 1994");
+        assertEquals(List.of("romance"), between.genres());
+        assertEquals(1988, between.yearFrom());
+        assertEquals(1994, between.yearTo());
+
+        Prediction author = model.predict("fantasy books by neil gaiman");
+        assertEquals(List.of("neil gaiman"), author.authors());
+        assertEquals(List.of("fantasy"), author.genres());
+    }
+
+    @Test
+    void modelFileRoundTrips(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("slot-model.bin");
+        model.write(file);
+
+        SlotModel read = SlotModel.read(file);
+
+        for (String message : List.of("popular mystery books", "horror by stephen king before 1990")) {
+            assertEquals(model.predict(message), read.predict(message));
+        }
+    }
+
+    @Test
+    void corruptWeightIndexIsAnIOException(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("slot-model.bin");
+        model.write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        // The last record is a (index, weight) pair; push the index past the dimension
+        ByteBuffer.wrap(bytes).putInt(bytes.length - 8, 1 << 20);
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> SlotModel.read(file));
+    }
+
+    @Test
+    void rulesKeepGenresTheModelHasNoHeadFor() {
+        BookSearchCriteria rules = BookSearchCriteria.builder()
+                .genres(List.of("Poetry", "Horror"))
+                .extractionSource("rules")
+                .build();
+        SlotClassifier classifier = new SlotClassifier("", 0.0);
+        classifier.setModel(model);
+
+        BookSearchCriteria classified = classifier.classify("mystery books by dan brown", rules);
+
+        assertEquals(List.of("mystery", "Poetry"), classified.getGenres());
+    }
+
+    @Test
+    void classifierFillsRuleCriteriaOnlyWhenSure() {
+        BookSearchCriteria rules = BookSearchCriteria.builder()
+                .keywords(List.of("gaiman"))
+                .searchMode("fuzzy")
+                .extractionSource("rules")
+                .build();
+
+        SlotClassifier sure = new SlotClassifier("", 0.0);
+        sure.setModel(model);
+        BookSearchCriteria classified = sure.classify("mystery books by dan brown", rules);
+        assertEquals("classifier", classified.getExtractionSource());
+        assertEquals(List.of("dan brown"), classified.getAuthors());
+        assertEquals(List.of("mystery"), classified.getGenres());
+        assertEquals("fuzzy", classified.getSearchMode());
+
+        SlotClassifier strict = new SlotClassifier("", 1.01);
+        strict.setModel(model);
+        assertNull(strict.classify("mystery books by dan brown", rules));
+        assertNull(new SlotClassifier("", 0.0).classify("mystery books by dan brown", rules));
+    }
+
+    @Test
+    void trainingLogRoundTripsAndSkipsCutLines(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("training.jsonl");
+        ExtractionTrainingLog log = new ExtractionTrainingLog(new ObjectMapper(), file.toString());
+        log.record("Fantasy after 2010", BookSearchCriteria.builder()
+                .genres(List.of("fantasy"))
+                .yearFrom(2010)
+                .userIntent("general")
+                .build());
+        Files.writeString(file, "{\"message\":\"cut sh", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        List<SlotExample> examples = SlotExample.readAll(file);
+
+        assertEquals(1, examples.size());
+        assertEquals("Fantasy after 2010", examples.get(0).message());
+        assertEquals(List.of("fantasy"), examples.get(0).genres());
+        assertEquals(2010, examples.get(0).yearFrom());
+    }
+
+    private static List<SlotExample> examples() {
+        List<SlotExample> examples = new ArrayList<>();
+        int n = 0;
+        for (String genre : GENRES) {
+            for (String author : AUTHORS) {
+                int year = 1950 + (n * 7) % 70;
+                int later = year + 3 + n % 9;
+                List<String> genres = List.of(genre);
+                examples.add(new SlotExample(genre + " books after " + year,
+                        genres, null, year, null, "general", "relevance", "desc"));
+                examples.add(new SlotExample("latest " + genre + " books after " + year,
+                        genres, null, year, null, "general", "year", "desc"));
+                examples.add(new SlotExample(genre + " published before " + year,
+                        genres, null, null, year, "general", "relevance", "desc"));
+                examples.add(new SlotExample(genre + " between " + year + " and " + later,
+                        genres, null, year, later, "general", "relevance", "desc"));
+                examples.add(new SlotExample(genre + " books by " + author,
+                        genres, List.of(author), null, null, "specific", "relevance", "desc"));
+                examples.add(new SlotExample("popular " + genre + " by " + author,
+                        genres, List.of(author), null, null, "general", "popularity", "desc"));
+                examples.add(new SlotExample("books by " + author,
+                        List.of(), List.of(author), null, null, "specific", "relevance", "desc"));
+                examples.add(new SlotExample("oldest " + genre + " books",
+                        genres, null, null, null, "general", "year", "asc"));
+                n++;
+            }
+        }
+        return examples;
+    }
+}
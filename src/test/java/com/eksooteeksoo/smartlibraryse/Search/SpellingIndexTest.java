@@ -0,0 +1,81 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogChangeEvent;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.eksooteeksoo.smartlibraryse.Model.BookFixture.book;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SpellingIndexTest {
+
+    private final SpellingIndex index = new SpellingIndex();
+
+    @BeforeEach
+    void addBooks() {
+        index.onCatalogChange(CatalogChangeEvent.saved(
+                book(1L, "Harry Potter and the Philosopher's Stone", "J. K. Rowling").build()));
+        index.onCatalogChange(CatalogChangeEvent.saved(book(2L, "Himu", "Humayun Ahmed")
+                .authorBengali("হুমায়ূন আহমেদ").build()));
+        index.onCatalogChange(CatalogChangeEvent.saved(book(3L, "Misir Ali", "Humayun Ahmed")
+                .authorBengali("হুমায়ূন আহমেদ").build()));
+    }
+
+    @Test
+    void correctsLatinTyposWithinTwoEdits() {
+        assertEquals("harry potter", index.correctText("Harry Poter"));
+        assertEquals("humayun ahmed", index.correctText("Humayon Ahmed"));
+        assertEquals("philosopher", index.correct("philospoher"));
+    }
+
+    @Test
+    void correctsBengaliVowelSignSwaps() {
+        // Short u (ু) typed instead of long u (ূ)
+        assertEquals("হুমায়ূন", index.correct("হুমায়ুন"));
+    }
+
+    @Test
+    void leavesKnownShortAndUnknownTermsAlone() {
+        assertEquals("potter", index.correct("potter"));
+        assertEquals("abc", index.correct("abc"));
+        assertEquals("gardening", index.correct("gardening"));
+    }
+
+    @Test
+    void forgetsTermsOfDeletedBooks() {
+        index.onCatalogChange(CatalogChangeEvent.deleted(1L));
+
+        assertEquals("poter", index.correct("poter"));
+    }
+
+    @Test
+    void correctsCriteriaOnlyWhenSomethingChanged() {
+        BookSearchCriteria typo = BookSearchCriteria.builder()
+            .authors(List.of("Humayon Ahmed"))
+            .keywords(List.of("himu"))
+            .build();
+
+        BookSearchCriteria corrected = index.correct(typo);
+
+        assertEquals(List.of("humayun ahmed"), corrected.getAuthors());
+        assertEquals(List.of("himu"), corrected.getKeywords());
+        assertNull(index.correct(BookSearchCriteria.builder().keywords(List.of("Himu")).build()));
+    }
+
+    @Test
+    void leavesDescriptionWordsAndRequiredKeywordsAlone() {
+        index.onCatalogChange(CatalogChangeEvent.saved(book(4L, "Tarka", "Henry Williamson")
+                .description("The life of an otter").build()));
+        // "otter" is one edit from the title word "potter", but a description uses it
+        BookSearchCriteria criteria = BookSearchCriteria.builder()
+            .descriptionKeywords(List.of("otter"))
+            .requiredKeywords(List.of("Himo"))
+            .build();
+
+        assertNull(index.correct(criteria));
+    }
+}
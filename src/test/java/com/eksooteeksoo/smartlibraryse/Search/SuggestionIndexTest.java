@@ -0,0 +1,102 @@
+package com.eksooteeksoo.smartlibraryse.Search;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogChangeEvent;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSuggestion;
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.eksooteeksoo.smartlibraryse.Model.BookFixture.book;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionIndexTest {
+
+    private final SuggestionIndex index = new SuggestionIndex(null);
+
+    @BeforeEach
+    void addBooks() {
+        index.update(book(1L, "Harry Potter and the Philosopher's Stone", "J. K. Rowling").quantity(2).build(), 5);
+        index.update(book(2L, "Harry Potter and the Chamber of Secrets", "J. K. Rowling").build(), 9);
+        index.update(book(3L, "Himu", "Humayun Ahmed").authorBengali("হুমায়ূন আহমেদ").quantity(0).build(), 40);
+        index.update(book(4L, "Misir Ali", "Humayun Ahmed").authorBengali("হুমায়ূন আহমেদ").quantity(3).build(), 1);
+    }
+
+    @Test
+    void completesPrefixesRankedByAvailabilityThenBookings() {
+        assertEquals(List.of("Harry Potter and the Chamber of Secrets", "Harry Potter and the Philosopher's Stone"),
+                texts(index.suggest("harry p", 10)));
+
+        // Himu is the most booked title but has no copies left, so every available match ranks above it
+        assertEquals(List.of("Humayun Ahmed", "Harry Potter and the Chamber of Secrets",
+                        "Harry Potter and the Philosopher's Stone", "Himu"),
+                texts(index.suggest("h", 10)));
+    }
+
+    @Test
+    void matchesLaterWordsAndBengaliNames() {
+        assertEquals(List.of("Harry Potter and the Chamber of Secrets"), texts(index.suggest("chamb", 10)));
+        assertEquals(List.of("হুমায়ূন আহমেদ"), texts(index.suggest("আহ", 10)));
+        assertEquals(List.of("J. K. Rowling"), texts(index.suggest("j k", 10)));
+    }
+
+    @Test
+    void returnsBookIdsForSingleTitlesOnly() {
+        BookSuggestion title = index.suggest("misir", 10).get(0);
+        assertEquals("title", title.getType());
+        assertEquals(4L, title.getBookId());
+        assertTrue(title.isAvailable());
+
+        BookSuggestion author = index.suggest("rowling", 10).get(0);
+        assertEquals("author", author.getType());
+        assertNull(author.getBookId());
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        index.update(book(3L, "Himu", "Humayun Ahmed").authorBengali("হুমায়ূন আহমেদ").build(), 40);
+        assertEquals(List.of("Humayun Ahmed", "Himu"), texts(index.suggest("h", 10)).subList(0, 2));
+
+        index.update(book(1L, "Harry Potter and the Philosopher's Stone", "J. K. Rowling").quantity(0).build(), 5);
+        index.update(book(2L, "Harry Potter and the Chamber of Secrets", "J. K. Rowling").quantity(0).build(), 9);
+        BookSuggestion rowling = index.suggest("rowl", 10).get(0);
+        assertFalse(rowling.isAvailable());
+
+        index.onCatalogChange(CatalogChangeEvent.deleted(4L));
+        assertTrue(index.suggest("misir", 10).isEmpty());
+        // The author now counts Himu's bookings alone and ties with it; the key breaks the tie
+        assertEquals(List.of("Himu", "Humayun Ahmed"), texts(index.suggest("h", 10)).subList(0, 2));
+    }
+
+    @Test
+    void countsBookingsFromTheEvents() {
+        Book philosophersStone = book(1L, "Harry Potter and the Philosopher's Stone", "J. K. Rowling")
+                .quantity(2).build();
+        // An edit keeps the five bookings already counted
+        index.onCatalogChange(CatalogChangeEvent.saved(philosophersStone));
+        assertEquals(List.of("Harry Potter and the Chamber of Secrets", "Harry Potter and the Philosopher's Stone"),
+                texts(index.suggest("harry p", 10)));
+
+        for (int i = 0; i < 5; i++) {
+            index.onCatalogChange(CatalogChangeEvent.booked(philosophersStone));
+        }
+        assertEquals(List.of("Harry Potter and the Philosopher's Stone", "Harry Potter and the Chamber of Secrets"),
+                texts(index.suggest("harry p", 10)));
+    }
+
+    @Test
+    void limitsAndTrailingSpace() {
+        assertEquals(1, index.suggest("harry", 1).size());
+        assertTrue(index.suggest("harryp", 10).isEmpty());
+        assertTrue(index.suggest("himu ", 10).isEmpty());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    private static List<String> texts(List<BookSuggestion> suggestions) {
+        return suggestions.stream().map(BookSuggestion::getText).toList();
+    }
+}
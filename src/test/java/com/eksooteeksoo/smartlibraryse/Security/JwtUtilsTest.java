@@ -0,0 +1,84 @@
+package com.eksooteeksoo.smartlibraryse.Security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "testSecretKey123456789012345678901234567890";
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60_000L);
+        jwtUtils.init();
+    }
+
+    @Test
+    void generatedTokenCarriesSubjectAndRoles() {
+        UserDetails user = User.withUsername("alice").password("x").authorities("ADMIN", "USER").build();
+        String token = jwtUtils.generateJwtToken(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        Claims claims = jwtUtils.parseClaims(token);
+
+        assertNotNull(claims);
+        assertEquals("alice", claims.getSubject());
+        assertEquals(List.of(new SimpleGrantedAuthority("ADMIN"), new SimpleGrantedAuthority("USER")),
+            jwtUtils.getAuthoritiesFromClaims(claims));
+    }
+
+    @Test
+    void legacyTokenWithoutRolesHasNoAuthorities() {
+        String token = Jwts.builder()
+                .setSubject("bob")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        Claims claims = jwtUtils.parseClaims(token);
+
+        assertNotNull(claims);
+        List<GrantedAuthority> authorities = jwtUtils.getAuthoritiesFromClaims(claims);
+        assertNull(authorities);
+    }
+
+    @Test
+    void tamperedOrExpiredTokensAreRejected() {
+        String foreign = Jwts.builder()
+                .setSubject("mallory")
+                .claim("roles", List.of("ADMIN"))
+                .signWith(Keys.hmacShaKeyFor("anotherSecretKey12345678901234567890123456".getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+        String expired = Jwts.builder()
+                .setSubject("carol")
+                .setExpiration(new Date(System.currentTimeMillis() - 1_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertNull(jwtUtils.parseClaims(foreign));
+        assertNull(jwtUtils.parseClaims(expired));
+        assertFalse(jwtUtils.validateJwtToken("not-a-jwt"));
+    }
+}
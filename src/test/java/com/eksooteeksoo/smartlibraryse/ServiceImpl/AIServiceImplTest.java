@@ -0,0 +1,210 @@
+package com.eksooteeksoo.smartlibraryse.ServiceImpl;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.AvailableBooksSnapshot;
+import com.eksooteeksoo.smartlibraryse.Config.ChatExecutorConfig;
+import com.eksooteeksoo.smartlibraryse.Controller.UserController;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSummary;
+import com.eksooteeksoo.smartlibraryse.DTO.ChatRequest;
+import com.eksooteeksoo.smartlibraryse.DTO.ChatResponse;
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import com.eksooteeksoo.smartlibraryse.Repository.BookRepository;
+import com.eksooteeksoo.smartlibraryse.Search.AuthorAliasRegistry;
+import com.eksooteeksoo.smartlibraryse.Search.FacetIndex;
+import com.eksooteeksoo.smartlibraryse.Search.PhoneticIndex;
+import com.eksooteeksoo.smartlibraryse.Search.RelevanceScorer;
+import com.eksooteeksoo.smartlibraryse.Search.SpellingIndex;
+import com.eksooteeksoo.smartlibraryse.Service.BookService;
+import com.eksooteeksoo.smartlibraryse.Service.KeywordExtractionService;
+import com.eksooteeksoo.smartlibraryse.Service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.eksooteeksoo.smartlibraryse.Model.BookFixture.book;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * The hedged chat path against a Mistral extraction that is slow or cannot be scheduled
+ * at all, where the rule-based answer must come back within the budget, and the order of
+ * the streamed chat events.
+ */
+class AIServiceImplTest {
+
+    private static final long BUDGET_MS = 200;
+    private static final long MISTRAL_MS = 3000;
+    // One for the streamed rules, one for the Mistral leg it starts
+    private static final int THREADS = 2;
+
+    private final KeywordExtractionService extraction = mock(KeywordExtractionService.class);
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch releaseMistral = new CountDownLatch(1);
+    private final RelevanceScorer relevanceScorer = mock(RelevanceScorer.class);
+    private final List<Book> ruleBooks = List.of(
+            book(1L, "Himu", "Humayun Ahmed").build(),
+            book(2L, "Misir Ali", "Humayun Ahmed").build());
+    private final List<Book> refinedBooks = List.of(book(3L, "Tomader Jonno Valobasa", "Humayun Ahmed").build());
+
+    private ThreadPoolTaskExecutor chatExecutor;
+    private AIServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        BookSearchCriteria ruleCriteria = BookSearchCriteria.builder().extractionSource("rules").build();
+        when(extraction.extractWithRules(anyString())).thenReturn(ruleCriteria);
+        when(extraction.needsLanguageModel(any())).thenReturn(true);
+        when(extraction.extractWithLanguageModel(anyString())).thenAnswer(invocation -> {
+            releaseMistral.await(MISTRAL_MS, TimeUnit.MILLISECONDS);
+            return BookSearchCriteria.builder().genres(List.of("fantasy")).extractionSource("mistral").build();
+        });
+        when(bookRepository.findByQuantityGreaterThanOrderByIdAsc(anyInt(), any(Limit.class))).thenReturn(ruleBooks);
+        when(relevanceScorer.rank(any(), any(), any())).thenReturn(refinedBooks);
+
+        chatExecutor = chatExecutor(THREADS);
+        service = new AIServiceImpl(bookRepository, extraction, mock(AuthorAliasRegistry.class),
+                relevanceScorer, mock(SpellingIndex.class), mock(PhoneticIndex.class),
+                mock(FacetIndex.class), chatExecutor, meterRegistry);
+        ReflectionTestUtils.setField(service, "hedgingEnabled", true);
+        ReflectionTestUtils.setField(service, "hedgeBudgetMs", BUDGET_MS);
+        ReflectionTestUtils.setField(service, "streamTimeoutMs", 5000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseMistral.countDown();
+        chatExecutor.shutdown();
+    }
+
+    @Test
+    void slowMistralIsCutOffAtTheBudget() {
+        long start = System.nanoTime();
+        ChatResponse response = service.processChat(chatRequest("himu"));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs < MISTRAL_MS / 2, "took " + elapsedMs + " ms");
+        assertEquals(List.of(1L, 2L), bookIds(response));
+    }
+
+    @Test
+    void saturatedExecutorAnswersFromRulesWithoutRunningMistralInline() throws InterruptedException {
+        saturate();
+
+        long start = System.nanoTime();
+        ChatResponse response = service.processChat(chatRequest("himu"));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs < MISTRAL_MS / 2, "took " + elapsedMs + " ms");
+        assertEquals(List.of(1L, 2L), bookIds(response));
+        verify(extraction, never()).extractWithLanguageModel(anyString());
+        assertEquals(1.0, meterRegistry.get("chat.executor.rejected").tag("path", "hedged").counter().count());
+    }
+
+    @Test
+    void streamSendsRuleBooksThenRefinedThenSummary() throws Exception {
+        releaseMistral.countDown();
+
+        String body = stream("fantasy himu");
+
+        assertEquals(List.of("books", "refined", "summary"), events(body));
+        assertTrue(body.indexOf("Misir Ali") < body.indexOf("Tomader Jonno Valobasa"));
+    }
+
+    @Test
+    void streamSkipsRefinedWhenTheRulesSettleTheMessage() throws Exception {
+        when(extraction.needsLanguageModel(any())).thenReturn(false);
+
+        assertEquals(List.of("books", "summary"), events(stream("himu")));
+        verify(extraction, never()).extractWithLanguageModel(anyString());
+    }
+
+    @Test
+    void saturatedExecutorEndsTheStreamWithAnError() throws Exception {
+        saturate();
+
+        assertEquals(List.of("error"), events(stream("himu")));
+        verify(extraction, never()).extractWithRules(anyString());
+        assertEquals(1.0, meterRegistry.get("chat.executor.rejected").tag("path", "stream").counter().count());
+    }
+
+    private String stream(String message) throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new UserController(mock(BookService.class),
+                mock(UserService.class), service, mock(AvailableBooksSnapshot.class))).build();
+        MvcResult result = mockMvc.perform(get("/api/user/chat/stream")
+                        .param("message", message)
+                        .param("language", "en"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5000);
+        return result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> events(String body) {
+        return body.lines()
+                .filter(line -> line.startsWith("event:"))
+                .map(line -> line.substring("event:".length()).trim())
+                .toList();
+    }
+
+    // Occupies every chat thread; with no queue the next task is rejected
+    private void saturate() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            chatExecutor.execute(() -> {
+                running.countDown();
+                awaitQuietly(releaseMistral);
+            });
+        }
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+    }
+
+    private static ThreadPoolTaskExecutor chatExecutor(int threads) {
+        ChatExecutorConfig config = new ChatExecutorConfig();
+        ReflectionTestUtils.setField(config, "corePoolSize", threads);
+        ReflectionTestUtils.setField(config, "maxPoolSize", threads);
+        ReflectionTestUtils.setField(config, "queueCapacity", 0);
+        return config.chatExecutor();
+    }
+
+    private static ChatRequest chatRequest(String message) {
+        ChatRequest request = new ChatRequest();
+        request.setMessage(message);
+        request.setLanguage("en");
+        return request;
+    }
+
+    private static List<Long> bookIds(ChatResponse response) {
+        return response.getBooks().stream().map(BookSummary::getId).toList();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(MISTRAL_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.eksooteeksoo.smartlibraryse.ServiceImpl;
+
+import com.eksooteeksoo.smartlibraryse.DTO.BookBookingDTO;
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import com.eksooteeksoo.smartlibraryse.Model.BookBooking;
+import com.eksooteeksoo.smartlibraryse.Model.BookingStatus;
+import com.eksooteeksoo.smartlibraryse.Model.Role;
+import com.eksooteeksoo.smartlibraryse.Model.Usr;
+import com.eksooteeksoo.smartlibraryse.Repository.BookBookingRepository;
+import com.eksooteeksoo.smartlibraryse.Repository.BookRepository;
+import com.eksooteeksoo.smartlibraryse.Repository.UserRepository;
+import com.eksooteeksoo.smartlibraryse.Service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hammers bookBook and returnBook from many threads against a real database to make sure
+ * inventory is never oversold or double-returned. Runs outside a test transaction so every
+ * thread sees committed data.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "app.admin.registration.key=test"
+})
+@Import({UserServiceImpl.class, BCryptPasswordEncoder.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookBookingRepository bookBookingRepository;
+
+    @AfterEach
+    void cleanUp() {
+        bookBookingRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentBookingsNeverOversell() throws Exception {
+        int copies = 5;
+        Book book = saveBook(copies);
+        List<String> usernames = saveUsers(THREADS);
+
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (String username : usernames) {
+            attempts.add(() -> {
+                BookBookingDTO dto = new BookBookingDTO();
+                dto.setBookId(book.getId());
+                userService.bookBook(username, dto);
+                return true;
+            });
+        }
+
+        assertEquals(copies, runConcurrently(attempts));
+        assertEquals(0, bookRepository.findById(book.getId()).orElseThrow().getQuantity());
+        assertEquals(copies, bookBookingRepository.findByStatus(BookingStatus.ACTIVE).size());
+    }
+
+    @Test
+    void concurrentReturnsOfOneBookingRestockOnce() throws Exception {
+        Book book = saveBook(1);
+        String username = saveUsers(1).get(0);
+        BookBookingDTO dto = new BookBookingDTO();
+        dto.setBookId(book.getId());
+        BookBooking booking = userService.bookBook(username, dto);
+
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            attempts.add(() -> {
+                userService.returnBook(booking.getId());
+                return true;
+            });
+        }
+
+        assertEquals(1, runConcurrently(attempts));
+        assertEquals(1, bookRepository.findById(book.getId()).orElseThrow().getQuantity());
+    }
+
+    private Book saveBook(int quantity) {
+        Book book = new Book();
+        book.setTitle("Popular Title");
+        book.setAuthor("Some Author");
+        book.setPublishedYear(2020);
+        book.setQuantity(quantity);
+        return bookRepository.save(book);
+    }
+
+    private List<String> saveUsers(int count) {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Usr user = new Usr();
+            user.setUserName("reader" + i);
+            user.setPassword("password");
+            user.setRoles(Set.of(Role.ROLE_USER));
+            usernames.add(userRepository.save(user).getUserName());
+        }
+        return usernames;
+    }
+
+    /**
+     * Releases all tasks at once and returns how many completed without an exception.
+     */
+    private int runConcurrently(List<Callable<Boolean>> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Callable<Boolean> task : tasks) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Boolean> future : futures) {
+                try {
+                    if (future.get(30, TimeUnit.SECONDS)) {
+                        succeeded++;
+                    }
+                } catch (ExecutionException e) {
+                    // Expected for the losers: not available / not active
+                }
+            }
+            return succeeded;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.eksooteeksoo.smartlibraryse.ServiceImpl;
+
+import com.eksooteeksoo.smartlibraryse.Client.MistralClient;
+import com.eksooteeksoo.smartlibraryse.DTO.BookSearchCriteria;
+import com.eksooteeksoo.smartlibraryse.Search.ExtractionTrainingLog;
+import com.eksooteeksoo.smartlibraryse.Search.SlotClassifier;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Rule confidence and the decision to skip or ask Mistral.
+ */
+class ExtractionRoutingTest {
+
+    private final MistralClient mistralClient = mock(MistralClient.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final KeywordExtractionServiceImpl service =
+            new KeywordExtractionServiceImpl(mistralClient, mock(ExtractionTrainingLog.class),
+                    mock(SlotClassifier.class), meterRegistry, 100, 60);
+
+    @BeforeEach
+    void enableRouting() {
+        ReflectionTestUtils.setField(service, "routingEnabled", true);
+        ReflectionTestUtils.setField(service, "routingMinConfidence", 1.0);
+    }
+
+    @Test
+    void fullyRecognizedQueryNeverReachesMistral() {
+        BookSearchCriteria criteria = service.extractBookSearchCriteria("Fantasy books after 2010");
+
+        assertEquals("rules", criteria.getExtractionSource());
+        assertEquals(1.0, criteria.getExtractionConfidence());
+        assertEquals(List.of("fantasy"), criteria.getGenres());
+        assertEquals(2010, criteria.getYearFrom());
+        // "after" went into yearFrom, so nothing is left for the description search
+        assertEquals(List.of(), criteria.getKeywords());
+        assertEquals(List.of(), criteria.getDescriptionKeywords());
+        verifyNoInteractions(mistralClient);
+        assertEquals(1.0, routeCount("rules", "confident"));
+    }
+
+    @Test
+    void unknownWordsLowerConfidenceAndRouteToMistral() {
+        BookSearchCriteria criteria = service.extractWithRules("harry potter books");
+
+        assertEquals(1.0 / 3, criteria.getExtractionConfidence(), 1e-9);
+        assertTrue(service.needsLanguageModel(criteria));
+        assertEquals(1.0, routeCount("language_model", "low_confidence"));
+    }
+
+    @Test
+    void phraseHitsOnlyCountOnWholeWords() {
+        // "art" is a genre word, but not inside "party"
+        BookSearchCriteria party = service.extractWithRules("party art");
+        assertEquals(0.5, party.getExtractionConfidence(), 1e-9);
+        assertEquals(List.of("party"), party.getKeywords());
+
+        BookSearchCriteria tolkien = service.extractWithRules("science fiction by tolkien");
+        assertEquals(1.0, tolkien.getExtractionConfidence(), 1e-9);
+        assertEquals(List.of("tolkien"), tolkien.getAuthors());
+        assertTrue(tolkien.getGenres().contains("science-fiction"));
+        assertEquals(List.of(), tolkien.getKeywords());
+    }
+
+    @Test
+    void knownAuthorsFillTheAuthorSlot() {
+        BookSearchCriteria criteria = service.extractWithRules("books by tolkien");
+
+        assertEquals(List.of("tolkien"), criteria.getAuthors());
+        assertEquals(List.of(), criteria.getDescriptionKeywords());
+        assertEquals(1.0, criteria.getExtractionConfidence());
+    }
+
+    @Test
+    void excludedAuthorsAreNotSearchedFor() {
+        BookSearchCriteria criteria = service.extractWithRules("fantasy without tolkien");
+
+        assertEquals(List.of("tolkien"), criteria.getExcludeAuthors());
+        assertTrue(criteria.getAuthors() == null || criteria.getAuthors().isEmpty());
+        assertEquals(List.of(), criteria.getKeywords());
+    }
+
+    @Test
+    void detectorWordsWithoutTheirSlotStayKeywords() {
+        // No year follows "after", so it is an ordinary word
+        BookSearchCriteria criteria = service.extractWithRules("after dark");
+
+        assertEquals(List.of("after", "dark"), criteria.getKeywords());
+        assertEquals(0.0, criteria.getExtractionConfidence(), 1e-9);
+    }
+
+    @Test
+    void complexQueriesGoToMistralEvenWhenRecognized() {
+        BookSearchCriteria criteria = BookSearchCriteria.builder()
+                .titles(List.of("the hobbit"))
+                .authors(List.of("tolkien"))
+                .genres(List.of("fantasy"))
+                .yearFrom(1930)
+                .extractionConfidence(1.0)
+                .build();
+
+        assertTrue(service.needsLanguageModel(criteria));
+        assertEquals(1.0, routeCount("language_model", "complex"));
+    }
+
+    @Test
+    void disabledRoutingAlwaysAsksMistral() {
+        ReflectionTestUtils.setField(service, "routingEnabled", false);
+
+        assertTrue(service.needsLanguageModel(service.extractWithRules("fantasy books")));
+        assertFalse(meterRegistry.find("chat.extraction.route").tag("route", "rules").counters().iterator().hasNext());
+    }
+
+    private double routeCount(String route, String reason) {
+        return meterRegistry.get("chat.extraction.route").tag("route", route).tag("reason", reason).counter().count();
+    }
+}
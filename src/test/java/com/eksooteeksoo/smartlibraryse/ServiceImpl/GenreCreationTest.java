@@ -0,0 +1,58 @@
+package com.eksooteeksoo.smartlibraryse.ServiceImpl;
+
+import com.eksooteeksoo.smartlibraryse.Catalog.CatalogIndex;
+import com.eksooteeksoo.smartlibraryse.DTO.BookDTO;
+import com.eksooteeksoo.smartlibraryse.Model.Book;
+import com.eksooteeksoo.smartlibraryse.Model.Genre;
+import com.eksooteeksoo.smartlibraryse.Repository.BookRepository;
+import com.eksooteeksoo.smartlibraryse.Repository.GenreRepository;
+import com.eksooteeksoo.smartlibraryse.Search.FacetIndex;
+import com.eksooteeksoo.smartlibraryse.Search.SuggestionIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two admin saves naming the same new genre at once: the one that loses the insert race
+ * links the row the other created instead of failing.
+ */
+class GenreCreationTest {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final GenreRepository genreRepository = mock(GenreRepository.class);
+    private final BookServiceImpl service = new BookServiceImpl(bookRepository, genreRepository,
+            mock(CatalogIndex.class), mock(SuggestionIndex.class), mock(FacetIndex.class),
+            mock(ApplicationEventPublisher.class));
+
+    @Test
+    void lostInsertRaceReusesTheConcurrentlyCreatedGenre() {
+        Genre concurrent = new Genre();
+        concurrent.setId(7L);
+        concurrent.setName("Mystery");
+        concurrent.setNormalizedName("mystery");
+        // Not there when looked up, then there once the insert has been rejected
+        when(genreRepository.findByNormalizedNameIn(any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(concurrent));
+        when(genreRepository.save(any())).thenThrow(new DataIntegrityViolationException("normalized_name"));
+        when(bookRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BookDTO dto = new BookDTO();
+        dto.setTitle("The Moonstone");
+        dto.setAuthor("Wilkie Collins");
+        dto.setPublishedYear(1868);
+        dto.setQuantity(1);
+        dto.setGenre("Mystery");
+        Book book = service.createBook(dto);
+
+        assertEquals(Set.of(concurrent), book.getGenres());
+    }
+}
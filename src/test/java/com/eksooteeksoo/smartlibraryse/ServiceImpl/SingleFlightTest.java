@@ -0,0 +1,121 @@
+package com.eksooteeksoo.smartlibraryse.ServiceImpl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String, Object> flights = new SingleFlight<>();
+
+    @Test
+    void concurrentCallsForOneKeyShareOneComputation() throws Exception {
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object answer = new Object();
+
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<SingleFlight.Result<Object>>> calls = new ArrayList<>();
+            calls.add(pool.submit(() -> flights.execute("humayun", () -> {
+                computations.incrementAndGet();
+                started.countDown();
+                await(release);
+                return answer;
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < CALLERS; i++) {
+                calls.add(pool.submit(() -> flights.execute("humayun", () -> {
+                    computations.incrementAndGet();
+                    return new Object();
+                })));
+            }
+            // Followers are parked on the leader's future before it completes
+            awaitWaiting("humayun", CALLERS - 1);
+            release.countDown();
+
+            int shared = 0;
+            for (Future<SingleFlight.Result<Object>> call : calls) {
+                SingleFlight.Result<Object> result = call.get(5, TimeUnit.SECONDS);
+                assertSame(answer, result.value());
+                shared += result.shared() ? 1 : 0;
+            }
+            assertEquals(1, computations.get());
+            assertEquals(CALLERS - 1, shared);
+            assertEquals(0, flights.inFlight());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void failureReachesWaitingCallersAndIsNotKept() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> leader = pool.submit(() -> flights.execute("q", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("search failed");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<?> follower = pool.submit(() -> flights.execute("q", Object::new));
+            awaitWaiting("q", 1);
+            release.countDown();
+
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertTrue(leaderError.getCause() instanceof IllegalStateException);
+            assertTrue(followerError.getCause() instanceof IllegalStateException);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        SingleFlight.Result<Object> next = flights.execute("q", () -> "fresh");
+        assertEquals("fresh", next.value());
+        assertFalse(next.shared());
+    }
+
+    @Test
+    void differentKeysDoNotWaitForEachOther() {
+        SingleFlight.Result<Object> outer = flights.execute("a", () ->
+                flights.execute("b", () -> "inner").value());
+
+        assertEquals("inner", outer.value());
+        assertFalse(outer.shared());
+    }
+
+    private void awaitWaiting(String key, int callers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flights.waiting(key) < callers) {
+            assertTrue(System.nanoTime() < deadline, "callers did not start waiting");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}